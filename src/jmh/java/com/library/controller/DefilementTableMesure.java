@@ -0,0 +1,179 @@
+package com.library.controller;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import com.library.model.Emprunt;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.Scene;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.Stage;
+
+/**
+ * Mesure reproductible du défilement d'une table de 100 000 emprunts : la table défile
+ * d'un pas fixe à chaque passage (pulse) et, après chaque mise en page, le temps écoulé
+ * depuis le passage précédent et les octets alloués par le fil JavaFX sont relevés.
+ * Une exécution par fabrique de valeurs, dans une JVM neuve :
+ *
+ * mvn -Pjmh compile exec:exec -Dmesure.principale=com.library.controller.DefilementTableMesure -Dmesure.argument=propriete
+ * mvn -Pjmh compile exec:exec -Dmesure.principale=com.library.controller.DefilementTableMesure -Dmesure.argument=typees
+ */
+public final class DefilementTableMesure {
+
+    private static final int LIGNES = 100_000;
+    // Lignes parcourues par passage : environ une demi-page, comme un défilement rapide à la molette
+    private static final int PAS = 12;
+    private static final int PASSAGES_CHAUFFE = 300;
+    private static final int PASSAGES_MESURES = 3000;
+
+    private DefilementTableMesure() {
+    }
+
+    public static void main(String[] args) {
+        // Lancée depuis une classe qui n'étend pas Application : JavaFX peut rester sur le classpath
+        Application.launch(Fenetre.class, args);
+    }
+
+    /**
+     * Fenêtre de mesure ; argument "propriete" (PropertyValueFactory) ou "typees" (CellulesTypees)
+     */
+    public static final class Fenetre extends Application {
+
+        private final long[] durees = new long[PASSAGES_MESURES];
+        private final long[] allocations = new long[PASSAGES_MESURES];
+        private com.sun.management.ThreadMXBean threads;
+        private long filFx;
+        private int passage;
+        private long dernierPassage;
+        private long derniereAllocation;
+        private long gcAvant;
+
+        @Override
+        public void start(Stage stage) {
+            List<String> parametres = getParameters().getRaw();
+            String fabrique = parametres.isEmpty() ? "typees" : parametres.get(0);
+            boolean typees = switch (fabrique) {
+                case "typees" -> true;
+                case "propriete" -> false;
+                default -> throw new IllegalArgumentException("Fabrique inconnue: " + fabrique);
+            };
+
+            TableView<Emprunt> table = new TableView<>(lignes());
+            colonne(table, "ID", "id", Emprunt::getId, typees);
+            colonne(table, "ISBN Livre", "idLivre", Emprunt::getIdLivre, typees);
+            colonne(table, "ID Membre", "idMembre", Emprunt::getIdMembre, typees);
+            colonne(table, "Date Emprunt", "dateEmprunt", Emprunt::getDateEmprunt, typees);
+            colonne(table, "Retour Prévu", "dateRetourPrevue", Emprunt::getDateRetourPrevue, typees);
+            colonne(table, "Retour Effectif", "dateRetourEffective", Emprunt::getDateRetourEffective, typees);
+            colonne(table, "Pénalité (€)", "penalite", Emprunt::getPenalite, typees);
+
+            Scene scene = new Scene(table, 1000, 700);
+            threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            filFx = Thread.currentThread().getId();
+
+            int[] premiere = {0};
+            new AnimationTimer() {
+                @Override
+                public void handle(long maintenant) {
+                    premiere[0] = (premiere[0] + PAS) % (LIGNES - 100);
+                    table.scrollTo(premiere[0]);
+                }
+            }.start();
+            scene.addPostLayoutPulseListener(() -> relever(fabrique));
+
+            stage.setTitle("Mesure de défilement - " + fabrique);
+            stage.setScene(scene);
+            stage.show();
+        }
+
+        private void relever(String fabrique) {
+            long maintenant = System.nanoTime();
+            long alloue = threads.getThreadAllocatedBytes(filFx);
+            int mesure = passage - PASSAGES_CHAUFFE;
+            if (mesure == 0) {
+                gcAvant = collectes();
+            }
+            if (mesure >= 0 && mesure < PASSAGES_MESURES) {
+                durees[mesure] = maintenant - dernierPassage;
+                allocations[mesure] = alloue - derniereAllocation;
+            }
+            dernierPassage = maintenant;
+            derniereAllocation = alloue;
+            passage++;
+            if (mesure == PASSAGES_MESURES - 1) {
+                rapporter(fabrique, collectes() - gcAvant);
+                Platform.exit();
+            }
+        }
+
+        private void rapporter(String fabrique, long collectes) {
+            long[] tries = durees.clone();
+            Arrays.sort(tries);
+            long totalAlloue = 0;
+            for (long octets : allocations) {
+                totalAlloue += octets;
+            }
+            System.out.printf("Défilement %s : %d passages mesurés, %d lignes, pas de %d%n",
+                    fabrique, PASSAGES_MESURES, LIGNES, PAS);
+            System.out.printf("  durée entre passages (ms) : médiane %.2f, p95 %.2f, p99 %.2f, max %.2f%n",
+                    millis(tries[tries.length / 2]), millis(tries[tries.length * 95 / 100]),
+                    millis(tries[tries.length * 99 / 100]), millis(tries[tries.length - 1]));
+            System.out.printf("  alloué par le fil JavaFX : %.1f Ko par passage, %.1f Mo au total ; %d collecte(s)%n",
+                    totalAlloue / 1024.0 / PASSAGES_MESURES, totalAlloue / 1024.0 / 1024.0, collectes);
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+
+        private static long collectes() {
+            long total = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                total += Math.max(0, gc.getCollectionCount());
+            }
+            return total;
+        }
+    }
+
+    private static <T> void colonne(TableView<Emprunt> table, String titre, String propriete,
+                                    Function<Emprunt, T> lecture, boolean typees) {
+        TableColumn<Emprunt, T> colonne = new TableColumn<>(titre);
+        if (typees) {
+            colonne.setCellValueFactory(CellulesTypees.valeur(lecture));
+        } else {
+            colonne.setCellValueFactory(new PropertyValueFactory<>(propriete));
+        }
+        table.getColumns().add(colonne);
+    }
+
+    private static ObservableList<Emprunt> lignes() {
+        List<Emprunt> emprunts = new ArrayList<>(LIGNES);
+        LocalDate debut = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < LIGNES; i++) {
+            LocalDate jour = debut.plusDays(i % 1500);
+            Emprunt emprunt = new Emprunt(String.valueOf(i % 5000), i % 800 + 1,
+                    Date.valueOf(jour), Date.valueOf(jour.plusDays(14)));
+            emprunt.setId(i + 1);
+            if (i % 3 == 0) {
+                emprunt.setDateRetourEffective(Date.valueOf(jour.plusDays(10 + i % 9)));
+                emprunt.setPenalite(BigDecimal.valueOf(i % 9 > 4 ? (i % 9 - 4) * 50 : 0, 2));
+            }
+            emprunts.add(emprunt);
+        }
+        return FXCollections.observableArrayList(emprunts);
+    }
+}
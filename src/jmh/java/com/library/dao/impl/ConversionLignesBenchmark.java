@@ -0,0 +1,228 @@
+package com.library.dao.impl;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.library.dao.RowMapper;
+import com.library.model.Emprunt;
+import com.library.model.Livre;
+
+/**
+ * Débit de conversion des lignes (lignes par seconde) : conversion d'avant les mappers contre
+ * MapperLivre et MapperEmprunt (index résolus une fois par ResultSet). La conversion d'avant lit
+ * chaque colonne par nom et construit des copies des modèles d'alors (LivreAvant, EmpruntAvant) :
+ * deux lectures de l'horloge dans le constructeur du livre, dates et pénalités en Date et BigDecimal.
+ *
+ * Lancement : mvn -Pjmh compile exec:exec
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ConversionLignesBenchmark {
+
+    private static final int LIGNES = 1000;
+
+    private static final String[] COLONNES_LIVRES = {
+        "id", "isbn", "titre", "auteur", "annee_publication", "disponible", "created_at", "updated_at"
+    };
+    private static final String[] COLONNES_EMPRUNTS = {
+        "id", "id_livre", "id_membre", "date_emprunt", "date_retour_prevue", "date_retour_effective",
+        "penalite", "penalite_courue"
+    };
+
+    private ResultSetFictif livres;
+    private ResultSetFictif emprunts;
+
+    @Setup
+    public void preparer() {
+        Timestamp horodatage = Timestamp.valueOf(LocalDateTime.of(2024, 11, 1, 10, 30));
+        Object[][] lignesLivres = new Object[64][];
+        Object[][] lignesEmprunts = new Object[64][];
+        for (int i = 0; i < lignesLivres.length; i++) {
+            lignesLivres[i] = new Object[] {
+                String.valueOf(i), "978-2-07-0" + (10000 + i), "Titre " + i, "Auteur " + (i % 7),
+                1950 + i, i % 3 != 0, horodatage, horodatage
+            };
+            LocalDate emprunt = LocalDate.of(2024, 11, 1).plusDays(i);
+            lignesEmprunts[i] = new Object[] {
+                i + 1, String.valueOf(i), i % 5 + 1, Date.valueOf(emprunt), Date.valueOf(emprunt.plusDays(14)),
+                i % 2 == 0 ? Date.valueOf(emprunt.plusDays(10 + i % 8)) : null,
+                new BigDecimal("0.00"), BigDecimal.valueOf(i % 4 * 50, 2)
+            };
+        }
+        livres = new ResultSetFictif(COLONNES_LIVRES, lignesLivres, LIGNES);
+        emprunts = new ResultSetFictif(COLONNES_EMPRUNTS, lignesEmprunts, LIGNES);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LIGNES)
+    public void livresParNom(Blackhole trou) throws SQLException {
+        livres.rembobiner();
+        while (livres.next()) {
+            trou.consume(livreParNom(livres));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LIGNES)
+    public void livresParIndex(Blackhole trou) throws SQLException {
+        livres.rembobiner();
+        RowMapper<Livre> mapper = new MapperLivre();
+        while (livres.next()) {
+            trou.consume(mapper.map(livres));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LIGNES)
+    public void empruntsParNom(Blackhole trou) throws SQLException {
+        emprunts.rembobiner();
+        while (emprunts.next()) {
+            trou.consume(empruntParNom(emprunts));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LIGNES)
+    public void empruntsParIndex(Blackhole trou) throws SQLException {
+        emprunts.rembobiner();
+        RowMapper<Emprunt> mapper = new MapperEmprunt();
+        while (emprunts.next()) {
+            trou.consume(mapper.map(emprunts));
+        }
+    }
+
+    /**
+     * Conversion d'avant MapperLivre : recherche par nom à chaque colonne
+     */
+    private static LivreAvant livreParNom(ResultSet rs) throws SQLException {
+        LivreAvant livre = new LivreAvant(rs.getString("id"), rs.getString("isbn"), rs.getString("titre"),
+                rs.getString("auteur"), rs.getInt("annee_publication"), rs.getBoolean("disponible"));
+        livre.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        livre.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+        livre.marquerPropre();
+        return livre;
+    }
+
+    /**
+     * Conversion d'avant MapperEmprunt : recherche par nom à chaque colonne
+     */
+    private static EmpruntAvant empruntParNom(ResultSet rs) throws SQLException {
+        EmpruntAvant emprunt = new EmpruntAvant();
+        emprunt.setId(rs.getInt("id"));
+        emprunt.setIdLivre(rs.getString("id_livre"));
+        emprunt.setIdMembre(rs.getInt("id_membre"));
+        emprunt.setDateEmprunt(rs.getDate("date_emprunt"));
+        emprunt.setDateRetourPrevue(rs.getDate("date_retour_prevue"));
+        emprunt.setDateRetourEffective(rs.getDate("date_retour_effective"));
+        emprunt.setPenalite(rs.getBigDecimal("penalite"));
+        emprunt.setPenaliteCourue(rs.getBigDecimal("penalite_courue"));
+        return emprunt;
+    }
+
+    /**
+     * Livre tel qu'avant les mappers (état de Document) : le constructeur lit deux fois l'horloge
+     */
+    private static final class LivreAvant {
+        private final String id;
+        private final String isbn;
+        private final String titre;
+        private final String auteur;
+        private final int anneePublication;
+        private final boolean disponible;
+        private LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+        private int champsModifies = Livre.TOUS_LES_CHAMPS;
+
+        LivreAvant(String id, String isbn, String titre, String auteur, int anneePublication, boolean disponible) {
+            this.id = id;
+            this.isbn = isbn;
+            this.titre = titre;
+            this.auteur = auteur;
+            this.anneePublication = anneePublication;
+            this.disponible = disponible;
+            this.createdAt = LocalDateTime.now();
+            this.updatedAt = LocalDateTime.now();
+        }
+
+        void setCreatedAt(LocalDateTime createdAt) {
+            this.createdAt = createdAt;
+        }
+
+        void setUpdatedAt(LocalDateTime updatedAt) {
+            this.updatedAt = updatedAt;
+        }
+
+        void marquerPropre() {
+            champsModifies = 0;
+        }
+    }
+
+    /**
+     * Emprunt tel qu'avant les jours et centimes : dates et pénalités gardées en Date et BigDecimal
+     */
+    private static final class EmpruntAvant {
+        private int id;
+        private String idLivre;
+        private int idMembre;
+        private Date dateEmprunt;
+        private Date dateRetourPrevue;
+        private Date dateRetourEffective;
+        private BigDecimal penalite;
+        private BigDecimal penaliteCourue = BigDecimal.ZERO;
+
+        void setId(int id) {
+            this.id = id;
+        }
+
+        void setIdLivre(String idLivre) {
+            this.idLivre = idLivre;
+        }
+
+        void setIdMembre(int idMembre) {
+            this.idMembre = idMembre;
+        }
+
+        void setDateEmprunt(Date dateEmprunt) {
+            this.dateEmprunt = dateEmprunt;
+        }
+
+        void setDateRetourPrevue(Date dateRetourPrevue) {
+            this.dateRetourPrevue = dateRetourPrevue;
+        }
+
+        void setDateRetourEffective(Date dateRetourEffective) {
+            this.dateRetourEffective = dateRetourEffective;
+        }
+
+        void setPenalite(BigDecimal penalite) {
+            this.penalite = penalite;
+        }
+
+        void setPenaliteCourue(BigDecimal penaliteCourue) {
+            this.penaliteCourue = penaliteCourue;
+        }
+    }
+}
@@ -0,0 +1,1025 @@
+package com.library.dao.impl;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Map;
+
+/**
+ * ResultSet en mémoire pour les mesures de conversion de lignes : les mêmes lignes
+ * sont parcourues nombreLignes fois, sans pilote ni réseau.
+ * Seules les lectures utilisées par les mappers sont prises en charge.
+ */
+final class ResultSetFictif implements ResultSet {
+
+    private final String[] colonnes;
+    private final Object[][] lignes;
+    private final int nombreLignes;
+    private int ligne = -1;
+
+    ResultSetFictif(String[] colonnes, Object[][] lignes, int nombreLignes) {
+        this.colonnes = colonnes;
+        this.lignes = lignes;
+        this.nombreLignes = nombreLignes;
+    }
+
+    /**
+     * Revient avant la première ligne pour un nouveau parcours
+     */
+    void rembobiner() {
+        ligne = -1;
+    }
+
+    private Object valeur(int colonne) {
+        return lignes[ligne % lignes.length][colonne - 1];
+    }
+
+    private static SQLException nonPrisEnCharge() {
+        return new SQLFeatureNotSupportedException("Non pris en charge par ResultSetFictif");
+    }
+
+    @Override
+    public boolean next() {
+        ligne++;
+        return ligne < nombreLignes;
+    }
+
+    /**
+     * Recherche linéaire insensible à la casse, comme la résolution par nom des pilotes
+     */
+    @Override
+    public int findColumn(String nom) throws SQLException {
+        for (int i = 0; i < colonnes.length; i++) {
+            if (colonnes[i].equalsIgnoreCase(nom)) {
+                return i + 1;
+            }
+        }
+        throw new SQLException("Colonne inconnue: " + nom);
+    }
+
+    @Override
+    public String getString(int colonne) {
+        return (String) valeur(colonne);
+    }
+
+    @Override
+    public String getString(String colonne) throws SQLException {
+        return getString(findColumn(colonne));
+    }
+
+    @Override
+    public int getInt(int colonne) {
+        Object valeur = valeur(colonne);
+        return valeur != null ? (Integer) valeur : 0;
+    }
+
+    @Override
+    public int getInt(String colonne) throws SQLException {
+        return getInt(findColumn(colonne));
+    }
+
+    @Override
+    public boolean getBoolean(int colonne) {
+        Object valeur = valeur(colonne);
+        return valeur != null && (Boolean) valeur;
+    }
+
+    @Override
+    public boolean getBoolean(String colonne) throws SQLException {
+        return getBoolean(findColumn(colonne));
+    }
+
+    @Override
+    public Date getDate(int colonne) {
+        return (Date) valeur(colonne);
+    }
+
+    @Override
+    public Date getDate(String colonne) throws SQLException {
+        return getDate(findColumn(colonne));
+    }
+
+    @Override
+    public Timestamp getTimestamp(int colonne) {
+        return (Timestamp) valeur(colonne);
+    }
+
+    @Override
+    public Timestamp getTimestamp(String colonne) throws SQLException {
+        return getTimestamp(findColumn(colonne));
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(int colonne) {
+        return (BigDecimal) valeur(colonne);
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(String colonne) throws SQLException {
+        return getBigDecimal(findColumn(colonne));
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public boolean isClosed() {
+        return false;
+    }
+
+    // Lectures et écritures non utilisées par les mappers
+
+    @Override
+    public boolean absolute(int row) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void afterLast() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void beforeFirst() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void cancelRowUpdates() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void deleteRow() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public boolean first() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public Array getArray(String columnLabel) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public Array getArray(int columnIndex) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public InputStream getAsciiStream(String columnLabel) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public InputStream getAsciiStream(int columnIndex) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(String columnLabel, int scale) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(int columnIndex, int scale) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public InputStream getBinaryStream(String columnLabel) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public InputStream getBinaryStream(int columnIndex) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public Blob getBlob(String columnLabel) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public Blob getBlob(int columnIndex) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public byte getByte(String columnLabel) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public byte getByte(int columnIndex) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public byte[] getBytes(String columnLabel) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public byte[] getBytes(int columnIndex) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public Reader getCharacterStream(String columnLabel) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public Reader getCharacterStream(int columnIndex) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public Clob getClob(String columnLabel) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public Clob getClob(int columnIndex) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public int getConcurrency() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public String getCursorName() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public Date getDate(String columnLabel, Calendar cal) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public Date getDate(int columnIndex, Calendar cal) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public double getDouble(String columnLabel) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public double getDouble(int columnIndex) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public float getFloat(String columnLabel) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public float getFloat(int columnIndex) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public int getHoldability() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public long getLong(String columnLabel) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public long getLong(int columnIndex) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public Reader getNCharacterStream(String columnLabel) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public Reader getNCharacterStream(int columnIndex) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public NClob getNClob(String columnLabel) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public NClob getNClob(int columnIndex) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public String getNString(String columnLabel) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public String getNString(int columnIndex) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public <T> T getObject(String columnLabel, Class<T> type) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public Object getObject(String columnLabel, Map<String, Class<?>> map) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public Object getObject(String columnLabel) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public <T> T getObject(int columnIndex, Class<T> type) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public Object getObject(int columnIndex, Map<String, Class<?>> map) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public Object getObject(int columnIndex) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public Ref getRef(String columnLabel) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public Ref getRef(int columnIndex) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public int getRow() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public RowId getRowId(String columnLabel) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public RowId getRowId(int columnIndex) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public SQLXML getSQLXML(String columnLabel) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public SQLXML getSQLXML(int columnIndex) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public short getShort(String columnLabel) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public short getShort(int columnIndex) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public Statement getStatement() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public Time getTime(String columnLabel, Calendar cal) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public Time getTime(String columnLabel) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public Time getTime(int columnIndex, Calendar cal) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public Time getTime(int columnIndex) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public Timestamp getTimestamp(String columnLabel, Calendar cal) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public Timestamp getTimestamp(int columnIndex, Calendar cal) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public int getType() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public URL getURL(String columnLabel) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public URL getURL(int columnIndex) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public InputStream getUnicodeStream(String columnLabel) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public InputStream getUnicodeStream(int columnIndex) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void insertRow() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public boolean isAfterLast() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public boolean isBeforeFirst() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public boolean isFirst() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public boolean isLast() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> type) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public boolean last() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void moveToCurrentRow() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void moveToInsertRow() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public boolean previous() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void refreshRow() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public boolean relative(int rows) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public boolean rowDeleted() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public boolean rowInserted() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public boolean rowUpdated() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> type) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateArray(String columnLabel, Array x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateArray(int columnIndex, Array x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateAsciiStream(String columnLabel, InputStream x, int scaleOrLength) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateAsciiStream(String columnLabel, InputStream x, long scaleOrLength) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateAsciiStream(String columnLabel, InputStream x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateAsciiStream(int columnIndex, InputStream x, int scaleOrLength) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateAsciiStream(int columnIndex, InputStream x, long scaleOrLength) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateAsciiStream(int columnIndex, InputStream x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateBigDecimal(String columnLabel, BigDecimal x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateBigDecimal(int columnIndex, BigDecimal x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateBinaryStream(String columnLabel, InputStream x, int scaleOrLength) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateBinaryStream(String columnLabel, InputStream x, long scaleOrLength) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateBinaryStream(String columnLabel, InputStream x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateBinaryStream(int columnIndex, InputStream x, int scaleOrLength) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateBinaryStream(int columnIndex, InputStream x, long scaleOrLength) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateBinaryStream(int columnIndex, InputStream x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateBlob(String columnLabel, InputStream x, long scaleOrLength) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateBlob(String columnLabel, InputStream x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateBlob(String columnLabel, Blob x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateBlob(int columnIndex, InputStream x, long scaleOrLength) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateBlob(int columnIndex, InputStream x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateBlob(int columnIndex, Blob x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateBoolean(String columnLabel, boolean x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateBoolean(int columnIndex, boolean x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateByte(String columnLabel, byte x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateByte(int columnIndex, byte x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateBytes(String columnLabel, byte[] x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateBytes(int columnIndex, byte[] x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateCharacterStream(String columnLabel, Reader x, int scaleOrLength) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateCharacterStream(String columnLabel, Reader x, long scaleOrLength) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateCharacterStream(String columnLabel, Reader x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateCharacterStream(int columnIndex, Reader x, int scaleOrLength) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateCharacterStream(int columnIndex, Reader x, long scaleOrLength) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateCharacterStream(int columnIndex, Reader x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateClob(String columnLabel, Reader x, long scaleOrLength) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateClob(String columnLabel, Reader x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateClob(String columnLabel, Clob x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateClob(int columnIndex, Reader x, long scaleOrLength) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateClob(int columnIndex, Reader x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateClob(int columnIndex, Clob x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateDate(String columnLabel, Date x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateDate(int columnIndex, Date x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateDouble(String columnLabel, double x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateDouble(int columnIndex, double x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateFloat(String columnLabel, float x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateFloat(int columnIndex, float x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateInt(String columnLabel, int length) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateInt(int columnIndex, int length) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateLong(String columnLabel, long length) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateLong(int columnIndex, long length) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateNCharacterStream(String columnLabel, Reader x, long scaleOrLength) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateNCharacterStream(String columnLabel, Reader x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateNCharacterStream(int columnIndex, Reader x, long scaleOrLength) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateNCharacterStream(int columnIndex, Reader x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateNClob(String columnLabel, Reader x, long scaleOrLength) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateNClob(String columnLabel, Reader x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateNClob(String columnLabel, NClob x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateNClob(int columnIndex, Reader x, long scaleOrLength) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateNClob(int columnIndex, Reader x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateNClob(int columnIndex, NClob x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateNString(String columnLabel, String x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateNString(int columnIndex, String x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateNull(String columnLabel) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateNull(int columnIndex) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateObject(String columnLabel, Object x, int scaleOrLength) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateObject(String columnLabel, Object x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateObject(int columnIndex, Object x, int scaleOrLength) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateObject(int columnIndex, Object x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateRef(String columnLabel, Ref x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateRef(int columnIndex, Ref x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateRow() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateRowId(String columnLabel, RowId x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateRowId(int columnIndex, RowId x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateSQLXML(String columnLabel, SQLXML x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateSQLXML(int columnIndex, SQLXML x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateShort(String columnLabel, short x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateShort(int columnIndex, short x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateString(String columnLabel, String x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateString(int columnIndex, String x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateTime(String columnLabel, Time x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateTime(int columnIndex, Time x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateTimestamp(String columnLabel, Timestamp x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public void updateTimestamp(int columnIndex, Timestamp x) throws SQLException {
+        throw nonPrisEnCharge();
+    }
+
+    @Override
+    public boolean wasNull() throws SQLException {
+        throw nonPrisEnCharge();
+    }
+}
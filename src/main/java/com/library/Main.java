@@ -1,11 +1,24 @@
 package com.library;
 
+import java.time.Duration;
+import java.time.Instant;
+
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 import com.library.controller.MainController;
+import com.library.controller.SurveillanceFilFX;
+import com.library.dao.impl.CompteursEmprunts;
+import com.library.dao.impl.EcheancesEmprunts;
+import com.library.dao.impl.FiltresExistence;
+import com.library.dao.impl.IndexLivres;
+import com.library.dao.impl.IndexMembres;
+import com.library.dao.impl.StatistiquesEmprunts;
+import com.library.dao.impl.SuggestionsLivres;
+import com.library.service.TraitementPenalitesCourues;
 
 /**
  * Classe principale - Point d'entrée de l'application
@@ -17,6 +30,19 @@ public class Main extends Application {
     
     @Override
     public void start(Stage primaryStage) {
+        long debutStart = System.nanoTime();
+        // Construire les index, les suggestions et les filtres d'existence sans bloquer l'interface
+        IndexLivres.getInstance().reconstruireEnArrierePlan();
+        SuggestionsLivres.getInstance().reconstruireEnArrierePlan();
+        IndexMembres.getInstance().reconstruireEnArrierePlan();
+        EcheancesEmprunts.getInstance().demarrer();
+        FiltresExistence.getInstance().demarrer();
+        CompteursEmprunts.getInstance().demarrer();
+        StatistiquesEmprunts.getInstance().demarrer();
+        TraitementPenalitesCourues.getInstance().demarrer();
+        // Mesurer les blocages du fil JavaFX dès le chargement de l'interface
+        SurveillanceFilFX.getInstance().demarrer();
+
         try {
             // Charger le fichier FXML principal
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/MainView.fxml"));
@@ -27,6 +53,7 @@ public class Main extends Application {
             
             // Créer la scène
             Scene scene = new Scene(root);
+            mesurerPremierAffichage(scene, debutStart);
             
             // Configurer la fenêtre
             primaryStage.setTitle("Système de Gestion de Bibliothèque");
@@ -55,6 +82,36 @@ public class Main extends Application {
         }
     }
     
+    /**
+     * Journalise le temps jusqu'au premier affichage (première passe de mise en page de la scène),
+     * depuis le lancement de la JVM et depuis start(), puis précharge les autres onglets
+     */
+    private void mesurerPremierAffichage(Scene scene, long debutStart) {
+        Runnable premierAffichage = new Runnable() {
+            private boolean mesure;
+
+            @Override
+            public void run() {
+                if (mesure) {
+                    return;
+                }
+                mesure = true;
+                long depuisStart = (System.nanoTime() - debutStart) / 1_000_000;
+                String depuisLancement = ProcessHandle.current().info().startInstant()
+                        .map(lancement -> Duration.between(lancement, Instant.now()).toMillis() + " ms")
+                        .orElse("inconnu");
+                System.out.println("Premier affichage: " + depuisLancement + " depuis le lancement, "
+                        + depuisStart + " ms depuis start()");
+                // Retrait hors de l'itération des écouteurs en cours
+                Platform.runLater(() -> scene.removePostLayoutPulseListener(this));
+                if (mainController != null) {
+                    mainController.prechargerOnglets();
+                }
+            }
+        };
+        scene.addPostLayoutPulseListener(premierAffichage);
+    }
+    
     @Override
     public void stop() {
         // Appelé automatiquement à la fermeture
@@ -0,0 +1,73 @@
+package com.library.controller;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.control.TableColumn;
+import javafx.util.Callback;
+
+/**
+ * Valeurs de cellules typées, à la place de PropertyValueFactory : lecture par accesseur
+ * (sans réflexion) et une vue observable par ligne et par colonne, réutilisée à chaque
+ * mise à jour de cellule au lieu d'un nouvel objet observable à chaque défilement.
+ * Les lignes affichées sont des instantanés : une ligne modifiée est remplacée par un
+ * nouvel objet (voir DiffListe), qui reçoit ses propres vues.
+ */
+final class CellulesTypees {
+
+    private CellulesTypees() {
+    }
+
+    /**
+     * Fabrique de valeurs pour une colonne ; les vues sont oubliées avec leur ligne
+     */
+    static <S, T> Callback<TableColumn.CellDataFeatures<S, T>, ObservableValue<T>> valeur(Function<S, T> lecture) {
+        // Clés comparées par identité : les modèles ne redéfinissent pas equals
+        Map<S, ObservableValue<T>> vues = new WeakHashMap<>();
+        Function<S, ObservableValue<T>> creer = ligne -> new ValeurFixe<>(lecture.apply(ligne));
+        return donnees -> {
+            S ligne = donnees.getValue();
+            // Ligne pas encore chargée (ListePaginee)
+            if (ligne == null) {
+                return null;
+            }
+            return vues.computeIfAbsent(ligne, creer);
+        };
+    }
+
+    /**
+     * Valeur observable qui ne change jamais : aucun écouteur n'est conservé
+     */
+    private static final class ValeurFixe<T> implements ObservableValue<T> {
+        private final T valeur;
+
+        ValeurFixe(T valeur) {
+            this.valeur = valeur;
+        }
+
+        @Override
+        public T getValue() {
+            return valeur;
+        }
+
+        @Override
+        public void addListener(ChangeListener<? super T> listener) {
+        }
+
+        @Override
+        public void removeListener(ChangeListener<? super T> listener) {
+        }
+
+        @Override
+        public void addListener(InvalidationListener listener) {
+        }
+
+        @Override
+        public void removeListener(InvalidationListener listener) {
+        }
+    }
+}
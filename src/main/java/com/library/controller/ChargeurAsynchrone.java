@@ -0,0 +1,159 @@
+package com.library.controller;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import javafx.beans.binding.BooleanExpression;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.value.ObservableBooleanValue;
+import javafx.concurrent.Task;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TableView;
+
+/**
+ * Exécute les appels JDBC des contrôleurs hors du fil JavaFX (Task sur un pool de threads démons).
+ * Les callbacks de succès et d'échec sont appelés sur le fil JavaFX.
+ * Une instance par source de données : avec charger(), une nouvelle requête annule la précédente,
+ * dont le résultat est ignoré ; executer() sert aux écritures, qui ne sont jamais annulées.
+ * Les méthodes de cette classe s'appellent depuis le fil JavaFX.
+ * Les durées de chargement vont au bilan de SurveillanceFilFX ; seuls les chargements lents sont affichés.
+ */
+public class ChargeurAsynchrone {
+
+    private static final int NOMBRE_THREADS = 4;
+    private static final long SEUIL_LENT_MILLIS = 500;
+    private static final AtomicInteger COMPTEUR_THREADS = new AtomicInteger();
+    private static final ExecutorService EXECUTEUR = Executors.newFixedThreadPool(NOMBRE_THREADS, r -> {
+        Thread thread = new Thread(r, "chargement-donnees-" + COMPTEUR_THREADS.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String nom;
+    private final ReadOnlyBooleanWrapper enCours = new ReadOnlyBooleanWrapper(this, "enCours");
+    private Task<?> courante;
+    private int actives;
+
+    public ChargeurAsynchrone(String nom) {
+        this.nom = nom;
+    }
+
+    /**
+     * Lance une lecture ; la lecture précédente encore en cours est annulée et son résultat ignoré
+     */
+    public <T> void charger(Callable<T> requete, Consumer<T> succes, Consumer<Throwable> echec) {
+        if (courante != null) {
+            courante.cancel(true);
+        }
+        courante = lancer(requete, succes, echec, true);
+    }
+
+    /**
+     * Annule la lecture en cours, dont le résultat sera ignoré
+     */
+    public void annuler() {
+        if (courante != null) {
+            courante.cancel(true);
+            courante = null;
+        }
+    }
+
+    /**
+     * Lance une écriture, menée à son terme même si d'autres tâches démarrent entre-temps
+     */
+    public <T> void executer(Callable<T> requete, Consumer<T> succes, Consumer<Throwable> echec) {
+        lancer(requete, succes, echec, false);
+    }
+
+    /**
+     * Vrai tant qu'une tâche de ce chargeur n'est pas terminée
+     */
+    public ReadOnlyBooleanProperty enCoursProperty() {
+        return enCours.getReadOnlyProperty();
+    }
+
+    public boolean isEnCours() {
+        return enCours.get();
+    }
+
+    /**
+     * Affiche un indicateur de progression à la place du contenu de la table pendant les chargements
+     * (visible seulement si la table est vide ; voir lierIndicateur pour les rechargements)
+     */
+    public void indiquerChargement(TableView<?> table) {
+        enCours.addListener((obs, avant, charge) -> {
+            if (charge) {
+                ProgressIndicator indicateur = new ProgressIndicator();
+                indicateur.setMaxSize(40, 40);
+                table.setPlaceholder(indicateur);
+            } else {
+                table.setPlaceholder(null);
+            }
+        });
+    }
+
+    /**
+     * Montre l'indicateur de la barre d'état tant qu'un des chargements est en cours : contrairement
+     * à l'indicateur de table, il reste visible quand la table affiche déjà des lignes
+     * (actualisation, recherche, tri)
+     */
+    public static void lierIndicateur(ProgressIndicator indicateur, ObservableBooleanValue... chargements) {
+        BooleanExpression enCours = BooleanExpression.booleanExpression(chargements[0]);
+        for (int i = 1; i < chargements.length; i++) {
+            enCours = enCours.or(chargements[i]);
+        }
+        indicateur.visibleProperty().bind(enCours);
+        // Sans place réservée dans la barre quand rien ne charge
+        indicateur.managedProperty().bind(enCours);
+    }
+
+    private <T> Task<T> lancer(Callable<T> requete, Consumer<T> succes, Consumer<Throwable> echec, boolean remplacable) {
+        Task<T> tache = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return requete.call();
+            }
+        };
+        long debut = System.nanoTime();
+        tache.setOnSucceeded(event -> {
+            // Résultat d'une lecture terminée juste avant d'être remplacée : ignoré
+            boolean perime = remplacable && courante != tache;
+            terminer(tache);
+            if (perime) {
+                return;
+            }
+            long dureeMillis = (System.nanoTime() - debut) / 1_000_000;
+            SurveillanceFilFX.getInstance().enregistrerChargement(dureeMillis);
+            if (dureeMillis >= SEUIL_LENT_MILLIS) {
+                System.out.println("Chargement lent " + nom + ": " + dureeMillis + " ms hors du fil JavaFX");
+            }
+            succes.accept(tache.getValue());
+        });
+        tache.setOnFailed(event -> {
+            boolean perime = remplacable && courante != tache;
+            terminer(tache);
+            if (perime) {
+                return;
+            }
+            echec.accept(tache.getException());
+        });
+        tache.setOnCancelled(event -> terminer(tache));
+
+        actives++;
+        enCours.set(true);
+        EXECUTEUR.execute(tache);
+        return tache;
+    }
+
+    private void terminer(Task<?> tache) {
+        if (courante == tache) {
+            courante = null;
+        }
+        actives--;
+        enCours.set(actives > 0);
+    }
+}
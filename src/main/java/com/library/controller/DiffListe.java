@@ -0,0 +1,165 @@
+package com.library.controller;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Mise à jour incrémentale des listes affichées : au lieu de tout remplacer (setAll), la liste
+ * actuelle est alignée sur le nouveau résultat par clé (identifiant), avec le minimum de retraits,
+ * d'insertions et de remplacements. Sur une ObservableList, seules les lignes touchées sont
+ * notifiées et redessinées par la table ; sur une ListeEnBloc, dans un seul changement.
+ */
+final class DiffListe {
+
+    private DiffListe() {
+    }
+
+    /**
+     * Aligne cible sur nouvelle, en O(n log n) : les éléments gardés sont la plus longue suite
+     * d'éléments de cible déjà dans l'ordre de nouvelle ; les autres sont retirés par plages,
+     * puis les manquants insérés par plages entre les éléments gardés.
+     * @param cle        identifiant d'un élément
+     * @param identiques vrai si deux versions d'un même élément s'affichent de la même façon
+     * @return le nombre d'opérations appliquées à cible
+     */
+    static <T, K> int appliquer(List<T> cible, List<? extends T> nouvelle, Function<? super T, K> cle,
+                                BiPredicate<? super T, ? super T> identiques) {
+        Map<K, Integer> positions = new HashMap<>(nouvelle.size() * 2);
+        for (int i = 0; i < nouvelle.size(); i++) {
+            positions.putIfAbsent(cle.apply(nouvelle.get(i)), i);
+        }
+
+        // Position de chaque élément de cible dans nouvelle (-1 : absent), puis plus longue suite croissante
+        int n = cible.size();
+        int[] rangs = new int[n];
+        int[] fins = new int[n];
+        int[] precedents = new int[n];
+        int longueur = 0;
+        for (int j = 0; j < n; j++) {
+            Integer rang = positions.get(cle.apply(cible.get(j)));
+            rangs[j] = rang != null ? rang : -1;
+            if (rangs[j] < 0) {
+                continue;
+            }
+            int bas = 0;
+            int haut = longueur;
+            while (bas < haut) {
+                int milieu = (bas + haut) >>> 1;
+                if (rangs[fins[milieu]] < rangs[j]) {
+                    bas = milieu + 1;
+                } else {
+                    haut = milieu;
+                }
+            }
+            precedents[j] = bas > 0 ? fins[bas - 1] : -1;
+            fins[bas] = j;
+            if (bas == longueur) {
+                longueur++;
+            }
+        }
+        boolean[] gardes = new boolean[n];
+        for (int j = longueur > 0 ? fins[longueur - 1] : -1; j >= 0; j = precedents[j]) {
+            gardes[j] = true;
+        }
+
+        // Retraits par plages contiguës, de la fin vers le début
+        int operations = 0;
+        int fin = n;
+        while (fin > 0) {
+            if (gardes[fin - 1]) {
+                fin--;
+                continue;
+            }
+            int debut = fin - 1;
+            while (debut > 0 && !gardes[debut - 1]) {
+                debut--;
+            }
+            cible.subList(debut, fin).clear();
+            operations++;
+            fin = debut;
+        }
+
+        // Remplacements des éléments gardés et insertions par plages dans l'ordre du nouveau résultat
+        int i = 0;
+        while (i < nouvelle.size()) {
+            if (i == cible.size()) {
+                cible.addAll(nouvelle.subList(i, nouvelle.size()));
+                operations++;
+                break;
+            }
+            int rang = positions.get(cle.apply(cible.get(i)));
+            if (rang > i) {
+                cible.addAll(i, nouvelle.subList(i, rang));
+                operations++;
+                i = rang;
+            }
+            T element = nouvelle.get(i);
+            if (!identiques.test(cible.get(i), element)) {
+                cible.set(i, element);
+                operations++;
+            }
+            i++;
+        }
+        return operations;
+    }
+
+    /**
+     * Remplace l'élément de même clé, s'il est présent
+     * @return vrai si un élément a été remplacé
+     */
+    static <T, K> boolean remplacer(List<T> cible, T element, Function<? super T, K> cle) {
+        int index = indexDe(cible, cle.apply(element), cle);
+        if (index < 0) {
+            return false;
+        }
+        cible.set(index, element);
+        return true;
+    }
+
+    /**
+     * Place un élément dans une liste triée selon ordre : remplacé sur place s'il garde son rang,
+     * déplacé sinon, inséré à son rang s'il est absent
+     */
+    static <T, K> void placer(List<T> cible, T element, Function<? super T, K> cle, Comparator<? super T> ordre) {
+        int index = indexDe(cible, cle.apply(element), cle);
+        if (index >= 0) {
+            boolean apresPrecedent = index == 0 || ordre.compare(cible.get(index - 1), element) <= 0;
+            boolean avantSuivant = index == cible.size() - 1 || ordre.compare(element, cible.get(index + 1)) <= 0;
+            if (apresPrecedent && avantSuivant) {
+                cible.set(index, element);
+                return;
+            }
+            cible.remove(index);
+        }
+        int rang = Collections.binarySearch(cible, element, ordre);
+        cible.add(rang < 0 ? -rang - 1 : rang, element);
+    }
+
+    /**
+     * Retire l'élément de clé k, s'il est présent
+     * @return vrai si un élément a été retiré
+     */
+    static <T, K> boolean retirer(List<T> cible, K k, Function<? super T, K> cle) {
+        int index = indexDe(cible, k, cle);
+        if (index < 0) {
+            return false;
+        }
+        cible.remove(index);
+        return true;
+    }
+
+    private static <T, K> int indexDe(List<T> liste, K k, Function<? super T, K> cle) {
+        for (int i = 0; i < liste.size(); i++) {
+            if (Objects.equals(cle.apply(liste.get(i)), k)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
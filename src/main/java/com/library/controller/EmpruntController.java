@@ -4,26 +4,21 @@ import java.math.BigDecimal;
 import java.sql.Date;
 import java.sql.SQLException;
 import java.time.LocalDate;
-import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
-import com.library.exception.EmpruntNotFoundException;
-import com.library.exception.LimiteEmpruntDepasseeException;
-import com.library.exception.LivreIndisponibleException;
-import com.library.exception.MembreInactifException;
 import com.library.model.Emprunt;
 import com.library.service.EmpruntService;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.DatePicker;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
-import javafx.scene.control.cell.PropertyValueFactory;
 
 /**
  * Contrôleur JavaFX pour la gestion des emprunts.
@@ -61,10 +56,16 @@ public class EmpruntController {
     @FXML
     private TableColumn<Emprunt, BigDecimal> colPenalite;
     @FXML
+    private TableColumn<Emprunt, BigDecimal> colPenaliteCourue;
+    @FXML
     private Label statusLabel;
+    @FXML
+    private ProgressIndicator chargementIndicateur;
 
     private EmpruntService empruntService;
-    private final ObservableList<Emprunt> empruntsList;
+    // Table des emprunts paginée : seules les pages affichées sont en mémoire
+    private final ListePaginee<Emprunt> empruntsList;
+    private final ChargeurAsynchrone ecritures = new ChargeurAsynchrone("écriture emprunt");
 
     /**
      * Constructeur par défaut.
@@ -75,7 +76,7 @@ public class EmpruntController {
         } catch (SQLException e) {
             throw new RuntimeException("Erreur lors de l'initialisation du service d'emprunt", e);
         }
-        this.empruntsList = FXCollections.observableArrayList();
+        this.empruntsList = creerListeEmprunts();
     }
 
     /**
@@ -83,7 +84,32 @@ public class EmpruntController {
      */
     public EmpruntController(EmpruntService empruntService) {
         this.empruntService = empruntService;
-        this.empruntsList = FXCollections.observableArrayList();
+        this.empruntsList = creerListeEmprunts();
+    }
+
+    /**
+     * Liste paginée des emprunts, des plus récents aux plus anciens par défaut.
+     */
+    private ListePaginee<Emprunt> creerListeEmprunts() {
+        ListePaginee<Emprunt> liste = new ListePaginee<>("emprunts", () -> empruntService.estimerNombreEmprunts(),
+                (tri, decroissant, jeton, debut, taille) ->
+                        empruntService.getEmpruntsPage(tri, decroissant, jeton, debut, taille),
+                Emprunt::getId, EmpruntController::memeAffichage, "dateEmprunt", true);
+        liste.setLectureReperes(empruntService::getRepereEmprunts);
+        return liste;
+    }
+
+    /**
+     * Vrai si les deux versions d'un emprunt s'affichent de la même façon dans la table.
+     */
+    private static boolean memeAffichage(Emprunt a, Emprunt b) {
+        return Objects.equals(a.getIdLivre(), b.getIdLivre())
+                && a.getIdMembre() == b.getIdMembre()
+                && a.getJourEmprunt() == b.getJourEmprunt()
+                && a.getJourRetourPrevue() == b.getJourRetourPrevue()
+                && a.getJourRetourEffective() == b.getJourRetourEffective()
+                && a.getPenaliteCentimes() == b.getPenaliteCentimes()
+                && a.getPenaliteCourueCentimes() == b.getPenaliteCourueCentimes();
     }
 
     /**
@@ -92,19 +118,39 @@ public class EmpruntController {
     @FXML
     public void initialize() {
         // Configuration des colonnes de la table
-        colId.setCellValueFactory(new PropertyValueFactory<>("id"));
-        colIsbnLivre.setCellValueFactory(new PropertyValueFactory<>("idLivre"));
-        colIdMembre.setCellValueFactory(new PropertyValueFactory<>("idMembre"));
-        colDateEmprunt.setCellValueFactory(new PropertyValueFactory<>("dateEmprunt"));
-        colDateRetourPrevue.setCellValueFactory(new PropertyValueFactory<>("dateRetourPrevue"));
-        colDateRetourEffective.setCellValueFactory(new PropertyValueFactory<>("dateRetourEffective"));
-        colPenalite.setCellValueFactory(new PropertyValueFactory<>("penalite"));
-
-        // Liaison de la liste observable à la table
+        colId.setCellValueFactory(CellulesTypees.valeur(Emprunt::getId));
+        colIsbnLivre.setCellValueFactory(CellulesTypees.valeur(Emprunt::getIdLivre));
+        colIdMembre.setCellValueFactory(CellulesTypees.valeur(Emprunt::getIdMembre));
+        colDateEmprunt.setCellValueFactory(CellulesTypees.valeur(Emprunt::getDateEmprunt));
+        colDateRetourPrevue.setCellValueFactory(CellulesTypees.valeur(Emprunt::getDateRetourPrevue));
+        colDateRetourEffective.setCellValueFactory(CellulesTypees.valeur(Emprunt::getDateRetourEffective));
+        colPenalite.setCellValueFactory(CellulesTypees.valeur(Emprunt::getPenalite));
+        colPenaliteCourue.setCellValueFactory(CellulesTypees.valeur(empruntService::getPenaliteCourue));
+
+        // Liaison de la liste paginée à la table, triée côté base ; la date de retour effective
+        // et les pénalités, souvent nulles, ne sont pas triables
         empruntsTable.setItems(empruntsList);
+        empruntsList.lierTri(empruntsTable, Map.of(
+                colId, "id",
+                colIsbnLivre, "idLivre",
+                colIdMembre, "idMembre",
+                colDateEmprunt, "dateEmprunt",
+                colDateRetourPrevue, "dateRetourPrevue"));
+        empruntsList.setSurComptage(total -> statusLabel.setText("Liste actualisée - environ " + total + " emprunt(s)"));
+        empruntsList.setSurEchec(e -> {
+            afficherMessage("Erreur lors du chargement des emprunts: " + e.getMessage(), Alert.AlertType.ERROR);
+            statusLabel.setText("Erreur de chargement");
+        });
+
+        // Appels à la base hors du fil JavaFX
+        empruntsList.indiquerChargement(empruntsTable);
+        ChargeurAsynchrone.lierIndicateur(chargementIndicateur, empruntsList.enCoursProperty(), ecritures.enCoursProperty());
+        empruntButton.disableProperty().bind(ecritures.enCoursProperty());
+        retourButton.disableProperty().bind(ecritures.enCoursProperty());
 
         // Chargement initial des emprunts
-        handleRefresh();
+        statusLabel.setText("Chargement des emprunts...");
+        empruntsList.recharger();
     }
 
     /**
@@ -112,8 +158,11 @@ public class EmpruntController {
      */
     @FXML
     private void handleEmprunter() {
+        String isbn;
+        int membreId;
+        Date dateRetour;
         try {
-            String isbn = isbnField.getText().trim();
+            isbn = isbnField.getText().trim();
             String membreIdStr = membreIdField.getText().trim();
             LocalDate dateRetourPrevue = dateRetourPrevuePicker.getValue();
 
@@ -122,7 +171,7 @@ public class EmpruntController {
                 return;
             }
 
-            int membreId = Integer.parseInt(membreIdStr);
+            membreId = Integer.parseInt(membreIdStr);
             if (membreId <= 0) {
                 afficherMessage("L'ID du membre doit être un nombre positif", Alert.AlertType.ERROR);
                 return;
@@ -133,18 +182,19 @@ public class EmpruntController {
                 afficherMessage("L'ISBN doit contenir 10 ou 13 chiffres", Alert.AlertType.ERROR);
                 return;
             }
-            Date dateRetour = Date.valueOf(dateRetourPrevue);
-
-            empruntService.emprunterLivre(isbn, membreId, dateRetour);
-            handleRefresh();
-            viderFormulaireEmprunt();
-            afficherMessage("Emprunt effectué avec succès", Alert.AlertType.INFORMATION);
+            dateRetour = Date.valueOf(dateRetourPrevue);
 
         } catch (NumberFormatException e) {
             afficherMessage("L'ID du membre doit être un nombre valide", Alert.AlertType.ERROR);
-        } catch (LivreIndisponibleException | MembreInactifException | LimiteEmpruntDepasseeException | SQLException e) {
-            afficherMessage("Erreur lors de l'emprunt: " + e.getMessage(), Alert.AlertType.ERROR);
+            return;
         }
+
+        ecritures.executer(() -> empruntService.emprunterLivre(isbn, membreId, dateRetour), emprunt -> {
+            // Plus récent emprunt : en tête du tri par défaut, inséré sans relire la zone affichée
+            empruntsList.insererEnTete(emprunt, "dateEmprunt", true);
+            viderFormulaireEmprunt();
+            afficherMessage("Emprunt effectué avec succès", Alert.AlertType.INFORMATION);
+        }, e -> afficherMessage("Erreur lors de l'emprunt: " + e.getMessage(), Alert.AlertType.ERROR));
     }
 
     /**
@@ -152,47 +202,45 @@ public class EmpruntController {
      */
     @FXML
     private void handleRetourner() {
-        try {
-            String empruntIdStr = empruntIdRetourField.getText().trim();
+        String empruntIdStr = empruntIdRetourField.getText().trim();
 
-            if (empruntIdStr.isEmpty()) {
-                afficherMessage("Veuillez saisir l'ID de l'emprunt", Alert.AlertType.WARNING);
-                return;
-            }
+        if (empruntIdStr.isEmpty()) {
+            afficherMessage("Veuillez saisir l'ID de l'emprunt", Alert.AlertType.WARNING);
+            return;
+        }
 
-            int empruntId = Integer.parseInt(empruntIdStr);
-            BigDecimal penalite = empruntService.retournerLivre(empruntId);
+        int empruntId;
+        try {
+            empruntId = Integer.parseInt(empruntIdStr);
+        } catch (NumberFormatException e) {
+            afficherMessage("L'ID de l'emprunt doit être un nombre valide", Alert.AlertType.ERROR);
+            return;
+        }
 
-            handleRefresh();
+        ecritures.executer(() -> {
+            empruntService.retournerLivre(empruntId);
+            return empruntService.getEmpruntById(empruntId);
+        }, emprunt -> {
+            // Seule la ligne de l'emprunt rendu change
+            empruntsList.remplacer(emprunt);
             empruntIdRetourField.clear();
 
+            BigDecimal penalite = emprunt.getPenalite();
             String message = "Retour effectué avec succès";
             if (penalite.compareTo(BigDecimal.ZERO) > 0) {
                 message += ". Pénalité: " + penalite + "€";
             }
             afficherMessage(message, Alert.AlertType.INFORMATION);
-
-        } catch (NumberFormatException e) {
-            afficherMessage("L'ID de l'emprunt doit être un nombre valide", Alert.AlertType.ERROR);
-        } catch (EmpruntNotFoundException | SQLException e) {
-            afficherMessage("Erreur lors du retour: " + e.getMessage(), Alert.AlertType.ERROR);
-        }
+        }, e -> afficherMessage("Erreur lors du retour: " + e.getMessage(), Alert.AlertType.ERROR));
     }
 
     /**
-     * Actualise la liste des emprunts.
+     * Actualise la liste des emprunts : seules les lignes modifiées de la zone affichée sont redessinées.
      */
     @FXML
     private void handleRefresh() {
-        try {
-            List<Emprunt> emprunts = empruntService.getAllEmprunts();
-            empruntsList.clear();
-            empruntsList.addAll(emprunts);
-            statusLabel.setText("Liste actualisée - " + emprunts.size() + " emprunt(s)");
-        } catch (SQLException e) {
-            afficherMessage("Erreur lors du chargement des emprunts: " + e.getMessage(), Alert.AlertType.ERROR);
-            statusLabel.setText("Erreur de chargement");
-        }
+        statusLabel.setText("Chargement des emprunts...");
+        empruntsList.rafraichir();
     }
 
     /**
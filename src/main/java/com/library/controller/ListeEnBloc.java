@@ -0,0 +1,54 @@
+package com.library.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.collections.ModifiableObservableListBase;
+
+/**
+ * Liste observable dont plusieurs modifications peuvent être regroupées en un seul changement
+ * (modifierEnBloc) : la table ne reçoit qu'une notification pour tout un alignement (voir DiffListe).
+ * Les méthodes de cette classe s'appellent depuis le fil JavaFX.
+ * @param <T> le type des lignes
+ */
+final class ListeEnBloc<T> extends ModifiableObservableListBase<T> {
+
+    private final List<T> lignes = new ArrayList<>();
+
+    /**
+     * Exécute les modifications ; les changements imbriqués sont fusionnés et notifiés à la fin
+     */
+    void modifierEnBloc(Runnable modifications) {
+        beginChange();
+        try {
+            modifications.run();
+        } finally {
+            endChange();
+        }
+    }
+
+    @Override
+    public T get(int index) {
+        return lignes.get(index);
+    }
+
+    @Override
+    public int size() {
+        return lignes.size();
+    }
+
+    @Override
+    protected void doAdd(int index, T element) {
+        lignes.add(index, element);
+    }
+
+    @Override
+    protected T doSet(int index, T element) {
+        return lignes.set(index, element);
+    }
+
+    @Override
+    protected T doRemove(int index) {
+        return lignes.remove(index);
+    }
+}
@@ -0,0 +1,673 @@
+package com.library.controller;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+import com.library.dao.Page;
+
+import javafx.beans.value.ObservableBooleanValue;
+import javafx.collections.ObservableListBase;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+
+/**
+ * Liste virtuelle paginée pour les TableView des grandes tables : la taille vient d'une estimation
+ * (sans parcours de la table) et se corrige quand une page atteint la fin réelle de la liste ;
+ * les pages sont lues à la demande (page visible et marges de préchargement) hors du fil JavaFX,
+ * et les pages éloignées de la dernière page consultée sont évincées.
+ * Une ligne pas encore chargée vaut null ; sa page est demandée et la table est notifiée à l'arrivée.
+ * Une page se lit à partir du jeton connu le plus proche avant elle (fin d'une page chargée ou repère).
+ * Loin de tout jeton, un repère est d'abord lu près de la page demandée, sur les seules colonnes
+ * de tri ; les repères sont gardés par tri et resservent aux sauts suivants et après un changement de tri.
+ * Le tri se fait côté base (voir lierTri) ; les modifications par la liste ne sont pas supportées,
+ * une ligne connue se remplace par remplacer(), une ligne créée en tête s'insère par insererEnTete()
+ * et la zone affichée se relit par rafraichir().
+ * Les méthodes de cette classe s'appellent depuis le fil JavaFX.
+ * @param <T> le type des lignes
+ */
+public class ListePaginee<T> extends ObservableListBase<T> {
+
+    public static final int TAILLE_PAGE = 100;
+    private static final int MARGE_PAGES = 2;
+    private static final int PAGES_MAX = 30;
+    private static final int PAS_REPERES = 10 * TAILLE_PAGE;
+    private static final int REPERES_MAX = 500;
+
+    /**
+     * Lecture d'une page : debut lignes après le jeton, ou après le début de la liste sans jeton
+     */
+    @FunctionalInterface
+    public interface LecturePage<T> {
+        Page<T> lire(String tri, boolean decroissant, String jeton, int debut, int taille) throws Exception;
+    }
+
+    /**
+     * Lecture d'un repère : jeton menant à la ligne située decalage lignes après le jeton
+     * (après le début de la liste sans jeton), null au-delà de la fin
+     */
+    @FunctionalInterface
+    public interface LectureReperes {
+        String lire(String tri, boolean decroissant, String jeton, int decalage) throws Exception;
+    }
+
+    // Estimation du nombre de lignes, relue à chaque rechargement et rafraîchissement
+    private final Callable<Integer> comptage;
+    private final LecturePage<T> lecture;
+    private final Function<T, ?> cle;
+    private final BiPredicate<T, T> identiques;
+    private final ChargeurAsynchrone chargementComptage;
+    private final ChargeurAsynchrone chargementPages;
+    private LectureReperes lectureReperes;
+
+    private final Map<Integer, List<T>> pages = new HashMap<>();
+    // Jeton de continuation menant à chaque page (fin de la page précédente)
+    private final Map<Integer, String> jetons = new HashMap<>();
+    private final Set<Integer> enAttente = new HashSet<>();
+    // Repères par tri (voir cleTri) : ligne d'arrivée -> jeton, lignes multiples de PAS_REPERES
+    private final Map<String, NavigableMap<Integer, String>> reperesParTri = new HashMap<>();
+    private int taille;
+    // Incrémentée à chaque rechargement : les pages d'une génération précédente sont ignorées
+    private int generation;
+    // Lue par les tâches de lecture pour abandonner les pages sorties de la zone consultée
+    private volatile int dernierePage;
+    // Un seul échec de lecture de page signalé par génération
+    private boolean echecSignale;
+    private String tri;
+    private boolean decroissant;
+    private IntConsumer surComptage = total -> { };
+    private Consumer<Throwable> surEchec = e -> { };
+
+    /**
+     * @param cle        identifiant d'une ligne
+     * @param identiques vrai si deux versions d'une même ligne s'affichent de la même façon
+     */
+    public ListePaginee(String nom, Callable<Integer> comptage, LecturePage<T> lecture,
+                        Function<T, ?> cle, BiPredicate<T, T> identiques, String tri, boolean decroissant) {
+        this.comptage = comptage;
+        this.lecture = lecture;
+        this.cle = cle;
+        this.identiques = identiques;
+        this.tri = tri;
+        this.decroissant = decroissant;
+        this.chargementComptage = new ChargeurAsynchrone(nom);
+        this.chargementPages = new ChargeurAsynchrone("page " + nom);
+    }
+
+    /**
+     * Active les repères d'accès direct, lus à la demande près des pages éloignées de tout jeton
+     */
+    public void setLectureReperes(LectureReperes lectureReperes) {
+        this.lectureReperes = lectureReperes;
+    }
+
+    /**
+     * Appelé avec le nombre de lignes (estimé, puis corrigé en fin de liste) après chaque rechargement
+     */
+    public void setSurComptage(IntConsumer surComptage) {
+        this.surComptage = surComptage;
+    }
+
+    /**
+     * Appelé en cas d'échec du comptage ou de la lecture d'une page
+     */
+    public void setSurEchec(Consumer<Throwable> surEchec) {
+        this.surEchec = surEchec;
+    }
+
+    /**
+     * Indicateur de chargement sur la table pendant le comptage
+     */
+    public void indiquerChargement(TableView<?> table) {
+        chargementComptage.indiquerChargement(table);
+    }
+
+    /**
+     * Vrai pendant l'estimation ou la lecture d'une page (rechargement, tri, défilement)
+     */
+    public ObservableBooleanValue enCoursProperty() {
+        return chargementComptage.enCoursProperty().or(chargementPages.enCoursProperty());
+    }
+
+    /**
+     * Oublie les pages chargées et réestime le nombre de lignes ; les pages visibles sont relues
+     * à la demande. Les repères du tri sont conservés : ce sont des clés, toujours valides,
+     * dont la position ne dérive que des lignes ajoutées ou retirées avant elles.
+     */
+    public void recharger() {
+        generation++;
+        pages.clear();
+        jetons.clear();
+        enAttente.clear();
+        echecSignale = false;
+        int courante = generation;
+        chargementComptage.charger(comptage, total -> {
+            if (courante == generation) {
+                redimensionner(total);
+                surComptage.accept(total);
+            }
+        }, surEchec);
+    }
+
+    /**
+     * Réestime le nombre de lignes et relit la zone affichée (pages chargées autour de la dernière page
+     * consultée), puis aligne cette zone par clé : seules les lignes ajoutées, retirées ou modifiées
+     * sont notifiées. Les pages hors de la zone sont oubliées et relues à la demande.
+     */
+    public void rafraichir() {
+        int reference = dernierePage;
+        int premiere = reference;
+        int derniere = reference - 1;
+        if (pages.containsKey(reference)) {
+            derniere = reference;
+            // Zone contiguë : seule la dernière page peut être incomplète
+            while (premiere > reference - MARGE_PAGES && pleine(premiere - 1)) {
+                premiere--;
+            }
+            while (derniere < reference + MARGE_PAGES && pleine(derniere) && pages.containsKey(derniere + 1)) {
+                derniere++;
+            }
+        }
+        List<T> zone = new ArrayList<>();
+        for (int page = premiere; page <= derniere; page++) {
+            zone.addAll(pages.get(page));
+        }
+
+        generation++;
+        enAttente.clear();
+        echecSignale = false;
+        int courante = generation;
+        int premiereZone = premiere;
+        int longueur = zone.size();
+        Depart depart = depart(premiere);
+        String jeton = depart.jeton;
+        int debut = depart.decalage;
+        String triZone = tri;
+        boolean decroissantZone = decroissant;
+        chargementComptage.charger(() -> {
+            int total = comptage.call();
+            Page<T> page = longueur == 0 ? null : lecture.lire(triZone, decroissantZone, jeton, debut, longueur);
+            return new Releve<>(total, page);
+        }, releve -> {
+            if (courante == generation) {
+                aligner(premiereZone, depart.decalage == 0 ? jeton : null, zone, releve);
+                surComptage.accept(releve.total);
+            }
+        }, surEchec);
+    }
+
+    /**
+     * Remplace la ligne de même clé si elle est chargée (une seule ligne notifiée)
+     * @return vrai si la ligne a été remplacée
+     */
+    public boolean remplacer(T element) {
+        Object k = cle.apply(element);
+        for (Map.Entry<Integer, List<T>> entree : pages.entrySet()) {
+            List<T> elements = entree.getValue();
+            for (int position = 0; position < elements.size(); position++) {
+                T ancien = elements.get(position);
+                if (Objects.equals(cle.apply(ancien), k)) {
+                    List<T> copie = new ArrayList<>(elements);
+                    copie.set(position, element);
+                    entree.setValue(copie);
+                    int index = entree.getKey() * TAILLE_PAGE + position;
+                    beginChange();
+                    nextReplace(index, index + 1, Collections.singletonList(ancien));
+                    endChange();
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Insère une ligne créée qui précède toutes les autres dans le tri indiqué (par exemple le plus
+     * récent emprunt en tri par date décroissante), sans relecture : les pages chargées depuis la tête
+     * sont décalées d'une ligne et une seule insertion est notifiée. Si ce tri n'est pas le tri courant,
+     * si la tête n'est pas chargée ou si une lecture est en cours, la zone affichée est rafraîchie.
+     */
+    public void insererEnTete(T element, String triTete, boolean decroissantTete) {
+        if (!triTete.equals(tri) || decroissantTete != decroissant || !pages.containsKey(0)
+                || !enAttente.isEmpty() || chargementComptage.enCoursProperty().get()) {
+            rafraichir();
+            return;
+        }
+        // Pages contiguës depuis la tête ; les autres, à des positions décalées, seront relues à la demande
+        List<T> tete = new ArrayList<>();
+        tete.add(element);
+        for (int page = 0; pages.containsKey(page); page++) {
+            tete.addAll(pages.get(page));
+            if (!pleine(page)) {
+                break;
+            }
+        }
+        taille++;
+        pages.clear();
+        // Jetons et positions des repères : une ligne de plus avant chacun
+        jetons.clear();
+        NavigableMap<Integer, String> reperes = reperes();
+        NavigableMap<Integer, String> decales = new TreeMap<>();
+        reperes.forEach((ligne, jeton) -> decales.put(ligne + 1, jeton));
+        reperes.clear();
+        reperes.putAll(decales);
+        for (int position = 0; position < tete.size(); position += TAILLE_PAGE) {
+            List<T> elements = new ArrayList<>(tete.subList(position, Math.min(position + TAILLE_PAGE, tete.size())));
+            // Page tronquée au milieu de la liste : relue à la demande
+            if (elements.size() == TAILLE_PAGE || position + elements.size() >= taille) {
+                pages.put(position / TAILLE_PAGE, elements);
+            }
+        }
+
+        beginChange();
+        nextAdd(0, 1);
+        endChange();
+        surComptage.accept(taille);
+    }
+
+    /**
+     * Change le tri (propriété du modèle, voir les DAO) et recharge si besoin
+     */
+    public void trier(String tri, boolean decroissant) {
+        if (tri.equals(this.tri) && decroissant == this.decroissant) {
+            return;
+        }
+        this.tri = tri;
+        this.decroissant = decroissant;
+        recharger();
+    }
+
+    /**
+     * Tri côté base au clic sur les en-têtes : chaque colonne associée à une propriété triable
+     * déclenche un rechargement trié ; les autres colonnes ne sont pas triables.
+     * Si la table affiche une autre liste (résultats de recherche), le tri par défaut s'applique.
+     */
+    @SuppressWarnings("unchecked")
+    public void lierTri(TableView<T> table, Map<TableColumn<T, ?>, String> tris) {
+        String triDefaut = tri;
+        boolean decroissantDefaut = decroissant;
+        for (TableColumn<T, ?> colonne : table.getColumns()) {
+            colonne.setSortable(tris.containsKey(colonne));
+        }
+        table.setSortPolicy(t -> {
+            if (t.getItems() != this) {
+                return TableView.DEFAULT_SORT_POLICY.call(t);
+            }
+            if (t.getSortOrder().isEmpty()) {
+                trier(triDefaut, decroissantDefaut);
+            } else {
+                TableColumn<T, ?> colonne = t.getSortOrder().get(0);
+                trier(tris.get(colonne), colonne.getSortType() == TableColumn.SortType.DESCENDING);
+            }
+            return true;
+        });
+    }
+
+    @Override
+    public T get(int index) {
+        Objects.checkIndex(index, taille);
+        int page = index / TAILLE_PAGE;
+        dernierePage = page;
+        for (int ecart = 0; ecart <= MARGE_PAGES; ecart++) {
+            demander(page + ecart);
+            demander(page - ecart);
+        }
+        List<T> elements = pages.get(page);
+        int position = index % TAILLE_PAGE;
+        return elements != null && position < elements.size() ? elements.get(position) : null;
+    }
+
+    @Override
+    public int size() {
+        return taille;
+    }
+
+    /**
+     * Recherche limitée aux pages chargées (un parcours complet lirait toute la table)
+     */
+    @Override
+    public int indexOf(Object o) {
+        for (Map.Entry<Integer, List<T>> entree : pages.entrySet()) {
+            int position = entree.getValue().indexOf(o);
+            if (position >= 0) {
+                return entree.getKey() * TAILLE_PAGE + position;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * Égalité d'identité : la comparaison élément par élément lirait toute la table
+     */
+    @Override
+    public boolean equals(Object o) {
+        return this == o;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+
+    private void demander(int page) {
+        if (page < 0 || page * TAILLE_PAGE >= taille || pages.containsKey(page) || !enAttente.add(page)) {
+            return;
+        }
+        int courante = generation;
+        String triPage = tri;
+        boolean decroissantPage = decroissant;
+        NavigableMap<Integer, String> reperesPage = reperes();
+        Depart depart = depart(page);
+        int ligne = page * TAILLE_PAGE;
+        // Loin de tout jeton : repère lu d'abord à la ligne multiple de PAS_REPERES qui précède la page
+        int ligneRepere = lectureReperes != null && depart.decalage >= PAS_REPERES
+                ? ligne / PAS_REPERES * PAS_REPERES : 0;
+        chargementPages.executer(() -> {
+            // Page dépassée par un défilement rapide : abandonnée sans requête
+            if (Math.abs(page - dernierePage) > MARGE_PAGES) {
+                return null;
+            }
+            String repere = null;
+            if (ligneRepere > 0) {
+                repere = lectureReperes.lire(triPage, decroissantPage, depart.jeton,
+                        depart.decalage - (ligne - ligneRepere));
+                // Liste plus courte que l'estimation : page vide, la taille sera corrigée
+                if (repere == null) {
+                    return new Lecture<T>(new Page<>(Collections.emptyList(), null), null);
+                }
+            }
+            Page<T> lue = repere != null
+                    ? lecture.lire(triPage, decroissantPage, repere, ligne - ligneRepere, TAILLE_PAGE)
+                    : lecture.lire(triPage, decroissantPage, depart.jeton, depart.decalage, TAILLE_PAGE);
+            return new Lecture<>(lue, repere);
+        }, resultat -> {
+            if (resultat != null && resultat.repere != null) {
+                garderRepere(reperesPage, ligneRepere, resultat.repere);
+            }
+            recevoir(courante, page, resultat != null ? resultat.page : null);
+        }, e -> {
+            if (courante == generation) {
+                // Page marquée vide pour ne pas relancer la requête à chaque affichage
+                enAttente.remove(page);
+                pages.put(page, Collections.emptyList());
+                if (!echecSignale) {
+                    echecSignale = true;
+                    surEchec.accept(e);
+                }
+            }
+        });
+    }
+
+    private void recevoir(int courante, int page, Page<T> resultat) {
+        if (courante != generation) {
+            return;
+        }
+        enAttente.remove(page);
+        if (resultat == null) {
+            return;
+        }
+        int debut = page * TAILLE_PAGE;
+        // Fin de liste raccourcie entre-temps par une autre page
+        if (debut >= taille) {
+            return;
+        }
+        List<T> elements = resultat.getElements();
+        pages.put(page, elements);
+        if (resultat.hasSuivante()) {
+            jetons.put(page + 1, resultat.getJetonSuivant());
+        }
+        evincer();
+
+        // Taille estimée corrigée : la page atteint la fin réelle avant la fin estimée, ou la dépasse
+        int ancienne = taille;
+        int fin = debut + elements.size();
+        if (!resultat.hasSuivante() && fin < taille) {
+            taille = fin;
+            pages.keySet().removeIf(p -> p * TAILLE_PAGE >= fin);
+            jetons.keySet().removeIf(p -> p * TAILLE_PAGE >= fin);
+        } else if (resultat.hasSuivante() && fin >= taille) {
+            taille = fin + TAILLE_PAGE;
+        }
+
+        beginChange();
+        int finRemplacee = Math.min(debut + TAILLE_PAGE, Math.min(ancienne, taille));
+        if (debut < finRemplacee) {
+            nextReplace(debut, finRemplacee, Collections.nCopies(finRemplacee - debut, null));
+        }
+        if (taille < ancienne) {
+            nextRemove(taille, Collections.nCopies(ancienne - taille, null));
+        } else if (taille > ancienne) {
+            nextAdd(ancienne, taille);
+        }
+        endChange();
+        if (taille != ancienne) {
+            surComptage.accept(taille);
+        }
+    }
+
+    /**
+     * Point de départ le plus proche avant la page : son propre jeton, la fin d'une page précédente
+     * ou un repère ; à défaut le début de la liste
+     */
+    private Depart depart(int page) {
+        int ligne = page * TAILLE_PAGE;
+        String jeton = null;
+        int decalage = ligne;
+        for (Map.Entry<Integer, String> entree : jetons.entrySet()) {
+            int ecart = ligne - entree.getKey() * TAILLE_PAGE;
+            if (ecart >= 0 && ecart < decalage) {
+                jeton = entree.getValue();
+                decalage = ecart;
+            }
+        }
+        Map.Entry<Integer, String> repere = reperes().floorEntry(ligne);
+        if (repere != null && ligne - repere.getKey() < decalage) {
+            jeton = repere.getValue();
+            decalage = ligne - repere.getKey();
+        }
+        return new Depart(jeton, decalage);
+    }
+
+    /**
+     * Repères du tri courant
+     */
+    private NavigableMap<Integer, String> reperes() {
+        return reperesParTri.computeIfAbsent(tri + (decroissant ? " desc" : ""), k -> new TreeMap<>());
+    }
+
+    /**
+     * Garde un repère pour son tri ; au-delà de REPERES_MAX, le plus éloigné de la zone consultée est oublié
+     */
+    private void garderRepere(NavigableMap<Integer, String> reperes, int ligne, String jeton) {
+        reperes.put(ligne, jeton);
+        if (reperes.size() > REPERES_MAX) {
+            int reference = dernierePage * TAILLE_PAGE;
+            int premiere = reperes.firstKey();
+            int derniere = reperes.lastKey();
+            reperes.remove(Math.abs(premiere - reference) > Math.abs(derniere - reference) ? premiere : derniere);
+        }
+    }
+
+    private boolean pleine(int page) {
+        List<T> elements = pages.get(page);
+        return elements != null && elements.size() == TAILLE_PAGE;
+    }
+
+    private void aligner(int premiere, String jeton, List<T> zone, Releve<T> releve) {
+        int debut = premiere * TAILLE_PAGE;
+        List<T> relue = releve.page != null ? releve.page.getElements() : Collections.emptyList();
+        Zone vue = new Zone(debut, zone);
+
+        beginChange();
+        DiffListe.appliquer(vue, relue, cle, identiques);
+        // Fin de liste hors de la zone : lignes non chargées, ajustées au nouveau total
+        if (taille > releve.total) {
+            List<T> retirees = new ArrayList<>(taille - releve.total);
+            for (int index = releve.total; index < taille; index++) {
+                int position = index - debut;
+                retirees.add(position >= 0 && position < zone.size() ? zone.get(position) : null);
+            }
+            nextRemove(releve.total, retirees);
+            if (releve.total - debut < zone.size()) {
+                zone.subList(Math.max(0, releve.total - debut), zone.size()).clear();
+            }
+        } else if (taille < releve.total) {
+            nextAdd(taille, releve.total);
+        }
+        taille = releve.total;
+
+        pages.clear();
+        jetons.clear();
+        for (int position = 0; position < zone.size(); position += TAILLE_PAGE) {
+            int page = premiere + position / TAILLE_PAGE;
+            List<T> elements = new ArrayList<>(zone.subList(position, Math.min(position + TAILLE_PAGE, zone.size())));
+            // Page tronquée au milieu de la liste : relue à la demande
+            if (elements.size() == TAILLE_PAGE || debut + position + elements.size() >= taille) {
+                pages.put(page, elements);
+            }
+        }
+        if (jeton != null) {
+            jetons.put(premiere, jeton);
+        }
+        if (releve.page != null && releve.page.hasSuivante() && zone.size() == relue.size()
+                && zone.size() % TAILLE_PAGE == 0) {
+            jetons.put(premiere + zone.size() / TAILLE_PAGE, releve.page.getJetonSuivant());
+        }
+        endChange();
+    }
+
+    private void evincer() {
+        int reference = dernierePage;
+        while (pages.size() > PAGES_MAX) {
+            int plusEloignee = reference;
+            for (int page : pages.keySet()) {
+                if (Math.abs(page - reference) >= Math.abs(plusEloignee - reference)) {
+                    plusEloignee = page;
+                }
+            }
+            pages.remove(plusEloignee);
+        }
+        jetons.keySet().removeIf(page -> Math.abs(page - reference) > PAGES_MAX);
+    }
+
+    private void redimensionner(int total) {
+        int ancienne = taille;
+        taille = total;
+        beginChange();
+        if (ancienne > 0) {
+            nextRemove(0, Collections.nCopies(ancienne, null));
+        }
+        if (total > 0) {
+            nextAdd(0, total);
+        }
+        endChange();
+    }
+
+    /**
+     * Zone affichée vue comme une liste : chaque modification met à jour la taille
+     * et s'ajoute au changement en cours, décalée de la position de la zone
+     */
+    private final class Zone extends AbstractList<T> {
+        private final int debut;
+        private final List<T> lignes;
+
+        Zone(int debut, List<T> lignes) {
+            this.debut = debut;
+            this.lignes = lignes;
+        }
+
+        @Override
+        public T get(int index) {
+            return lignes.get(index);
+        }
+
+        @Override
+        public int size() {
+            return lignes.size();
+        }
+
+        @Override
+        public T set(int index, T element) {
+            T ancien = lignes.set(index, element);
+            nextReplace(debut + index, debut + index + 1, Collections.singletonList(ancien));
+            return ancien;
+        }
+
+        @Override
+        public void add(int index, T element) {
+            lignes.add(index, element);
+            taille++;
+            nextAdd(debut + index, debut + index + 1);
+        }
+
+        @Override
+        public T remove(int index) {
+            T ancien = lignes.remove(index);
+            taille--;
+            nextRemove(debut + index, ancien);
+            return ancien;
+        }
+    }
+
+    /**
+     * Jeton de départ d'une lecture et nombre de lignes à sauter après lui
+     */
+    private static final class Depart {
+        private final String jeton;
+        private final int decalage;
+
+        Depart(String jeton, int decalage) {
+            this.jeton = jeton;
+            this.decalage = decalage;
+        }
+    }
+
+    /**
+     * Page lue et repère lu avant elle (null si la page a été lue sans nouveau repère)
+     */
+    private static final class Lecture<T> {
+        private final Page<T> page;
+        private final String repere;
+
+        Lecture(Page<T> page, String repere) {
+            this.page = page;
+            this.repere = repere;
+        }
+    }
+
+    /**
+     * Nombre de lignes estimé et zone relue, lus ensemble hors du fil JavaFX
+     */
+    private static final class Releve<T> {
+        private final int total;
+        private final Page<T> page;
+
+        Releve(int total, Page<T> page) {
+            this.total = total;
+            this.page = page;
+        }
+    }
+}
@@ -1,22 +1,27 @@
 package com.library.controller;
 
-import com.library.exception.LivreIndisponibleException;
 import com.library.exception.ValidationException;
 import com.library.model.Livre;
 import com.library.service.BibliothequeService;
+import javafx.animation.PauseTransition;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
+import javafx.geometry.Side;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.util.Duration;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * Contrôleur JavaFX pour la gestion des livres.
  */
 public class LivreController {
 
+    private static final Duration DELAI_SUGGESTIONS = Duration.millis(200);
+    private static final int NOMBRE_SUGGESTIONS = 8;
+
     @FXML
     private TextField isbnField;
     @FXML
@@ -32,6 +37,8 @@ public class LivreController {
     @FXML
     private ComboBox<String> searchTypeComboBox;
     @FXML
+    private CheckBox approximatifCheckBox;
+    @FXML
     private TableView<Livre> livresTable;
     @FXML
     private TableColumn<Livre, String> isbnColumn;
@@ -59,9 +66,18 @@ public class LivreController {
     private Button actualiserButton;
     @FXML
     private Label statusLabel;
+    @FXML
+    private ProgressIndicator chargementIndicateur;
 
     private final BibliothequeService bibliothequeService;
-    private final ObservableList<Livre> livresList;
+    // Résultats de recherche ; le catalogue complet est affiché par la liste paginée
+    private final ListeEnBloc<Livre> livresList;
+    private final ListePaginee<Livre> catalogue;
+    private final ContextMenu suggestionsMenu = new ContextMenu();
+    private final PauseTransition attenteSuggestions = new PauseTransition(DELAI_SUGGESTIONS);
+    private final ChargeurAsynchrone chargementLivres = new ChargeurAsynchrone("livres");
+    private final ChargeurAsynchrone ecritures = new ChargeurAsynchrone("écriture livre");
+    private boolean suggestionChoisie;
 
     /**
      * Constructeur par défaut.
@@ -73,7 +89,8 @@ public class LivreController {
             // Gérer l'exception (par exemple, afficher un message d'erreur ou utiliser une valeur par défaut)
             throw new RuntimeException("Erreur lors de l'initialisation du service", e);
         }
-        this.livresList = FXCollections.observableArrayList();
+        this.livresList = new ListeEnBloc<>();
+        this.catalogue = creerCatalogue();
     }
 
     /**
@@ -81,7 +98,31 @@ public class LivreController {
      */
     public LivreController(BibliothequeService bibliothequeService) {
         this.bibliothequeService = bibliothequeService;
-        this.livresList = FXCollections.observableArrayList();
+        this.livresList = new ListeEnBloc<>();
+        this.catalogue = creerCatalogue();
+    }
+
+    /**
+     * Liste paginée du catalogue, triée par titre par défaut.
+     */
+    private ListePaginee<Livre> creerCatalogue() {
+        ListePaginee<Livre> liste = new ListePaginee<>("livres", () -> bibliothequeService.estimerNombreLivres(),
+                (tri, decroissant, jeton, debut, taille) ->
+                        bibliothequeService.listerLivresPage(tri, decroissant, jeton, debut, taille),
+                Livre::getId, LivreController::memeAffichage, "titre", false);
+        liste.setLectureReperes(bibliothequeService::getRepereLivres);
+        return liste;
+    }
+
+    /**
+     * Vrai si les deux versions d'un livre s'affichent de la même façon dans la table.
+     */
+    private static boolean memeAffichage(Livre a, Livre b) {
+        return Objects.equals(a.getIsbn(), b.getIsbn())
+                && Objects.equals(a.getTitre(), b.getTitre())
+                && Objects.equals(a.getAuteur(), b.getAuteur())
+                && a.getAnneePublication() == b.getAnneePublication()
+                && a.isDisponible() == b.isDisponible();
     }
 
     /**
@@ -90,14 +131,30 @@ public class LivreController {
     @FXML
     public void initialize() {
         // Configuration des colonnes de la table
-        isbnColumn.setCellValueFactory(new PropertyValueFactory<>("isbn"));
-        titreColumn.setCellValueFactory(new PropertyValueFactory<>("titre"));
-        auteurColumn.setCellValueFactory(new PropertyValueFactory<>("auteur"));
-        anneeColumn.setCellValueFactory(new PropertyValueFactory<>("anneePublication"));
-        disponibleColumn.setCellValueFactory(new PropertyValueFactory<>("disponible"));
-
-        // Liaison de la liste observable à la table
-        livresTable.setItems(livresList);
+        isbnColumn.setCellValueFactory(CellulesTypees.valeur(Livre::getIsbn));
+        titreColumn.setCellValueFactory(CellulesTypees.valeur(Livre::getTitre));
+        auteurColumn.setCellValueFactory(CellulesTypees.valeur(Livre::getAuteur));
+        anneeColumn.setCellValueFactory(CellulesTypees.valeur(Livre::getAnneePublication));
+        disponibleColumn.setCellValueFactory(CellulesTypees.valeur(Livre::isDisponible));
+
+        // Catalogue paginé trié côté base ; la disponibilité n'est pas triable
+        catalogue.lierTri(livresTable, Map.of(
+                isbnColumn, "isbn",
+                titreColumn, "titre",
+                auteurColumn, "auteur",
+                anneeColumn, "anneePublication"));
+        catalogue.setSurEchec(e ->
+                afficherMessage("Erreur lors du chargement des livres: " + e.getMessage(), Alert.AlertType.ERROR));
+
+        // Appels à la base hors du fil JavaFX : indicateur pendant les chargements,
+        // actions désactivées tant qu'une écriture est en cours
+        chargementLivres.indiquerChargement(livresTable);
+        catalogue.indiquerChargement(livresTable);
+        ChargeurAsynchrone.lierIndicateur(chargementIndicateur, chargementLivres.enCoursProperty(),
+                catalogue.enCoursProperty(), ecritures.enCoursProperty());
+        for (Button bouton : List.of(ajouterButton, modifierButton, supprimerButton, emprunterButton, retournerButton)) {
+            bouton.disableProperty().bind(ecritures.enCoursProperty());
+        }
 
         // Configuration de la ComboBox de recherche
         searchTypeComboBox.setItems(FXCollections.observableArrayList("Titre", "Auteur", "ISBN"));
@@ -110,24 +167,87 @@ public class LivreController {
             }
         });
 
+        // Autocomplétion : suggestions après une courte pause de frappe
+        attenteSuggestions.setOnFinished(event -> afficherSuggestions());
+        searchField.textProperty().addListener((obs, ancien, nouveau) -> {
+            if (suggestionChoisie) {
+                return;
+            }
+            attenteSuggestions.playFromStart();
+        });
+        searchField.focusedProperty().addListener((obs, ancien, focus) -> {
+            if (!focus) {
+                attenteSuggestions.stop();
+                suggestionsMenu.hide();
+            }
+        });
+
         // Chargement initial des livres
         actualiserTable();
     }
 
+    /**
+     * Affiche sous le champ de recherche les suggestions correspondant à la saisie.
+     */
+    private void afficherSuggestions() {
+        String saisie = searchField.getText();
+        List<String> suggestions = saisie == null || saisie.isBlank()
+                ? List.of()
+                : bibliothequeService.suggererLivres(saisie, NOMBRE_SUGGESTIONS, typeSuggestions());
+        if (suggestions.isEmpty() || !searchField.isFocused()) {
+            suggestionsMenu.hide();
+            return;
+        }
+
+        suggestionsMenu.getItems().clear();
+        for (String suggestion : suggestions) {
+            MenuItem item = new MenuItem(suggestion);
+            item.setOnAction(event -> {
+                suggestionChoisie = true;
+                searchField.setText(suggestion);
+                searchField.positionCaret(suggestion.length());
+                suggestionChoisie = false;
+                rechercherLivres();
+            });
+            suggestionsMenu.getItems().add(item);
+        }
+        if (!suggestionsMenu.isShowing()) {
+            suggestionsMenu.show(searchField, Side.BOTTOM, 0, 0);
+        }
+    }
+
+    private int typeSuggestions() {
+        String type = searchTypeComboBox.getValue();
+        if ("Auteur".equals(type)) {
+            return BibliothequeService.SUGGESTION_AUTEUR;
+        }
+        if ("ISBN".equals(type)) {
+            return BibliothequeService.SUGGESTION_ISBN;
+        }
+        return BibliothequeService.SUGGESTION_TITRE;
+    }
+
     /**
      * Ajoute un nouveau livre.
      */
     @FXML
     private void ajouterLivre() {
+        Livre livre;
         try {
-            Livre livre = creerLivreDepuisFormulaire();
+            livre = creerLivreDepuisFormulaire();
+        } catch (ValidationException e) {
+            afficherMessage("Erreur lors de l'ajout: " + e.getMessage(), Alert.AlertType.ERROR);
+            return;
+        }
+
+        ecritures.executer(() -> {
             bibliothequeService.ajouterLivre(livre);
-            actualiserTable();
+            return null;
+        }, resultat -> {
+            rafraichirTable();
             viderFormulaire();
             afficherMessage("Livre ajouté avec succès", Alert.AlertType.INFORMATION);
-        } catch (ValidationException | SQLException e) {
-            afficherMessage("Erreur lors de l'ajout: " + e.getMessage(), Alert.AlertType.ERROR);
-        }
+        }, e -> afficherMessage("Erreur lors de l'ajout: " + e.getMessage(), Alert.AlertType.ERROR));
     }
 
     /**
@@ -141,16 +261,31 @@ public class LivreController {
             return;
         }
 
+        Livre livreModifie;
         try {
-            Livre livreModifie = creerLivreDepuisFormulaire();
-            livreModifie.setId(livreSelectionne.getId()); // Conserver l'ID original
-            livreModifie.setIsbn(livreSelectionne.getIsbn()); // Conserver l'ISBN original
-            bibliothequeService.modifierLivre(livreModifie);
-            actualiserTable();
-            afficherMessage("Livre modifié avec succès", Alert.AlertType.INFORMATION);
-        } catch (ValidationException | SQLException e) {
+            livreModifie = creerLivreDepuisFormulaire();
+        } catch (ValidationException e) {
             afficherMessage("Erreur lors de la modification: " + e.getMessage(), Alert.AlertType.ERROR);
+            return;
         }
+        livreModifie.setId(livreSelectionne.getId()); // Conserver l'ID original
+        livreModifie.setIsbn(livreSelectionne.getIsbn()); // Conserver l'ISBN original
+
+        ecritures.executer(() -> {
+            bibliothequeService.modifierLivre(livreModifie);
+            return null;
+        }, resultat -> {
+            // Titre, auteur ou année modifiés : la ligne peut changer de place dans le tri
+            boolean memePlace = Objects.equals(livreModifie.getTitre(), livreSelectionne.getTitre())
+                    && Objects.equals(livreModifie.getAuteur(), livreSelectionne.getAuteur())
+                    && livreModifie.getAnneePublication() == livreSelectionne.getAnneePublication();
+            if (memePlace) {
+                remplacerLigne(livreModifie);
+            } else {
+                rafraichirTable();
+            }
+            afficherMessage("Livre modifié avec succès", Alert.AlertType.INFORMATION);
+        }, e -> afficherMessage("Erreur lors de la modification: " + e.getMessage(), Alert.AlertType.ERROR));
     }
 
     /**
@@ -170,14 +305,18 @@ public class LivreController {
         confirmation.showAndWait();
 
         if (confirmation.getResult() == ButtonType.YES) {
-            try {
+            ecritures.executer(() -> {
                 bibliothequeService.supprimerLivre(livreSelectionne.getId());
-                actualiserTable();
+                return null;
+            }, resultat -> {
+                if (livresTable.getItems() == catalogue) {
+                    catalogue.rafraichir();
+                } else {
+                    livresList.remove(livreSelectionne);
+                }
                 viderFormulaire();
                 afficherMessage("Livre supprimé avec succès", Alert.AlertType.INFORMATION);
-            } catch (SQLException e) {
-                afficherMessage("Erreur lors de la suppression: " + e.getMessage(), Alert.AlertType.ERROR);
-            }
+            }, e -> afficherMessage("Erreur lors de la suppression: " + e.getMessage(), Alert.AlertType.ERROR));
         }
     }
 
@@ -192,13 +331,10 @@ public class LivreController {
             return;
         }
 
-        try {
-            bibliothequeService.emprunterLivre(livreSelectionne.getIsbn());
-            actualiserTable();
+        ecritures.executer(() -> bibliothequeService.emprunterLivre(livreSelectionne.getIsbn()), livre -> {
+            remplacerLigne(livre);
             afficherMessage("Livre emprunté avec succès", Alert.AlertType.INFORMATION);
-        } catch (LivreIndisponibleException | ValidationException | SQLException e) {
-            afficherMessage("Erreur lors de l'emprunt: " + e.getMessage(), Alert.AlertType.ERROR);
-        }
+        }, e -> afficherMessage("Erreur lors de l'emprunt: " + e.getMessage(), Alert.AlertType.ERROR));
     }
 
     /**
@@ -212,13 +348,10 @@ public class LivreController {
             return;
         }
 
-        try {
-            bibliothequeService.retournerLivre(livreSelectionne.getIsbn());
-            actualiserTable();
+        ecritures.executer(() -> bibliothequeService.retournerLivre(livreSelectionne.getIsbn()), livre -> {
+            remplacerLigne(livre);
             afficherMessage("Livre retourné avec succès", Alert.AlertType.INFORMATION);
-        } catch (ValidationException | SQLException e) {
-            afficherMessage("Erreur lors du retour: " + e.getMessage(), Alert.AlertType.ERROR);
-        }
+        }, e -> afficherMessage("Erreur lors du retour: " + e.getMessage(), Alert.AlertType.ERROR));
     }
 
     /**
@@ -226,6 +359,8 @@ public class LivreController {
      */
     @FXML
     private void rechercherLivres() {
+        attenteSuggestions.stop();
+        suggestionsMenu.hide();
         String terme = searchField.getText().trim();
         String type = searchTypeComboBox.getValue();
 
@@ -234,27 +369,24 @@ public class LivreController {
             return;
         }
 
-        try {
-            List<Livre> resultats;
+        boolean approximatif = approximatifCheckBox.isSelected();
+        chargementLivres.charger(() -> {
             switch (type) {
                 case "Titre":
-                    resultats = bibliothequeService.rechercherParTitre(terme);
-                    break;
+                    return bibliothequeService.rechercherParTitre(terme, approximatif);
                 case "Auteur":
-                    resultats = bibliothequeService.rechercherParAuteur(terme);
-                    break;
+                    return bibliothequeService.rechercherParAuteur(terme, approximatif);
                 case "ISBN":
                     Livre livre = bibliothequeService.trouverLivreParIsbn(terme);
-                    resultats = livre != null ? List.of(livre) : List.of();
-                    break;
+                    return livre != null ? List.of(livre) : List.<Livre>of();
                 default:
-                    resultats = List.of();
+                    return List.<Livre>of();
             }
-            livresList.clear();
-            livresList.addAll(resultats);
-        } catch (ValidationException | SQLException e) {
-            afficherMessage("Erreur lors de la recherche: " + e.getMessage(), Alert.AlertType.ERROR);
-        }
+        }, livres -> {
+            livresTable.setItems(livresList);
+            livresList.modifierEnBloc(
+                    () -> DiffListe.appliquer(livresList, livres, Livre::getId, LivreController::memeAffichage));
+        }, e -> afficherMessage("Erreur lors de la recherche: " + e.getMessage(), Alert.AlertType.ERROR));
     }
 
     /**
@@ -262,13 +394,32 @@ public class LivreController {
      */
     @FXML
     private void actualiserTable() {
-        try {
-            List<Livre> livres = bibliothequeService.listerTousLesLivres();
-            livresList.clear();
-            livresList.addAll(livres);
-            searchField.clear();
-        } catch (SQLException e) {
-            afficherMessage("Erreur lors du chargement des livres: " + e.getMessage(), Alert.AlertType.ERROR);
+        searchField.clear();
+        chargementLivres.annuler();
+        livresTable.setItems(catalogue);
+        catalogue.recharger();
+    }
+
+    /**
+     * Relit la table affichée après un ajout ou une modification de tri : seules les lignes
+     * changées sont notifiées (zone affichée du catalogue, ou résultats de la recherche en cours).
+     */
+    private void rafraichirTable() {
+        if (livresTable.getItems() == catalogue) {
+            catalogue.rafraichir();
+        } else {
+            rechercherLivres();
+        }
+    }
+
+    /**
+     * Remplace la ligne d'un livre modifié, sans relire la table.
+     */
+    private void remplacerLigne(Livre livre) {
+        if (livresTable.getItems() == catalogue) {
+            catalogue.remplacer(livre);
+        } else {
+            DiffListe.remplacer(livresList, livre, Livre::getId);
         }
     }
 
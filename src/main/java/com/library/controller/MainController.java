@@ -1,30 +1,136 @@
 package com.library.controller;
 
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.library.dao.impl.StatistiquesEmprunts;
+import com.library.service.BibliothequeService;
+import com.library.service.EmpruntService;
 import com.library.util.DatabaseConnection;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
 
 /**
- * Contrôleur principal pour gérer la navigation entre les modules
+ * Contrôleur principal pour gérer la navigation entre les modules.
+ * La vue et le contrôleur de chaque onglet sont chargés à sa première sélection ;
+ * les onglets restants sont préchargés après le premier affichage de la fenêtre.
+ * Les contrôleurs des onglets partagent les mêmes services.
  */
 public class MainController {
-    
+
     @FXML
     private TabPane mainTabPane;
-    
+    @FXML
+    private Tab livresTab;
+    @FXML
+    private Tab membresTab;
+    @FXML
+    private Tab empruntsTab;
+
+    // Vue FXML de chaque onglet, dans l'ordre de préchargement
+    private final Map<Tab, String> vuesOnglets = new LinkedHashMap<>();
+    private BibliothequeService bibliothequeService;
+    private EmpruntService empruntService;
+
     /**
      * Initialisation du contrôleur
      */
     @FXML
     public void initialize() {
+        vuesOnglets.put(livresTab, "/fxml/LivreView.fxml");
+        vuesOnglets.put(membresTab, "/fxml/MembreView.fxml");
+        vuesOnglets.put(empruntsTab, "/fxml/EmpruntView.fxml");
+
+        mainTabPane.getSelectionModel().selectedItemProperty().addListener(
+                (obs, ancien, onglet) -> chargerOnglet(onglet));
+        chargerOnglet(mainTabPane.getSelectionModel().getSelectedItem());
         System.out.println("MainController initialisé");
     }
-    
+
+    /**
+     * Précharge les onglets pas encore ouverts, un par passage du fil JavaFX
+     * pour laisser l'interface répondre entre deux chargements
+     */
+    public void prechargerOnglets() {
+        for (Tab onglet : vuesOnglets.keySet()) {
+            if (onglet.getContent() == null) {
+                Platform.runLater(() -> {
+                    chargerOnglet(onglet);
+                    prechargerOnglets();
+                });
+                return;
+            }
+        }
+    }
+
+    /**
+     * Charge la vue et le contrôleur d'un onglet s'ils ne le sont pas encore
+     */
+    private void chargerOnglet(Tab onglet) {
+        String vue = vuesOnglets.get(onglet);
+        if (vue == null || onglet.getContent() != null) {
+            return;
+        }
+        long debut = System.nanoTime();
+        try {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource(vue));
+            loader.setControllerFactory(this::creerControleur);
+            onglet.setContent(loader.load());
+            System.out.println("Onglet " + vue + " chargé en " + (System.nanoTime() - debut) / 1_000_000 + " ms");
+        } catch (IOException e) {
+            System.err.println("Erreur lors du chargement de l'onglet " + vue + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Fabrique des contrôleurs d'onglets : services créés une fois et partagés
+     */
+    private Object creerControleur(Class<?> type) {
+        try {
+            if (type == LivreController.class) {
+                return new LivreController(getBibliothequeService());
+            }
+            if (type == MembreController.class) {
+                return new MembreController(getBibliothequeService());
+            }
+            if (type == EmpruntController.class) {
+                return new EmpruntController(getEmpruntService());
+            }
+            return type.getDeclaredConstructor().newInstance();
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors de l'initialisation des services", e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Contrôleur impossible à créer: " + type.getName(), e);
+        }
+    }
+
+    private BibliothequeService getBibliothequeService() throws SQLException {
+        if (bibliothequeService == null) {
+            bibliothequeService = new BibliothequeService();
+        }
+        return bibliothequeService;
+    }
+
+    private EmpruntService getEmpruntService() throws SQLException {
+        if (empruntService == null) {
+            empruntService = new EmpruntService();
+        }
+        return empruntService;
+    }
+
     /**
      * Méthode appelée à la fermeture de l'application
      */
     public void shutdown() {
+        SurveillanceFilFX.getInstance().arreter();
+        // Dernier point de contrôle des statistiques avant la fermeture des connexions
+        StatistiquesEmprunts.getInstance().arreter();
         DatabaseConnection.getInstance().closeConnection();
         System.out.println("Application fermée proprement");
     }
-}
\ No newline at end of file
+}
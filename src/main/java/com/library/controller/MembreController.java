@@ -1,13 +1,18 @@
 package com.library.controller;
 
 import java.sql.SQLException;
+import java.text.Collator;
 import java.time.LocalDate;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Predicate;
 
-import com.library.exception.ValidationException;
 import com.library.model.Emprunt;
 import com.library.model.Membre;
 import com.library.service.BibliothequeService;
+import com.library.util.DateUtils;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -16,12 +21,15 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.DatePicker;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
-import javafx.scene.control.cell.PropertyValueFactory;
 
 public class MembreController {
+
+    // Ordre des requêtes (ORDER BY nom, prenom), insensible à la casse et aux accents comme la collation MySQL
+    private static final Comparator<Membre> ORDRE_AFFICHAGE = ordreAffichage();
     
     @FXML private TableView<Membre> membresTable;
     @FXML private TableColumn<Membre, Integer> idCol;
@@ -46,52 +54,72 @@ public class MembreController {
     @FXML private TableColumn<Emprunt, String> statutEmpruntCol;
     
     @FXML private TextField searchField;
+    @FXML private ProgressIndicator chargementIndicateur;
     
     private BibliothequeService bibliothequeService;
-    private ObservableList<Membre> membresList = FXCollections.observableArrayList();
+    private final ListeEnBloc<Membre> membresList = new ListeEnBloc<>();
+    // Membres que la liste affichée retient, null pour un résultat de recherche
+    private Predicate<Membre> filtreAffiche = membre -> true;
     private ObservableList<Emprunt> historiqueList = FXCollections.observableArrayList();
+    private final ChargeurAsynchrone chargementMembres = new ChargeurAsynchrone("membres");
+    private final ChargeurAsynchrone chargementHistorique = new ChargeurAsynchrone("historique membre");
+    private final ChargeurAsynchrone ecritures = new ChargeurAsynchrone("écriture membre");
+    
+    /**
+     * Constructeur par défaut : le service est créé à l'initialisation.
+     */
+    public MembreController() {
+    }
+    
+    /**
+     * Constructeur avec injection de dépendance.
+     */
+    public MembreController(BibliothequeService bibliothequeService) {
+        this.bibliothequeService = bibliothequeService;
+    }
     
     @FXML
     private void initialize() {
-        // Initialiser le service
-        try {
-            bibliothequeService = new BibliothequeService();
-        } catch (SQLException e) {
-            showAlert("Erreur", "Impossible d'initialiser le service: " + e.getMessage(), 
-                     Alert.AlertType.ERROR);
-            return;
+        // Initialiser le service s'il n'a pas été fourni
+        if (bibliothequeService == null) {
+            try {
+                bibliothequeService = new BibliothequeService();
+            } catch (SQLException e) {
+                showAlert("Erreur", "Impossible d'initialiser le service: " + e.getMessage(), 
+                         Alert.AlertType.ERROR);
+                return;
+            }
         }
         
         // Configuration de la table des membres
-        idCol.setCellValueFactory(new PropertyValueFactory<>("id"));
-        nomCol.setCellValueFactory(new PropertyValueFactory<>("nom"));
-        prenomCol.setCellValueFactory(new PropertyValueFactory<>("prenom"));
-        emailCol.setCellValueFactory(new PropertyValueFactory<>("email"));
-        statutCol.setCellValueFactory(cellData -> {
-            Membre membre = cellData.getValue();
-            return new javafx.beans.property.SimpleStringProperty(
-                membre.isActif() ? "Actif" : "Inactif"
-            );
-        });
+        idCol.setCellValueFactory(CellulesTypees.valeur(Membre::getId));
+        nomCol.setCellValueFactory(CellulesTypees.valeur(Membre::getNom));
+        prenomCol.setCellValueFactory(CellulesTypees.valeur(Membre::getPrenom));
+        emailCol.setCellValueFactory(CellulesTypees.valeur(Membre::getEmail));
+        statutCol.setCellValueFactory(CellulesTypees.valeur(membre -> membre.isActif() ? "Actif" : "Inactif"));
         
         // Lier la liste à la table
         membresTable.setItems(membresList);
+        historiqueTable.setItems(historiqueList);
+
+        // Appels à la base hors du fil JavaFX
+        chargementMembres.indiquerChargement(membresTable);
+        chargementHistorique.indiquerChargement(historiqueTable);
+        ChargeurAsynchrone.lierIndicateur(chargementIndicateur, chargementMembres.enCoursProperty(),
+                chargementHistorique.enCoursProperty(), ecritures.enCoursProperty());
         
         // Configuration de la table d'historique
-        livreCol.setCellValueFactory(new PropertyValueFactory<>("livreTitre"));
-        dateEmpruntCol.setCellValueFactory(new PropertyValueFactory<>("dateEmprunt"));
-        dateRetourCol.setCellValueFactory(new PropertyValueFactory<>("dateRetourPrevue"));
-        statutEmpruntCol.setCellValueFactory(new PropertyValueFactory<>("statut"));
+        // Emprunt ne porte que l'identifiant du livre, et pas de statut : calculé depuis le retour
+        livreCol.setCellValueFactory(CellulesTypees.valeur(Emprunt::getIdLivre));
+        dateEmpruntCol.setCellValueFactory(CellulesTypees.valeur(emprunt -> DateUtils.versDate(emprunt.getJourEmprunt())));
+        dateRetourCol.setCellValueFactory(CellulesTypees.valeur(emprunt -> DateUtils.versDate(emprunt.getJourRetourPrevue())));
+        statutEmpruntCol.setCellValueFactory(CellulesTypees.valeur(emprunt -> emprunt.isRetourne() ? "Rendu" : "En cours"));
         
         // Listener pour la sélection dans la table
         membresTable.getSelectionModel().selectedItemProperty().addListener(
             (obs, oldSelection, newSelection) -> {
                 if (newSelection != null) {
-                    try {
-                        showMembreDetails(newSelection);
-                    } catch (ValidationException | SQLException e) {
-                        showAlert("Erreur", e.getMessage(), Alert.AlertType.ERROR);
-                    }
+                    showMembreDetails(newSelection);
                 }
             }
         );
@@ -100,20 +128,52 @@ public class MembreController {
         dateAdhesionPicker.setValue(LocalDate.now());
         
         // Charger les membres
-        try {
-            loadMembres();
-        } catch (SQLException e) {
-            showAlert("Erreur", "Impossible de charger les membres: " + e.getMessage(), 
-                     Alert.AlertType.ERROR);
+        loadMembres();
+    }
+    
+    private void loadMembres() {
+        filtreAffiche = membre -> true;
+        chargementMembres.charger(bibliothequeService::getAllMembres, this::afficherMembres,
+                e -> showAlert("Erreur", "Impossible de charger les membres: " + e.getMessage(),
+                        Alert.AlertType.ERROR));
+    }
+    
+    /**
+     * Aligne la table sur la liste lue : seules les lignes changées sont notifiées, en un seul changement
+     */
+    private void afficherMembres(List<Membre> membres) {
+        membresList.modifierEnBloc(
+                () -> DiffListe.appliquer(membresList, membres, Membre::getId, MembreController::memeAffichage));
+    }
+
+    /**
+     * Reporte dans la table un membre ajouté ou modifié, sans relire la liste : placé à son rang
+     * s'il est retenu par la liste affichée, retiré sinon ; remplacé sur place dans un résultat de recherche
+     */
+    private void afficherMembre(Membre membre) {
+        if (filtreAffiche == null) {
+            DiffListe.remplacer(membresList, membre, Membre::getId);
+        } else if (filtreAffiche.test(membre)) {
+            DiffListe.placer(membresList, membre, Membre::getId, ORDRE_AFFICHAGE);
+        } else {
+            DiffListe.retirer(membresList, membre.getId(), Membre::getId);
         }
     }
+
+    private static Comparator<Membre> ordreAffichage() {
+        Collator collator = Collator.getInstance(Locale.FRENCH);
+        collator.setStrength(Collator.PRIMARY);
+        return Comparator.comparing(Membre::getNom, collator).thenComparing(Membre::getPrenom, collator);
+    }
     
-    private void loadMembres() throws SQLException {
-        List<Membre> membres = bibliothequeService.getAllMembres();
-        membresList.setAll(membres);
+    private static boolean memeAffichage(Membre a, Membre b) {
+        return Objects.equals(a.getNom(), b.getNom())
+                && Objects.equals(a.getPrenom(), b.getPrenom())
+                && Objects.equals(a.getEmail(), b.getEmail())
+                && a.isActif() == b.isActif();
     }
     
-    private void showMembreDetails(Membre membre) throws ValidationException, SQLException {
+    private void showMembreDetails(Membre membre) {
         if (membre != null) {
             idField.setText(String.valueOf(membre.getId()));
             nomField.setText(membre.getNom());
@@ -126,29 +186,25 @@ public class MembreController {
         }
     }
     
-    private void loadHistorique(int membreId) throws SQLException, ValidationException {
-        List<Emprunt> emprunts = bibliothequeService.getHistoriqueEmprunts(membreId);
-        historiqueList.setAll(emprunts);
-        historiqueTable.setItems(historiqueList);
+    private void loadHistorique(int membreId) {
+        chargementHistorique.charger(() -> bibliothequeService.getHistoriqueEmprunts(membreId), historiqueList::setAll,
+                e -> showAlert("Erreur", e.getMessage(), Alert.AlertType.ERROR));
     }
     
     @FXML
     private void handleAjouterMembre() {
         if (validateFields()) {
-            try {
-                Membre membre = new Membre();
-                membre.setNom(nomField.getText());
-                membre.setPrenom(prenomField.getText());
-                membre.setEmail(emailField.getText());
-                membre.setActif(actifCheckBox.isSelected());
-                
-                bibliothequeService.ajouterMembre(membre);
-                loadMembres();
+            Membre membre = new Membre();
+            membre.setNom(nomField.getText());
+            membre.setPrenom(prenomField.getText());
+            membre.setEmail(emailField.getText());
+            membre.setActif(actifCheckBox.isSelected());
+            
+            ecritures.executer(() -> bibliothequeService.ajouterMembre(membre), ajoute -> {
+                afficherMembre(ajoute);
                 clearFields();
                 showAlert("Succès", "Membre ajouté avec succès.", Alert.AlertType.INFORMATION);
-            } catch (Exception e) {
-                showAlert("Erreur", e.getMessage(), Alert.AlertType.ERROR);
-            }
+            }, e -> showAlert("Erreur", e.getMessage(), Alert.AlertType.ERROR));
         }
     }
     
@@ -161,21 +217,18 @@ public class MembreController {
         }
         
         if (validateFields()) {
-            try {
-                // Créer un objet avec les nouvelles données
-                Membre membreModifie = new Membre();
-                membreModifie.setNom(nomField.getText());
-                membreModifie.setPrenom(prenomField.getText());
-                membreModifie.setEmail(emailField.getText());
-                membreModifie.setActif(actifCheckBox.isSelected());
-                
-                // Appeler le service avec l'ID du membre sélectionné
-                bibliothequeService.modifierMembre(selectedMembre.getId(), membreModifie);
-                loadMembres();
+            // Créer un objet avec les nouvelles données
+            Membre membreModifie = new Membre();
+            membreModifie.setNom(nomField.getText());
+            membreModifie.setPrenom(prenomField.getText());
+            membreModifie.setEmail(emailField.getText());
+            membreModifie.setActif(actifCheckBox.isSelected());
+            
+            // Appeler le service avec l'ID du membre sélectionné
+            ecritures.executer(() -> bibliothequeService.modifierMembre(selectedMembre.getId(), membreModifie), modifie -> {
+                afficherMembre(modifie);
                 showAlert("Succès", "Membre modifié avec succès.", Alert.AlertType.INFORMATION);
-            } catch (Exception e) {
-                showAlert("Erreur", e.getMessage(), Alert.AlertType.ERROR);
-            }
+            }, e -> showAlert("Erreur", e.getMessage(), Alert.AlertType.ERROR));
         }
     }
     
@@ -193,14 +246,14 @@ public class MembreController {
         confirmation.setContentText("Êtes-vous sûr de vouloir supprimer " + selectedMembre.getPrenom() + " " + selectedMembre.getNom() + " ?");
         
         if (confirmation.showAndWait().get() == ButtonType.OK) {
-            try {
+            ecritures.executer(() -> {
                 bibliothequeService.supprimerMembre(selectedMembre.getId());
-                loadMembres();
+                return null;
+            }, resultat -> {
+                DiffListe.retirer(membresList, selectedMembre.getId(), Membre::getId);
                 clearFields();
                 showAlert("Succès", "Membre supprimé avec succès.", Alert.AlertType.INFORMATION);
-            } catch (Exception e) {
-                showAlert("Erreur", e.getMessage(), Alert.AlertType.ERROR);
-            }
+            }, e -> showAlert("Erreur", e.getMessage(), Alert.AlertType.ERROR));
         }
     }
     
@@ -219,28 +272,22 @@ public class MembreController {
         confirmation.setContentText("Êtes-vous sûr de vouloir " + action + " " + selectedMembre.getPrenom() + " " + selectedMembre.getNom() + " ?");
         
         if (confirmation.showAndWait().get() == ButtonType.OK) {
-            try {
-                bibliothequeService.activerDesactiverMembre(selectedMembre.getId());
-                loadMembres();
+            ecritures.executer(() -> bibliothequeService.activerDesactiverMembre(selectedMembre.getId()), modifie -> {
+                afficherMembre(modifie);
                 showAlert("Succès", "Membre " + action + " avec succès.", Alert.AlertType.INFORMATION);
-            } catch (Exception e) {
-                showAlert("Erreur", e.getMessage(), Alert.AlertType.ERROR);
-            }
+            }, e -> showAlert("Erreur", e.getMessage(), Alert.AlertType.ERROR));
         }
     }
     
     @FXML
     private void handleRechercher() {
-        try {
-            String searchText = searchField.getText().trim();
-            if (searchText.isEmpty()) {
-                loadMembres();
-            } else {
-                List<Membre> membres = bibliothequeService.rechercherMembresParNom(searchText);
-                membresList.setAll(membres);
-            }
-        } catch (SQLException | ValidationException e) {
-            showAlert("Erreur", e.getMessage(), Alert.AlertType.ERROR);
+        String searchText = searchField.getText().trim();
+        if (searchText.isEmpty()) {
+            loadMembres();
+        } else {
+            filtreAffiche = null;
+            chargementMembres.charger(() -> bibliothequeService.rechercherMembresParNom(searchText), this::afficherMembres,
+                    e -> showAlert("Erreur", e.getMessage(), Alert.AlertType.ERROR));
         }
     }
     
@@ -248,17 +295,15 @@ public class MembreController {
     private void handleNouveau() {
         clearFields();
         membresTable.getSelectionModel().clearSelection();
+        chargementHistorique.annuler();
         historiqueList.clear();
     }
     
     @FXML
     private void handleAfficherActifs() {
-        try {
-            List<Membre> membresActifs = bibliothequeService.getMembresActifs();
-            membresList.setAll(membresActifs);
-        } catch (SQLException e) {
-            showAlert("Erreur", e.getMessage(), Alert.AlertType.ERROR);
-        }
+        filtreAffiche = Membre::isActif;
+        chargementMembres.charger(bibliothequeService::getMembresActifs, this::afficherMembres,
+                e -> showAlert("Erreur", e.getMessage(), Alert.AlertType.ERROR));
     }
     
     private boolean validateFields() {
@@ -0,0 +1,152 @@
+package com.library.controller;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javafx.application.Platform;
+
+/**
+ * Mesure les blocages du fil JavaFX (singleton) : toutes les 100 ms, un battement est posté
+ * par Platform.runLater ; le délai avant son exécution est le temps pendant lequel le fil
+ * n'a pas pu traiter d'événements. Les délais au-delà du seuil sont comptés comme blocages.
+ * Les bilans reprennent aussi les durées des chargements menés hors du fil (ChargeurAsynchrone).
+ */
+public final class SurveillanceFilFX {
+
+    private static final long PERIODE_MILLIS = 100;
+    private static final long SEUIL_BLOCAGE_MILLIS = 50;
+    private static final long SEUIL_ALERTE_MILLIS = 250;
+    private static final long PERIODE_BILAN_SECONDES = 60;
+
+    private static volatile SurveillanceFilFX instance;
+
+    private final AtomicBoolean battementEnAttente = new AtomicBoolean();
+    private ScheduledExecutorService planificateur;
+
+    private long nombreBlocages;
+    private long cumulBlocagesMillis;
+    private long blocageMaxMillis;
+    // Blocages depuis le dernier bilan périodique
+    private long blocagesPeriode;
+    private long cumulPeriodeMillis;
+    // Chargements hors du fil depuis le démarrage et depuis le dernier bilan
+    private long nombreChargements;
+    private long cumulChargementsMillis;
+    private long chargementMaxMillis;
+    private long chargementsPeriode;
+    private long cumulChargementsPeriodeMillis;
+
+    private SurveillanceFilFX() {
+    }
+
+    public static SurveillanceFilFX getInstance() {
+        if (instance == null) {
+            synchronized (SurveillanceFilFX.class) {
+                if (instance == null) {
+                    instance = new SurveillanceFilFX();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Démarre la surveillance (sans effet si elle tourne déjà)
+     */
+    public synchronized void demarrer() {
+        if (planificateur != null) {
+            return;
+        }
+        planificateur = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "surveillance-fil-fx");
+            thread.setDaemon(true);
+            return thread;
+        });
+        planificateur.scheduleAtFixedRate(this::battre, PERIODE_MILLIS, PERIODE_MILLIS, TimeUnit.MILLISECONDS);
+        planificateur.scheduleAtFixedRate(this::afficherBilanPeriode, PERIODE_BILAN_SECONDES,
+                PERIODE_BILAN_SECONDES, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Arrête la surveillance et affiche le bilan depuis le démarrage
+     */
+    public synchronized void arreter() {
+        if (planificateur == null) {
+            return;
+        }
+        planificateur.shutdownNow();
+        planificateur = null;
+        System.out.println("Fil JavaFX: " + nombreBlocages + " blocage(s) > " + SEUIL_BLOCAGE_MILLIS
+                + " ms, cumul " + cumulBlocagesMillis + " ms, max " + blocageMaxMillis + " ms");
+        if (nombreChargements > 0) {
+            System.out.println("Chargements hors du fil JavaFX: " + nombreChargements + ", moyenne "
+                    + cumulChargementsMillis / nombreChargements + " ms, max " + chargementMaxMillis + " ms");
+        }
+    }
+
+    /**
+     * Compte la durée d'un chargement terminé hors du fil JavaFX
+     */
+    public synchronized void enregistrerChargement(long dureeMillis) {
+        nombreChargements++;
+        cumulChargementsMillis += dureeMillis;
+        chargementMaxMillis = Math.max(chargementMaxMillis, dureeMillis);
+        chargementsPeriode++;
+        cumulChargementsPeriodeMillis += dureeMillis;
+    }
+
+    private void battre() {
+        // Un seul battement à la fois : un fil bloqué ne doit pas accumuler de runLater
+        if (!battementEnAttente.compareAndSet(false, true)) {
+            return;
+        }
+        long poste = System.nanoTime();
+        Platform.runLater(() -> {
+            battementEnAttente.set(false);
+            enregistrer((System.nanoTime() - poste) / 1_000_000);
+        });
+    }
+
+    private synchronized void enregistrer(long delaiMillis) {
+        if (delaiMillis < SEUIL_BLOCAGE_MILLIS) {
+            return;
+        }
+        nombreBlocages++;
+        cumulBlocagesMillis += delaiMillis;
+        blocageMaxMillis = Math.max(blocageMaxMillis, delaiMillis);
+        blocagesPeriode++;
+        cumulPeriodeMillis += delaiMillis;
+        if (delaiMillis >= SEUIL_ALERTE_MILLIS) {
+            System.err.println("Fil JavaFX bloqué pendant " + delaiMillis + " ms");
+        }
+    }
+
+    private synchronized void afficherBilanPeriode() {
+        if (blocagesPeriode > 0) {
+            System.out.println("Fil JavaFX: " + blocagesPeriode + " blocage(s) > " + SEUIL_BLOCAGE_MILLIS
+                    + " ms en " + PERIODE_BILAN_SECONDES + " s, cumul " + cumulPeriodeMillis + " ms");
+        }
+        if (chargementsPeriode > 0) {
+            System.out.println("Chargements hors du fil JavaFX: " + chargementsPeriode + " en "
+                    + PERIODE_BILAN_SECONDES + " s, moyenne " + cumulChargementsPeriodeMillis / chargementsPeriode + " ms");
+        }
+        blocagesPeriode = 0;
+        cumulPeriodeMillis = 0;
+        chargementsPeriode = 0;
+        cumulChargementsPeriodeMillis = 0;
+    }
+
+    public synchronized long getNombreBlocages() {
+        return nombreBlocages;
+    }
+
+    public synchronized long getCumulBlocagesMillis() {
+        return cumulBlocagesMillis;
+    }
+
+    public synchronized long getBlocageMaxMillis() {
+        return blocageMaxMillis;
+    }
+}
@@ -2,8 +2,11 @@ package com.library.dao;
 
 import java.sql.SQLException;
 import java.util.List;
+import java.util.stream.Stream;
 
 import com.library.model.Emprunt;
+import com.library.model.PointReprise;
+import com.library.model.ResultatEmprunt;
 
 /**
  * Interface DAO pour la gestion des emprunts
@@ -20,11 +23,51 @@ public interface EmpruntDAO {
      */
     Emprunt findById(int id) throws SQLException;
 
+    /**
+     * Recherche plusieurs emprunts par leurs IDs en une seule requête
+     */
+    List<Emprunt> findByIds(List<Integer> ids) throws SQLException;
+
     /**
      * Récupère tous les emprunts
      */
     List<Emprunt> findAll() throws SQLException;
 
+    /**
+     * Parcourt tous les emprunts en flux (ordre d'ID), à mémoire constante.
+     * Le Stream retourné doit être fermé (try-with-resources) pour libérer la connexion.
+     * @param fetchSize lignes lues par aller-retour, 0 pour le streaming ligne à ligne
+     */
+    Stream<Emprunt> streamAll(int fetchSize) throws SQLException;
+
+    /**
+     * Page de tous les emprunts, du plus récent au plus ancien (jeton null pour la première page).
+     */
+    Page<Emprunt> findAllPage(String jeton, int taille) throws SQLException;
+
+    /**
+     * Page de tous les emprunts triés par la propriété donnée (id, idLivre, idMembre, dateEmprunt, dateRetourPrevue).
+     * La page commence debut lignes après le jeton (après le début de la liste sans jeton),
+     * pour un accès direct au milieu de la liste depuis le jeton ou le repère le plus proche.
+     */
+    Page<Emprunt> findAllPage(String tri, boolean decroissant, String jeton, int debut, int taille) throws SQLException;
+
+    /**
+     * Repère d'accès direct pour le même tri : jeton menant à la ligne située decalage lignes après
+     * le jeton (après le début de la liste sans jeton), lu sur les seules colonnes de tri ; null au-delà de la fin
+     */
+    String findRepere(String tri, boolean decroissant, String jeton, int decalage) throws SQLException;
+
+    /**
+     * Nombre total d'emprunts
+     */
+    int countAll() throws SQLException;
+
+    /**
+     * Nombre approximatif de emprunts, sans parcours de la table (taille des listes paginées)
+     */
+    int estimerNombre() throws SQLException;
+
     /**
      * Récupère les emprunts d'un membre
      */
@@ -40,6 +83,22 @@ public interface EmpruntDAO {
      */
     List<Emprunt> findEmpruntsEnCours() throws SQLException;
 
+    /**
+     * Page des emprunts non retournés, du plus récent au plus ancien.
+     */
+    Page<Emprunt> findEmpruntsEnCoursPage(String jeton, int taille) throws SQLException;
+
+    /**
+     * Emprunts non retournés dont la date de retour prévue est antérieure à la date donnée,
+     * de l'échéance la plus ancienne à la plus récente
+     */
+    List<Emprunt> findEmpruntsEnRetard(java.sql.Date date) throws SQLException;
+
+    /**
+     * Emprunts non retournés dont l'échéance tombe entre debut et debut + jours (inclus), par échéance
+     */
+    List<Emprunt> findEmpruntsAEcheance(java.sql.Date debut, int jours) throws SQLException;
+
     /**
      * Met à jour un emprunt
      */
@@ -95,8 +154,64 @@ public interface EmpruntDAO {
      */
     void emprunterLivreTransactional(String isbn, int membreId, java.sql.Date dateEmprunt, java.sql.Date dateRetourPrevue) throws SQLException;
 
+    /**
+     * Effectue un emprunt atomique dans une seule transaction : verrouille le membre,
+     * vérifie qu'il est actif et sous la limite, réserve le livre par un UPDATE conditionnel
+     * (disponible = TRUE) puis insère l'emprunt. Retourne la règle qui a échoué le cas échéant.
+     */
+    ResultatEmprunt emprunterLivreAtomique(String isbn, int membreId, java.sql.Date dateEmprunt,
+            java.sql.Date dateRetourPrevue, int limiteEmprunts) throws SQLException;
+
+    /**
+     * Emprunte plusieurs livres pour un même membre dans une seule transaction.
+     * Membre et limite vérifiés une fois pour le lot, mises à jour et insertions en batch JDBC.
+     * Retourne un résultat par ISBN, dans l'ordre de la liste.
+     */
+    List<ResultatEmprunt> emprunterLivresEnLot(List<String> isbns, int membreId, java.sql.Date dateEmprunt,
+            java.sql.Date dateRetourPrevue, int limiteEmprunts) throws SQLException;
+
     /**
      * Effectue le retour transactionnel (met à jour emprunt et marque livre disponible)
      */
     void retournerEmpruntTransactional(int empruntId, java.sql.Date dateRetourEffective, java.math.BigDecimal penalite) throws SQLException;
+
+    /**
+     * Enregistre le retour d'un lot d'emprunts dans une seule transaction (batchs JDBC).
+     * Chaque emprunt porte sa date de retour effective et sa pénalité.
+     * Les emprunts déjà retournés entre-temps sont ignorés.
+     * @return les emprunts effectivement retournés
+     */
+    List<Emprunt> retournerEmpruntsEnLot(List<Emprunt> emprunts) throws SQLException;
+
+    /**
+     * Tranche d'emprunts en cours en retard à la date donnée, dans l'ordre (date de retour prévue, ID)
+     * de l'index idx_retour_effective_prevue, après la clé (apresEcheance, apresId) ; apresEcheance
+     * null pour la première tranche
+     */
+    List<Emprunt> findEmpruntsEnRetardApres(java.sql.Date date, java.sql.Date apresEcheance, int apresId, int taille)
+            throws SQLException;
+
+    /**
+     * Écrit la pénalité courue de chaque emprunt encore en cours (batch JDBC, une transaction).
+     * Les emprunts retournés entre-temps ne sont pas modifiés.
+     * @return nombre d'emprunts mis à jour
+     */
+    int appliquerPenalitesCourues(List<Emprunt> emprunts) throws SQLException;
+
+    /**
+     * Remet à zéro la pénalité courue des emprunts en cours qui ne sont plus en retard à la date donnée
+     * (date de retour prévue repoussée par exemple).
+     * @return nombre d'emprunts mis à jour
+     */
+    int effacerPenalitesCourues(java.sql.Date date) throws SQLException;
+
+    /**
+     * Dernier point de reprise enregistré pour le traitement, null s'il n'a jamais tourné
+     */
+    PointReprise lirePointReprise(String traitement) throws SQLException;
+
+    /**
+     * Enregistre (ou remplace) le point de reprise du traitement
+     */
+    void enregistrerPointReprise(PointReprise pointReprise) throws SQLException;
 }
@@ -3,6 +3,7 @@ package com.library.dao;
 import com.library.model.Livre;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Interface DAO spécifique pour les livres.
@@ -20,6 +21,16 @@ public interface LivreDAO extends DAO<Livre> {
      */
     List<Livre> findByAuteur(String auteur) throws SQLException;
 
+    /**
+     * Recherche par titre tolérant les fautes de frappe, classée par pertinence.
+     */
+    List<Livre> findByTitreApproximatif(String titre) throws SQLException;
+
+    /**
+     * Recherche par auteur tolérant les fautes de frappe (« Flobert », « Tolkein »).
+     */
+    List<Livre> findByAuteurApproximatif(String auteur) throws SQLException;
+
     /**
      * Recherche des livres disponibles.
      */
@@ -34,4 +45,54 @@ public interface LivreDAO extends DAO<Livre> {
      * Recherche un livre par ISBN.
      */
     Livre findByIsbn(String isbn) throws SQLException;
+
+    /**
+     * Parcourt tous les livres en flux (ordre de clé primaire), à mémoire constante.
+     * Le Stream retourné doit être fermé (try-with-resources) pour libérer la connexion.
+     * @param fetchSize lignes lues par aller-retour, 0 pour le streaming ligne à ligne
+     */
+    Stream<Livre> streamAll(int fetchSize) throws SQLException;
+
+    /**
+     * Page de tous les livres, triés par titre (jeton null pour la première page).
+     */
+    Page<Livre> findAllPage(String jeton, int taille) throws SQLException;
+
+    /**
+     * Page de tous les livres triés par la propriété donnée (isbn, titre, auteur, anneePublication).
+     * La page commence debut lignes après le jeton (après le début de la liste sans jeton),
+     * pour un accès direct au milieu de la liste depuis le jeton ou le repère le plus proche.
+     */
+    Page<Livre> findAllPage(String tri, boolean decroissant, String jeton, int debut, int taille) throws SQLException;
+
+    /**
+     * Repère d'accès direct pour le même tri : jeton menant à la ligne située decalage lignes après
+     * le jeton (après le début de la liste sans jeton), lu sur les seules colonnes de tri ; null au-delà de la fin
+     */
+    String findRepere(String tri, boolean decroissant, String jeton, int decalage) throws SQLException;
+
+    /**
+     * Nombre total de livres.
+     */
+    int countAll() throws SQLException;
+
+    /**
+     * Nombre approximatif de livres, sans parcours de la table (taille des listes paginées)
+     */
+    int estimerNombre() throws SQLException;
+
+    /**
+     * Page de la recherche par titre, triée par titre.
+     */
+    Page<Livre> findByTitrePage(String titre, String jeton, int taille) throws SQLException;
+
+    /**
+     * Page de la recherche par auteur, triée par auteur puis titre.
+     */
+    Page<Livre> findByAuteurPage(String auteur, String jeton, int taille) throws SQLException;
+
+    /**
+     * Page des livres disponibles, triés par titre.
+     */
+    Page<Livre> findDisponiblesPage(String jeton, int taille) throws SQLException;
 }
@@ -3,6 +3,7 @@ package com.library.dao;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import com.library.model.Emprunt;
 import com.library.model.Membre;
@@ -25,4 +26,15 @@ public interface MembreDAO {
    List<Membre> rechercherMembres(String keyword);
    List<Emprunt> findEmpruntsEnCoursByMembre(int membreId);
    List<Emprunt> getHistoriqueEmprunts(int membreId);
+
+   /**
+    * Parcourt tous les membres en flux (ordre d'ID), à mémoire constante.
+    * Le Stream retourné doit être fermé pour libérer la connexion.
+    */
+   Stream<Membre> streamAll(int fetchSize);
+
+   /**
+    * Page de tous les membres, triés par nom et prénom (jeton null pour la première page).
+    */
+   Page<Membre> findAllPage(String jeton, int taille);
 }
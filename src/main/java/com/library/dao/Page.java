@@ -0,0 +1,41 @@
+package com.library.dao;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Page de résultats d'une pagination par clé (keyset).
+ * Le jeton de continuation désigne la dernière ligne de la page ;
+ * il est à repasser tel quel pour obtenir la page suivante.
+ * @param <T> le type d'entité paginé
+ */
+public class Page<T> {
+
+    private final List<T> elements;
+    private final String jetonSuivant;
+
+    public Page(List<T> elements, String jetonSuivant) {
+        this.elements = Collections.unmodifiableList(elements);
+        this.jetonSuivant = jetonSuivant;
+    }
+
+    public List<T> getElements() {
+        return elements;
+    }
+
+    /**
+     * Jeton de la page suivante, null s'il s'agit de la dernière page
+     */
+    public String getJetonSuivant() {
+        return jetonSuivant;
+    }
+
+    public boolean hasSuivante() {
+        return jetonSuivant != null;
+    }
+
+    @Override
+    public String toString() {
+        return "Page{elements=" + elements.size() + ", suivante=" + hasSuivante() + '}';
+    }
+}
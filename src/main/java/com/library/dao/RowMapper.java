@@ -0,0 +1,14 @@
+package com.library.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Convertit la ligne courante d'un ResultSet en objet métier.
+ * @param <T> le type d'entité produit
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    T map(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,149 @@
+package com.library.dao.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.library.model.Livre;
+import com.library.util.CacheSLRU;
+
+/**
+ * Cache des livres lus par ID ou par ISBN (singleton).
+ * Les livres sont stockés et rendus sous forme de copies : un appelant qui modifie
+ * son objet ne modifie pas le cache. Toute écriture sur un livre l'invalide après commit ;
+ * un compteur de génération empêche qu'une lecture commencée avant l'invalidation
+ * ne remette en cache une valeur périmée.
+ */
+public final class CacheLivres {
+
+    private static final int CAPACITE = 10_000;
+    private static final double PART_PROTEGEE = 0.8;
+
+    private static volatile CacheLivres instance;
+
+    private final Map<String, String> idParIsbn = new HashMap<>();
+    private final CacheSLRU<String, Livre> parId =
+            new CacheSLRU<>(CAPACITE, PART_PROTEGEE, (id, livre) -> idParIsbn.remove(livre.getIsbn(), id));
+    private long generation;
+
+    private CacheLivres() {
+    }
+
+    public static CacheLivres getInstance() {
+        if (instance == null) {
+            synchronized (CacheLivres.class) {
+                if (instance == null) {
+                    instance = new CacheLivres();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Copie du livre en cache, ou null
+     */
+    public Livre parId(String id) {
+        Livre livre;
+        synchronized (parId) {
+            livre = parId.get(id);
+        }
+        return livre == null ? null : copier(livre);
+    }
+
+    /**
+     * Copie du livre en cache pour cet ISBN, ou null
+     */
+    public Livre parIsbn(String isbn) {
+        synchronized (parId) {
+            String id = idParIsbn.get(isbn);
+            if (id == null) {
+                parId.signalerEchec();
+                return null;
+            }
+            Livre livre = parId.get(id);
+            return livre == null ? null : copier(livre);
+        }
+    }
+
+    /**
+     * À appeler avant de lire la base : la valeur lue ne sera mise en cache
+     * que si aucune invalidation n'a eu lieu entre-temps
+     */
+    public long debutChargement() {
+        synchronized (parId) {
+            return generation;
+        }
+    }
+
+    /**
+     * Met en cache une copie du livre lu en base
+     */
+    public void mettre(Livre livre, long generationLue) {
+        if (livre == null) {
+            return;
+        }
+        Livre copie = copier(livre);
+        synchronized (parId) {
+            if (generationLue != generation) {
+                return;
+            }
+            parId.put(copie.getId(), copie);
+            idParIsbn.put(copie.getIsbn(), copie.getId());
+        }
+    }
+
+    public void invalider(String id) {
+        synchronized (parId) {
+            generation++;
+            parId.invalider(id);
+        }
+    }
+
+    public void invaliderIsbn(String isbn) {
+        synchronized (parId) {
+            generation++;
+            String id = idParIsbn.get(isbn);
+            if (id != null) {
+                parId.invalider(id);
+            }
+        }
+    }
+
+    public void vider() {
+        synchronized (parId) {
+            generation++;
+            parId.vider();
+            idParIsbn.clear();
+        }
+    }
+
+    public int getTaille() {
+        return parId.getTaille();
+    }
+
+    public long getHits() {
+        return parId.getHits();
+    }
+
+    public long getMisses() {
+        return parId.getMisses();
+    }
+
+    public long getEvictions() {
+        return parId.getEvictions();
+    }
+
+    public double getTauxSucces() {
+        return parId.getTauxSucces();
+    }
+
+    @Override
+    public String toString() {
+        return "CacheLivres{" + parId + '}';
+    }
+
+    private static Livre copier(Livre livre) {
+        return Livre.depuisBase(livre.getId(), livre.getIsbn(), livre.getTitre(), livre.getAuteur(),
+                livre.getAnneePublication(), livre.isDisponible(), livre.getCreatedAt(), livre.getUpdatedAt());
+    }
+}
@@ -0,0 +1,187 @@
+package com.library.dao.impl;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.library.util.CompteursEntiers;
+import com.library.util.DatabaseConnection;
+
+/**
+ * Nombre d'emprunts en cours par membre, tenu en mémoire (singleton).
+ * Amorcé par une requête agrégée puis mis à jour après chaque commit d'emprunt ou de retour.
+ * Une réconciliation périodique compare la table à la base et corrige les dérives.
+ *
+ * Un membre modifié pendant une réconciliation ne peut pas être comparé à l'instantané :
+ * il devient « incertain » et sa lecture repasse par la base jusqu'à la passe suivante.
+ * De même, une variation marquée avant le début d'une passe et appliquée après peut déjà
+ * figurer dans l'instantané : elle n'est pas appliquée et le membre devient incertain.
+ */
+public final class CompteursEmprunts {
+
+    private static final long PERIODE_RECONCILIATION_MINUTES = 15;
+
+    private static volatile CompteursEmprunts instance;
+
+    private final CompteursEntiers compteurs = new CompteursEntiers(1024);
+    private final Set<Integer> incertains = new HashSet<>();
+    private volatile boolean pret;
+
+    // Membres modifiés depuis le début de la réconciliation en cours
+    private Set<Integer> touches;
+    private long derives;
+    // Réconciliations commencées, pour dater les marquages
+    private long passes;
+    private ScheduledExecutorService planificateur;
+
+    private CompteursEmprunts() {
+    }
+
+    public static CompteursEmprunts getInstance() {
+        if (instance == null) {
+            synchronized (CompteursEmprunts.class) {
+                if (instance == null) {
+                    instance = new CompteursEmprunts();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Amorce les compteurs en arrière-plan puis les réconcilie périodiquement
+     */
+    public synchronized void demarrer() {
+        if (planificateur != null) {
+            return;
+        }
+        planificateur = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "compteurs-emprunts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        planificateur.scheduleWithFixedDelay(this::reconcilier, 0, PERIODE_RECONCILIATION_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Emprunts en cours du membre, ou -1 si la valeur en mémoire n'est pas sûre (lire la base)
+     */
+    public synchronized int lire(int membreId) {
+        if (!pret || incertains.contains(membreId)) {
+            return -1;
+        }
+        return compteurs.get(membreId);
+    }
+
+    /**
+     * À appeler avant le commit d'une transaction qui modifie les emprunts en cours du membre
+     * @return la passe courante, à rendre à ajuster après le commit
+     */
+    public synchronized long marquer(int membreId) {
+        if (touches != null) {
+            touches.add(membreId);
+        }
+        return passes;
+    }
+
+    /**
+     * Applique la variation une fois la transaction validée
+     * @param passe valeur rendue par marquer avant le commit
+     */
+    public synchronized void ajuster(int membreId, int delta, long passe) {
+        marquer(membreId);
+        if (passe != passes) {
+            // Réconciliation commencée entre le marquage et maintenant : son instantané
+            // contient peut-être déjà la variation, la passe suivante corrigera le compteur
+            incertains.add(membreId);
+            return;
+        }
+        if (compteurs.ajouter(membreId, delta) < 0) {
+            // Retour sans emprunt connu : la valeur n'est plus fiable
+            compteurs.mettre(membreId, 0);
+            incertains.add(membreId);
+        }
+    }
+
+    /**
+     * Compare chaque compteur au COUNT(*) de la base et corrige les écarts.
+     * La première passe amorce la table.
+     */
+    public void reconcilier() {
+        synchronized (this) {
+            if (touches != null) {
+                return; // réconciliation déjà en cours
+            }
+            touches = new HashSet<>();
+            passes++;
+        }
+
+        long debut = System.currentTimeMillis();
+        CompteursEntiers base = new CompteursEntiers(Math.max(16, compteurs.getTaille()));
+        String sql = "SELECT id_membre, COUNT(*) FROM emprunts WHERE date_retour_effective IS NULL GROUP BY id_membre";
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                base.mettre(rs.getInt(1), rs.getInt(2));
+            }
+        } catch (SQLException | RuntimeException e) {
+            synchronized (this) {
+                touches = null;
+            }
+            System.err.println("Erreur lors de la réconciliation des compteurs d'emprunts: " + e.getMessage());
+            return;
+        }
+
+        int corriges = 0;
+        synchronized (this) {
+            boolean amorcage = !pret;
+            Set<Integer> membres = new HashSet<>();
+            for (int membreId : compteurs.cles()) {
+                membres.add(membreId);
+            }
+            for (int membreId : base.cles()) {
+                membres.add(membreId);
+            }
+            for (int membreId : membres) {
+                if (touches.contains(membreId)) {
+                    continue;
+                }
+                if (compteurs.get(membreId) != base.get(membreId)) {
+                    compteurs.mettre(membreId, base.get(membreId));
+                    if (!amorcage) {
+                        corriges++;
+                    }
+                }
+            }
+            incertains.removeIf(membreId -> !touches.contains(membreId));
+            incertains.addAll(touches);
+            derives += corriges;
+            touches = null;
+            pret = true;
+        }
+
+        if (corriges > 0) {
+            System.err.println("Compteurs d'emprunts: " + corriges + " dérive(s) corrigée(s)");
+        }
+        System.out.println("Compteurs d'emprunts réconciliés: " + base.getTaille() + " membres avec emprunts en cours en "
+                + (System.currentTimeMillis() - debut) + " ms");
+    }
+
+    /**
+     * Nombre total d'écarts corrigés par les réconciliations
+     */
+    public synchronized long getDerives() {
+        return derives;
+    }
+
+    public boolean isPret() {
+        return pret;
+    }
+}
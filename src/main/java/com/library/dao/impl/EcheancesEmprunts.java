@@ -0,0 +1,159 @@
+package com.library.dao.impl;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import com.library.util.DateUtils;
+import com.library.util.IndexEcheances;
+
+/**
+ * Échéances des emprunts en cours (singleton), pour les retards et les rappels.
+ * Alimenté après commit par les emprunts et les retours de EmpruntDAOImpl, construit en arrière-plan
+ * au démarrage puis reconstruit périodiquement : une écriture manquée (modification directe en base,
+ * échec après commit) est corrigée à la reconstruction suivante. Tant qu'il n'est pas prêt,
+ * les requêtes passent par la base.
+ */
+public final class EcheancesEmprunts {
+
+    private static final int FETCH_SIZE = 5000;
+    private static final long PERIODE_RECONSTRUCTION_MINUTES = 30;
+
+    private static volatile EcheancesEmprunts instance;
+
+    private volatile IndexEcheances index = new IndexEcheances();
+    private volatile boolean pret;
+
+    // Écritures survenues pendant une reconstruction (id -> jour d'échéance, null = emprunt clos)
+    private Map<Integer, Integer> journal;
+    private long derives;
+    private ScheduledExecutorService planificateur;
+
+    private EcheancesEmprunts() {
+    }
+
+    public static EcheancesEmprunts getInstance() {
+        if (instance == null) {
+            synchronized (EcheancesEmprunts.class) {
+                if (instance == null) {
+                    instance = new EcheancesEmprunts();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public boolean isPret() {
+        return pret;
+    }
+
+    /**
+     * Enregistre un emprunt ouvert (ou modifie son échéance), échéance en jours depuis l'époque
+     */
+    public synchronized void ouvrir(int empruntId, int jourRetourPrevue) {
+        index.ajouter(empruntId, jourRetourPrevue);
+        if (journal != null) {
+            journal.put(empruntId, jourRetourPrevue);
+        }
+    }
+
+    /**
+     * Retire un emprunt retourné ou supprimé
+     */
+    public synchronized void fermer(int empruntId) {
+        index.retirer(empruntId);
+        if (journal != null) {
+            journal.put(empruntId, null);
+        }
+    }
+
+    /**
+     * IDs des emprunts en cours dont l'échéance est dépassée à la date donnée, du plus ancien au plus récent
+     */
+    public List<Integer> enRetard(LocalDate date) {
+        return index.avant(date);
+    }
+
+    /**
+     * IDs des emprunts en cours arrivant à échéance entre debut et debut + jours (inclus)
+     */
+    public List<Integer> aEcheance(LocalDate debut, int jours) {
+        return index.entre(debut, debut.plusDays(jours));
+    }
+
+    /**
+     * Construit l'index en arrière-plan puis le reconstruit périodiquement
+     */
+    public synchronized void demarrer() {
+        if (planificateur != null) {
+            return;
+        }
+        planificateur = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "echeances-emprunts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        planificateur.scheduleWithFixedDelay(this::reconstruire, 0, PERIODE_RECONSTRUCTION_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Reconstruit l'index à partir des emprunts en cours puis le substitue à l'ancien.
+     * Les écritures concurrentes sont rejouées sur le nouvel index avant la bascule ;
+     * les écarts restants avec l'ancien index sont des dérives, comptées et signalées.
+     */
+    public void reconstruire() {
+        synchronized (this) {
+            if (journal != null) {
+                return; // reconstruction déjà en cours
+            }
+            journal = new LinkedHashMap<>();
+        }
+
+        long debut = System.currentTimeMillis();
+        int corriges;
+        IndexEcheances nouveau = new IndexEcheances();
+        String sql = "SELECT id, date_retour_prevue FROM emprunts WHERE date_retour_effective IS NULL";
+        try (Stream<int[]> lignes = FluxResultats.ouvrir(sql, FETCH_SIZE,
+                rs -> new int[] {rs.getInt(1), DateUtils.versJour(rs.getDate(2))})) {
+            lignes.forEach(ligne -> nouveau.ajouter(ligne[0], ligne[1]));
+
+            synchronized (this) {
+                for (Map.Entry<Integer, Integer> ecriture : journal.entrySet()) {
+                    if (ecriture.getValue() == null) {
+                        nouveau.retirer(ecriture.getKey());
+                    } else {
+                        nouveau.ajouter(ecriture.getKey(), ecriture.getValue());
+                    }
+                }
+                corriges = pret ? index.ecarts(nouveau) : 0;
+                derives += corriges;
+                index = nouveau;
+                pret = true;
+                journal = null;
+            }
+            if (corriges > 0) {
+                System.err.println("Index des échéances: " + corriges + " dérive(s) corrigée(s)");
+            }
+            System.out.println("Index des échéances construit: " + nouveau.getTaille() + " emprunts en cours en "
+                    + (System.currentTimeMillis() - debut) + " ms");
+        } catch (SQLException | RuntimeException e) {
+            synchronized (this) {
+                journal = null;
+            }
+            System.err.println("Erreur lors de la construction de l'index des échéances: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Nombre total d'écarts corrigés par les reconstructions
+     */
+    public synchronized long getDerives() {
+        return derives;
+    }
+}
@@ -7,68 +7,152 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import com.library.dao.EmpruntDAO;
+import com.library.dao.Page;
+import com.library.dao.RowMapper;
 import com.library.model.Emprunt;
+import com.library.model.PointReprise;
+import com.library.model.ResultatEmprunt;
+import com.library.util.Centimes;
 import com.library.util.DatabaseConnection;
+import com.library.util.DateUtils;
 
 /**
  * Implémentation de l'interface EmpruntDAO
  */
 public class EmpruntDAOImpl implements EmpruntDAO {
 
+    // Colonnes de tri des pages : l'ID départage les emprunts du même jour
+    private static final String[] TRI_DATE_EMPRUNT = {"date_emprunt", "id"};
+    // Tris proposés au tableau des emprunts, par propriété d'Emprunt
+    private static final Map<String, Pagination.Tri<Emprunt>> TRIS = Map.of(
+            "id", new Pagination.Tri<Emprunt>(new String[] {"id"}, emprunt -> new Object[] {emprunt.getId()}),
+            "idLivre", new Pagination.Tri<Emprunt>(new String[] {"id_livre", "id"},
+                    emprunt -> new Object[] {emprunt.getIdLivre(), emprunt.getId()}),
+            "idMembre", new Pagination.Tri<Emprunt>(new String[] {"id_membre", "id"},
+                    emprunt -> new Object[] {emprunt.getIdMembre(), emprunt.getId()}),
+            "dateEmprunt", new Pagination.Tri<Emprunt>(TRI_DATE_EMPRUNT,
+                    emprunt -> new Object[] {emprunt.getDateEmprunt(), emprunt.getId()}),
+            "dateRetourPrevue", new Pagination.Tri<Emprunt>(new String[] {"date_retour_prevue", "id"},
+                    emprunt -> new Object[] {emprunt.getDateRetourPrevue(), emprunt.getId()}));
+    private static final int TAILLE_LOT_IDS = 1000;
+
     @Override
     public void save(Emprunt emprunt) throws SQLException {
-        Connection conn = DatabaseConnection.getInstance().getConnection();
-        conn.setAutoCommit(false);
-
-        try {
-            // Insérer l'emprunt
-            String sql = "INSERT INTO emprunts (id_livre, id_membre, date_emprunt, date_retour_prevue, penalite) VALUES (?, ?, ?, ?, ?)";
-            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-                stmt.setString(1, emprunt.getIdLivre());
-                stmt.setInt(2, emprunt.getIdMembre());
-                stmt.setDate(3, emprunt.getDateEmprunt());
-                stmt.setDate(4, emprunt.getDateRetourPrevue());
-                stmt.setBigDecimal(5, emprunt.getPenalite());
-
-                stmt.executeUpdate();
-
-                // Récupérer l'ID généré
-                try (ResultSet rs = stmt.getGeneratedKeys()) {
-                    if (rs.next()) {
-                        emprunt.setId(rs.getInt(1));
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                // Insérer l'emprunt
+                String sql = "INSERT INTO emprunts (id_livre, id_membre, date_emprunt, date_retour_prevue, penalite) VALUES (?, ?, ?, ?, ?)";
+                try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    stmt.setString(1, emprunt.getIdLivre());
+                    stmt.setInt(2, emprunt.getIdMembre());
+                    stmt.setDate(3, emprunt.getDateEmprunt());
+                    stmt.setDate(4, emprunt.getDateRetourPrevue());
+                    stmt.setBigDecimal(5, emprunt.getPenalite());
+
+                    stmt.executeUpdate();
+
+                    // Récupérer l'ID généré
+                    try (ResultSet rs = stmt.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            emprunt.setId(rs.getInt(1));
+                        }
                     }
                 }
-            }
 
-            conn.commit();
+                VariationStatistiques variation = new VariationStatistiques();
+                variation.ouverture(1);
+                variation.penalitesCentimes += emprunt.getPenaliteCentimes();
+                long passe = avantCommit(emprunt.getIdMembre());
+                conn.commit();
+                statistiques().appliquer(variation);
+                empruntOuvert(emprunt.getIdMembre(), emprunt.getId(), emprunt.getJourRetourPrevue(), passe);
 
-        } catch (SQLException e) {
-            conn.rollback();
-            throw e;
-        } finally {
-            conn.setAutoCommit(true);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         }
     }
 
     @Override
     public Emprunt findById(int id) throws SQLException {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            return findById(conn, id);
+        }
+    }
+
+    /**
+     * Recherche un emprunt sur une connexion déjà ouverte (ex: dans une transaction)
+     */
+    private Emprunt findById(Connection conn, int id) throws SQLException {
         String sql = "SELECT * FROM emprunts WHERE id = ?";
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToEmprunt(rs);
+                    return new MapperEmprunt().map(rs);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Recherche un emprunt en verrouillant sa ligne jusqu'à la fin de la transaction :
+     * l'état lu reste celui que la mise à jour remplace
+     */
+    private Emprunt findByIdPourMiseAJour(Connection conn, int id) throws SQLException {
+        String sql = "SELECT * FROM emprunts WHERE id = ? FOR UPDATE";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new MapperEmprunt().map(rs);
                 }
             }
         }
         return null;
     }
 
+    @Override
+    public List<Emprunt> findByIds(List<Integer> ids) throws SQLException {
+        List<Emprunt> emprunts = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return emprunts;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        String sql = "SELECT * FROM emprunts WHERE id IN (" + placeholders + ")";
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < ids.size(); i++) {
+                stmt.setInt(i + 1, ids.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<Emprunt> mapper = new MapperEmprunt();
+                while (rs.next()) {
+                    emprunts.add(mapper.map(rs));
+                }
+            }
+        }
+        return emprunts;
+    }
+
     @Override
     public List<Emprunt> findAll() throws SQLException {
         List<Emprunt> emprunts = new ArrayList<>();
@@ -78,13 +162,19 @@ public class EmpruntDAOImpl implements EmpruntDAO {
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
+            RowMapper<Emprunt> mapper = new MapperEmprunt();
             while (rs.next()) {
-                emprunts.add(mapResultSetToEmprunt(rs));
+                emprunts.add(mapper.map(rs));
             }
         }
         return emprunts;
     }
 
+    @Override
+    public Stream<Emprunt> streamAll(int fetchSize) throws SQLException {
+        return FluxResultats.ouvrir("SELECT * FROM emprunts ORDER BY id", fetchSize, new MapperEmprunt());
+    }
+
     @Override
     public List<Emprunt> findByMembreId(int membreId) throws SQLException {
         List<Emprunt> emprunts = new ArrayList<>();
@@ -95,8 +185,9 @@ public class EmpruntDAOImpl implements EmpruntDAO {
 
             stmt.setInt(1, membreId);
             try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<Emprunt> mapper = new MapperEmprunt();
                 while (rs.next()) {
-                    emprunts.add(mapResultSetToEmprunt(rs));
+                    emprunts.add(mapper.map(rs));
                 }
             }
         }
@@ -113,8 +204,9 @@ public class EmpruntDAOImpl implements EmpruntDAO {
 
             stmt.setString(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<Emprunt> mapper = new MapperEmprunt();
                 while (rs.next()) {
-                    emprunts.add(mapResultSetToEmprunt(rs));
+                    emprunts.add(mapper.map(rs));
                 }
             }
         }
@@ -130,76 +222,271 @@ public class EmpruntDAOImpl implements EmpruntDAO {
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
+            RowMapper<Emprunt> mapper = new MapperEmprunt();
             while (rs.next()) {
-                emprunts.add(mapResultSetToEmprunt(rs));
+                emprunts.add(mapper.map(rs));
             }
         }
         return emprunts;
     }
 
     @Override
-    public void update(Emprunt emprunt) throws SQLException {
-        String sql = "UPDATE emprunts SET id_livre = ?, id_membre = ?, date_emprunt = ?, " +
-                     "date_retour_prevue = ?, date_retour_effective = ?, penalite = ? WHERE id = ?";
+    public Page<Emprunt> findAllPage(String jeton, int taille) throws SQLException {
+        return Pagination.charger("SELECT * FROM emprunts", Collections.emptyList(), TRI_DATE_EMPRUNT, true,
+                jeton, taille, new MapperEmprunt(), this::cleDateEmprunt);
+    }
 
+    @Override
+    public Page<Emprunt> findAllPage(String tri, boolean decroissant, String jeton, int debut, int taille) throws SQLException {
+        Pagination.Tri<Emprunt> colonnes = TRIS.get(tri);
+        if (colonnes == null) {
+            throw new IllegalArgumentException("Tri non pris en charge: " + tri);
+        }
+        return Pagination.charger("SELECT * FROM emprunts", Collections.emptyList(), colonnes, decroissant,
+                jeton, debut, taille, new MapperEmprunt());
+    }
+
+    @Override
+    public String findRepere(String tri, boolean decroissant, String jeton, int decalage) throws SQLException {
+        Pagination.Tri<Emprunt> colonnes = TRIS.get(tri);
+        if (colonnes == null) {
+            throw new IllegalArgumentException("Tri non pris en charge: " + tri);
+        }
+        return Pagination.repere("SELECT * FROM emprunts", Collections.emptyList(), colonnes, decroissant, jeton, decalage);
+    }
+
+    @Override
+    public int countAll() throws SQLException {
+        String sql = "SELECT COUNT(*) FROM emprunts";
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    @Override
+    public int estimerNombre() throws SQLException {
+        // Total tenu en mémoire par les statistiques ; avant leur chargement, estimation InnoDB
+        StatistiquesEmprunts statistiques = statistiques();
+        if (statistiques.isPret()) {
+            return (int) Math.min(Integer.MAX_VALUE, Math.max(0, statistiques.getTotalEmprunts()));
+        }
+        return Pagination.estimerLignes("emprunts");
+    }
 
-            stmt.setString(1, emprunt.getIdLivre());
-            stmt.setInt(2, emprunt.getIdMembre());
-            stmt.setDate(3, emprunt.getDateEmprunt());
-            stmt.setDate(4, emprunt.getDateRetourPrevue());
-            stmt.setDate(5, emprunt.getDateRetourEffective());
-            stmt.setBigDecimal(6, emprunt.getPenalite());
-            stmt.setInt(7, emprunt.getId());
+    @Override
+    public Page<Emprunt> findEmpruntsEnCoursPage(String jeton, int taille) throws SQLException {
+        return Pagination.charger("SELECT * FROM emprunts WHERE date_retour_effective IS NULL", Collections.emptyList(),
+                TRI_DATE_EMPRUNT, true, jeton, taille, new MapperEmprunt(), this::cleDateEmprunt);
+    }
 
-            stmt.executeUpdate();
+    @Override
+    public List<Emprunt> findEmpruntsEnRetard(Date date) throws SQLException {
+        EcheancesEmprunts echeances = EcheancesEmprunts.getInstance();
+        if (echeances.isPret()) {
+            return findEmpruntsOuvertsOrdonnes(echeances.enRetard(date.toLocalDate()));
         }
+        String sql = "SELECT * FROM emprunts WHERE date_retour_effective IS NULL AND date_retour_prevue < ? " +
+                     "ORDER BY date_retour_prevue, id";
+        return findEmpruntsParEcheance(sql, date);
     }
 
     @Override
-    public void delete(int id) throws SQLException {
-        String sql = "DELETE FROM emprunts WHERE id = ?";
+    public List<Emprunt> findEmpruntsAEcheance(Date debut, int jours) throws SQLException {
+        EcheancesEmprunts echeances = EcheancesEmprunts.getInstance();
+        if (echeances.isPret()) {
+            return findEmpruntsOuvertsOrdonnes(echeances.aEcheance(debut.toLocalDate(), jours));
+        }
+        String sql = "SELECT * FROM emprunts WHERE date_retour_effective IS NULL " +
+                     "AND date_retour_prevue BETWEEN ? AND ? ORDER BY date_retour_prevue, id";
+        return findEmpruntsParEcheance(sql, debut, Date.valueOf(debut.toLocalDate().plusDays(jours)));
+    }
+
+    private List<Emprunt> findEmpruntsParEcheance(String sql, Date... dates) throws SQLException {
+        List<Emprunt> emprunts = new ArrayList<>();
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < dates.length; i++) {
+                stmt.setDate(i + 1, dates[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<Emprunt> mapper = new MapperEmprunt();
+                while (rs.next()) {
+                    emprunts.add(mapper.map(rs));
+                }
+            }
+        }
+        return emprunts;
+    }
 
-            stmt.setInt(1, id);
-            stmt.executeUpdate();
+    /**
+     * Charge les emprunts désignés par l'index des échéances, dans l'ordre de l'index.
+     * Un emprunt retourné entre-temps est écarté.
+     */
+    private List<Emprunt> findEmpruntsOuvertsOrdonnes(List<Integer> ids) throws SQLException {
+        Map<Integer, Emprunt> parId = new HashMap<>();
+        for (int debut = 0; debut < ids.size(); debut += TAILLE_LOT_IDS) {
+            for (Emprunt emprunt : findByIds(ids.subList(debut, Math.min(debut + TAILLE_LOT_IDS, ids.size())))) {
+                parId.put(emprunt.getId(), emprunt);
+            }
         }
+
+        List<Emprunt> emprunts = new ArrayList<>(parId.size());
+        for (int id : ids) {
+            Emprunt emprunt = parId.get(id);
+            if (emprunt != null && !emprunt.isRetourne()) {
+                emprunts.add(emprunt);
+            }
+        }
+        return emprunts;
+    }
+
+    private Object[] cleDateEmprunt(Emprunt emprunt) {
+        return new Object[] {emprunt.getDateEmprunt(), emprunt.getId()};
     }
 
     @Override
-    public void retournerLivre(int empruntId, Date dateRetourEffective) throws SQLException {
-        Connection conn = DatabaseConnection.getInstance().getConnection();
-        conn.setAutoCommit(false);
+    public void update(Emprunt emprunt) throws SQLException {
+        // MySQL évalue les affectations dans l'ordre : la garde lit la nouvelle date de retour effective
+        String sql = "UPDATE emprunts SET id_livre = ?, id_membre = ?, date_emprunt = ?, " +
+                     "date_retour_prevue = ?, date_retour_effective = ?, penalite = ?, " +
+                     "penalite_courue = IF(date_retour_effective IS NULL, penalite_courue, 0) WHERE id = ?";
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                // État précédent, pour reporter le changement de membre ou de retour sur les compteurs
+                Emprunt ancien = findByIdPourMiseAJour(conn, emprunt.getId());
+
+                int lignes;
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, emprunt.getIdLivre());
+                    stmt.setInt(2, emprunt.getIdMembre());
+                    stmt.setDate(3, emprunt.getDateEmprunt());
+                    stmt.setDate(4, emprunt.getDateRetourPrevue());
+                    stmt.setDate(5, emprunt.getDateRetourEffective());
+                    stmt.setBigDecimal(6, emprunt.getPenalite());
+                    stmt.setInt(7, emprunt.getId());
+
+                    lignes = stmt.executeUpdate();
+                }
+                if (lignes == 0 || ancien == null) {
+                    conn.commit();
+                    return;
+                }
 
-        try {
-            // Récupérer l'emprunt pour obtenir l'ISBN
-            Emprunt emprunt = findById(empruntId);
-            if (emprunt == null) {
-                throw new SQLException("Emprunt non trouvé");
+                VariationStatistiques variation = new VariationStatistiques();
+                variation.remplacer(ancien, emprunt);
+                long passe = avantCommit(ancien.getIdMembre());
+                avantCommit(emprunt.getIdMembre());
+                conn.commit();
+                statistiques().appliquer(variation);
+
+                if (!ancien.isRetourne()) {
+                    empruntsEnCoursModifies(ancien.getIdMembre(), -1, passe);
+                }
+                if (!emprunt.isRetourne()) {
+                    empruntsEnCoursModifies(emprunt.getIdMembre(), 1, passe);
+                    EcheancesEmprunts.getInstance().ouvrir(emprunt.getId(), emprunt.getJourRetourPrevue());
+                } else {
+                    EcheancesEmprunts.getInstance().fermer(emprunt.getId());
+                }
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
+        }
+    }
 
-            // Mettre à jour la date de retour effective
-            String sql = "UPDATE emprunts SET date_retour_effective = ? WHERE id = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setDate(1, dateRetourEffective);
-                stmt.setInt(2, empruntId);
-                stmt.executeUpdate();
+    @Override
+    public void delete(int id) throws SQLException {
+        String sql = "DELETE FROM emprunts WHERE id = ?";
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                Emprunt ancien = findByIdPourMiseAJour(conn, id);
+
+                int lignes;
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, id);
+                    lignes = stmt.executeUpdate();
+                }
+                if (lignes == 0 || ancien == null) {
+                    conn.commit();
+                    return;
+                }
+
+                VariationStatistiques variation = new VariationStatistiques();
+                variation.remplacer(ancien, null);
+                long passe = avantCommit(ancien.getIdMembre());
+                conn.commit();
+                statistiques().appliquer(variation);
+
+                if (!ancien.isRetourne()) {
+                    empruntsEnCoursModifies(ancien.getIdMembre(), -1, passe);
+                }
+                EcheancesEmprunts.getInstance().fermer(id);
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
+        }
+    }
 
-            conn.commit();
+    @Override
+    public void retournerLivre(int empruntId, Date dateRetourEffective) throws SQLException {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                // Récupérer l'emprunt pour obtenir l'ISBN
+                Emprunt emprunt = findByIdPourMiseAJour(conn, empruntId);
+                if (emprunt == null) {
+                    throw new SQLException("Emprunt non trouvé");
+                }
+
+                // Mettre à jour la date de retour effective ; la pénalité courue n'a plus lieu d'être
+                String sql = "UPDATE emprunts SET date_retour_effective = ?, penalite_courue = 0 WHERE id = ?";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setDate(1, dateRetourEffective);
+                    stmt.setInt(2, empruntId);
+                    stmt.executeUpdate();
+                }
 
-        } catch (SQLException e) {
-            conn.rollback();
-            throw e;
-        } finally {
-            conn.setAutoCommit(true);
+                VariationStatistiques variation = new VariationStatistiques();
+                variation.retour(emprunt.getJourRetourPrevue(), emprunt.getJourRetourEffective(),
+                        emprunt.getPenaliteCentimes(), DateUtils.versJour(dateRetourEffective),
+                        emprunt.getPenaliteCentimes());
+                long passe = avantCommit(emprunt.getIdMembre());
+                conn.commit();
+                statistiques().appliquer(variation);
+                retourEnregistre(emprunt, DateUtils.versJour(dateRetourEffective), passe);
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         }
     }
 
     @Override
     public int countEmpruntsEnCoursByMembre(int membreId) throws SQLException {
+        int enMemoire = CompteursEmprunts.getInstance().lire(membreId);
+        if (enMemoire >= 0) {
+            return enMemoire;
+        }
+
         String sql = "SELECT COUNT(*) FROM emprunts WHERE id_membre = ? AND date_retour_effective IS NULL";
 
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
@@ -217,22 +504,19 @@ public class EmpruntDAOImpl implements EmpruntDAO {
 
     @Override
     public boolean livreExiste(String isbn) throws SQLException {
-        String sql = "SELECT COUNT(*) FROM livres WHERE isbn = ?";
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, isbn);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1) > 0;
-                }
-            }
+        if (!FiltresExistence.getInstance().isbnPeutExister(isbn)) {
+            return false;
+        }
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            return livreExiste(conn, isbn);
         }
-        return false;
     }
 
     @Override
     public boolean membreExiste(int membreId) throws SQLException {
+        if (!FiltresExistence.getInstance().membrePeutExister(membreId)) {
+            return false;
+        }
         String sql = "SELECT COUNT(*) FROM membres WHERE id = ?";
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -272,6 +556,7 @@ public class EmpruntDAOImpl implements EmpruntDAO {
             stmt.setString(1, isbn);
             stmt.executeUpdate();
         }
+        disponibiliteModifieeIsbn(isbn);
     }
 
     @Override
@@ -283,6 +568,7 @@ public class EmpruntDAOImpl implements EmpruntDAO {
             stmt.setString(1, isbn);
             stmt.executeUpdate();
         }
+        disponibiliteModifieeIsbn(isbn);
     }
 
     @Override
@@ -303,85 +589,662 @@ public class EmpruntDAOImpl implements EmpruntDAO {
 
     @Override
     public void emprunterLivreTransactional(String idLivre, int membreId, java.sql.Date dateEmprunt, java.sql.Date dateRetourPrevue) throws SQLException {
-        Connection conn = DatabaseConnection.getInstance().getConnection();
-        conn.setAutoCommit(false);
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                // Insérer l'emprunt
+                String sqlEmprunt = "INSERT INTO emprunts (id_livre, id_membre, date_emprunt, date_retour_prevue, penalite) VALUES (?, ?, ?, ?, ?)";
+                int empruntId;
+                try (PreparedStatement stmt = conn.prepareStatement(sqlEmprunt, Statement.RETURN_GENERATED_KEYS)) {
+                    stmt.setString(1, idLivre);
+                    stmt.setInt(2, membreId);
+                    stmt.setDate(3, dateEmprunt);
+                    stmt.setDate(4, dateRetourPrevue);
+                    stmt.setBigDecimal(5, java.math.BigDecimal.ZERO);
+                    stmt.executeUpdate();
+
+                    try (ResultSet rs = stmt.getGeneratedKeys()) {
+                        empruntId = rs.next() ? rs.getInt(1) : 0;
+                    }
+                }
+
+                // Marquer le livre comme indisponible
+                String sqlLivre = "UPDATE livres SET disponible = FALSE WHERE id = ?";
+                try (PreparedStatement stmt = conn.prepareStatement(sqlLivre)) {
+                    stmt.setString(1, idLivre);
+                    stmt.executeUpdate();
+                }
+
+                VariationStatistiques variation = new VariationStatistiques();
+                variation.ouverture(1);
+                long passe = avantCommit(membreId);
+                conn.commit();
+                statistiques().appliquer(variation);
+                disponibiliteModifiee(idLivre);
+                empruntOuvert(membreId, empruntId, DateUtils.versJour(dateRetourPrevue), passe);
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    @Override
+    public void retournerEmpruntTransactional(int empruntId, java.sql.Date dateRetourEffective, java.math.BigDecimal penalite) throws SQLException {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                // Récupérer l'emprunt pour obtenir l'ISBN
+                Emprunt emprunt = findByIdPourMiseAJour(conn, empruntId);
+                if (emprunt == null) {
+                    throw new SQLException("Emprunt non trouvé");
+                }
+
+                // Mettre à jour l'emprunt
+                String sqlUpdate = "UPDATE emprunts SET date_retour_effective = ?, penalite = ?, penalite_courue = 0 WHERE id = ?";
+                try (PreparedStatement stmt = conn.prepareStatement(sqlUpdate)) {
+                    stmt.setDate(1, dateRetourEffective);
+                    stmt.setBigDecimal(2, penalite);
+                    stmt.setInt(3, empruntId);
+                    stmt.executeUpdate();
+                }
+
+                // Marquer le livre comme disponible
+                String sqlLivre = "UPDATE livres SET disponible = TRUE WHERE id = ?";
+                try (PreparedStatement stmt = conn.prepareStatement(sqlLivre)) {
+                    stmt.setString(1, emprunt.getIdLivre());
+                    stmt.executeUpdate();
+                }
+
+                VariationStatistiques variation = new VariationStatistiques();
+                variation.retour(emprunt.getJourRetourPrevue(), emprunt.getJourRetourEffective(),
+                        emprunt.getPenaliteCentimes(), DateUtils.versJour(dateRetourEffective),
+                        Centimes.depuis(penalite));
+                long passe = avantCommit(emprunt.getIdMembre());
+                conn.commit();
+                statistiques().appliquer(variation);
+                disponibiliteModifiee(emprunt.getIdLivre());
+                retourEnregistre(emprunt, DateUtils.versJour(dateRetourEffective), passe);
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    @Override
+    public List<Emprunt> retournerEmpruntsEnLot(List<Emprunt> emprunts) throws SQLException {
+        List<Emprunt> retournes = new ArrayList<>();
+        if (emprunts.isEmpty()) {
+            return retournes;
+        }
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                // Pénalités des emprunts encore ouverts, lignes verrouillées jusqu'au commit
+                Map<Integer, Long> penalitesOuvertes = lirePenalitesOuvertes(conn, emprunts);
 
-        try {
-            // Insérer l'emprunt
-            String sqlEmprunt = "INSERT INTO emprunts (id_livre, id_membre, date_emprunt, date_retour_prevue, penalite) VALUES (?, ?, ?, ?, ?)";
-            try (PreparedStatement stmt = conn.prepareStatement(sqlEmprunt)) {
+                // Mettre à jour les emprunts encore ouverts (batch)
+                String sqlUpdate = "UPDATE emprunts SET date_retour_effective = ?, penalite = ?, penalite_courue = 0 " +
+                                   "WHERE id = ? AND date_retour_effective IS NULL";
+                int[] resultats;
+                try (PreparedStatement stmt = conn.prepareStatement(sqlUpdate)) {
+                    for (Emprunt emprunt : emprunts) {
+                        stmt.setDate(1, emprunt.getDateRetourEffective());
+                        stmt.setBigDecimal(2, emprunt.getPenalite());
+                        stmt.setInt(3, emprunt.getId());
+                        stmt.addBatch();
+                    }
+                    resultats = stmt.executeBatch();
+                }
+
+                // Sans nombre de lignes du pilote : relecture dans la transaction, les lignes
+                // ouvertes avant la mise à jour et rendues depuis sont celles de ce lot
+                Set<Integer> relus = sansNombreDeLignes(resultats)
+                        ? lireIds(conn, emprunts, "date_retour_effective IS NOT NULL") : Collections.emptySet();
+                for (int i = 0; i < emprunts.size(); i++) {
+                    Emprunt emprunt = emprunts.get(i);
+                    if (resultats[i] > 0 || (resultats[i] == Statement.SUCCESS_NO_INFO
+                            && penalitesOuvertes.containsKey(emprunt.getId()) && relus.contains(emprunt.getId()))) {
+                        retournes.add(emprunt);
+                    }
+                }
+
+                // Marquer les livres comme disponibles (batch)
+                if (!retournes.isEmpty()) {
+                    String sqlLivre = "UPDATE livres SET disponible = TRUE WHERE id = ?";
+                    try (PreparedStatement stmt = conn.prepareStatement(sqlLivre)) {
+                        for (Emprunt emprunt : retournes) {
+                            stmt.setString(1, emprunt.getIdLivre());
+                            stmt.addBatch();
+                        }
+                        stmt.executeBatch();
+                    }
+                }
+
+                VariationStatistiques variation = new VariationStatistiques();
+                for (Emprunt emprunt : retournes) {
+                    // Emprunt encore ouvert (garde IS NULL)
+                    variation.retour(emprunt.getJourRetourPrevue(), DateUtils.AUCUN_JOUR,
+                            penalitesOuvertes.getOrDefault(emprunt.getId(), 0L),
+                            emprunt.getJourRetourEffective(), emprunt.getPenaliteCentimes());
+                }
+                long passe = Long.MAX_VALUE;
+                for (Emprunt emprunt : retournes) {
+                    passe = Math.min(passe, avantCommit(emprunt.getIdMembre()));
+                }
+                conn.commit();
+                statistiques().appliquer(variation);
+                for (Emprunt emprunt : retournes) {
+                    disponibiliteModifiee(emprunt.getIdLivre());
+                    empruntsEnCoursModifies(emprunt.getIdMembre(), -1, passe);
+                    EcheancesEmprunts.getInstance().fermer(emprunt.getId());
+                }
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        return retournes;
+    }
+
+    /**
+     * Pénalités (en centimes) des emprunts encore ouverts parmi ceux donnés, par identifiant.
+     * Les lignes lues restent verrouillées jusqu'à la fin de la transaction.
+     */
+    private Map<Integer, Long> lirePenalitesOuvertes(Connection conn, List<Emprunt> emprunts) throws SQLException {
+        Map<Integer, Long> penalites = new HashMap<>();
+        for (int debut = 0; debut < emprunts.size(); debut += TAILLE_LOT_IDS) {
+            List<Emprunt> lot = emprunts.subList(debut, Math.min(debut + TAILLE_LOT_IDS, emprunts.size()));
+            String placeholders = String.join(", ", Collections.nCopies(lot.size(), "?"));
+            String sql = "SELECT id, penalite FROM emprunts WHERE id IN (" + placeholders + ") " +
+                         "AND date_retour_effective IS NULL FOR UPDATE";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < lot.size(); i++) {
+                    stmt.setInt(i + 1, lot.get(i).getId());
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        penalites.put(rs.getInt(1), Centimes.depuis(rs.getBigDecimal(2)));
+                    }
+                }
+            }
+        }
+        return penalites;
+    }
+
+    private static boolean sansNombreDeLignes(int[] resultats) {
+        for (int resultat : resultats) {
+            if (resultat == Statement.SUCCESS_NO_INFO) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Identifiants des emprunts donnés qui satisfont la condition, lus dans la transaction courante
+     */
+    private Set<Integer> lireIds(Connection conn, List<Emprunt> emprunts, String condition) throws SQLException {
+        Set<Integer> ids = new HashSet<>();
+        for (int debut = 0; debut < emprunts.size(); debut += TAILLE_LOT_IDS) {
+            List<Emprunt> lot = emprunts.subList(debut, Math.min(debut + TAILLE_LOT_IDS, emprunts.size()));
+            String placeholders = String.join(", ", Collections.nCopies(lot.size(), "?"));
+            String sql = "SELECT id FROM emprunts WHERE id IN (" + placeholders + ") AND " + condition;
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < lot.size(); i++) {
+                    stmt.setInt(i + 1, lot.get(i).getId());
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getInt(1));
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public List<Emprunt> findEmpruntsEnRetardApres(Date date, Date apresEcheance, int apresId, int taille)
+            throws SQLException {
+        List<Emprunt> emprunts = new ArrayList<>();
+        // Égalité sur date_retour_effective puis parcours de date_retour_prevue (et de l'ID, clé implicite
+        // de l'index secondaire) : chaque tranche est lue dans l'index, sans tri des emprunts restants
+        String sql = "SELECT * FROM emprunts WHERE date_retour_effective IS NULL AND date_retour_prevue < ? " +
+                     (apresEcheance == null ? ""
+                             : "AND (date_retour_prevue > ? OR (date_retour_prevue = ? AND id > ?)) ") +
+                     "ORDER BY date_retour_prevue, id LIMIT ?";
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            stmt.setDate(index++, date);
+            if (apresEcheance != null) {
+                stmt.setDate(index++, apresEcheance);
+                stmt.setDate(index++, apresEcheance);
+                stmt.setInt(index++, apresId);
+            }
+            stmt.setInt(index, taille);
+            try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<Emprunt> mapper = new MapperEmprunt();
+                while (rs.next()) {
+                    emprunts.add(mapper.map(rs));
+                }
+            }
+        }
+        return emprunts;
+    }
+
+    @Override
+    public int appliquerPenalitesCourues(List<Emprunt> emprunts) throws SQLException {
+        if (emprunts.isEmpty()) {
+            return 0;
+        }
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                // La garde IS NULL laisse intacts les emprunts retournés pendant le traitement
+                String sql = "UPDATE emprunts SET penalite_courue = ? WHERE id = ? AND date_retour_effective IS NULL";
+                int[] resultats;
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (Emprunt emprunt : emprunts) {
+                        stmt.setBigDecimal(1, emprunt.getPenaliteCourue());
+                        stmt.setInt(2, emprunt.getId());
+                        stmt.addBatch();
+                    }
+                    resultats = stmt.executeBatch();
+                }
+
+                // Sans nombre de lignes du pilote : relecture dans la transaction des lignes
+                // satisfaisant la garde, verrouillées par la mise à jour
+                Set<Integer> relus = sansNombreDeLignes(resultats)
+                        ? lireIds(conn, emprunts, "date_retour_effective IS NULL") : Collections.emptySet();
+                int misAJour = 0;
+                for (int i = 0; i < emprunts.size(); i++) {
+                    if (resultats[i] > 0
+                            || (resultats[i] == Statement.SUCCESS_NO_INFO && relus.contains(emprunts.get(i).getId()))) {
+                        misAJour++;
+                    }
+                }
+                conn.commit();
+                return misAJour;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    @Override
+    public int effacerPenalitesCourues(Date date) throws SQLException {
+        String sql = "UPDATE emprunts SET penalite_courue = 0 " +
+                     "WHERE date_retour_effective IS NULL AND date_retour_prevue >= ? AND penalite_courue <> 0";
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setDate(1, date);
+            return stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public PointReprise lirePointReprise(String traitement) throws SQLException {
+        String sql = "SELECT date_traitement, derniere_echeance, dernier_id, termine FROM points_reprise WHERE traitement = ?";
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, traitement);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new PointReprise(traitement, rs.getDate("date_traitement"),
+                            rs.getDate("derniere_echeance"), rs.getInt("dernier_id"), rs.getBoolean("termine"));
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void enregistrerPointReprise(PointReprise pointReprise) throws SQLException {
+        String sql = "INSERT INTO points_reprise (traitement, date_traitement, derniere_echeance, dernier_id, termine) " +
+                     "VALUES (?, ?, ?, ?, ?) " +
+                     "ON DUPLICATE KEY UPDATE date_traitement = VALUES(date_traitement), " +
+                     "derniere_echeance = VALUES(derniere_echeance), " +
+                     "dernier_id = VALUES(dernier_id), termine = VALUES(termine)";
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, pointReprise.getTraitement());
+            stmt.setDate(2, pointReprise.getDateTraitement());
+            stmt.setDate(3, pointReprise.getDerniereEcheance());
+            stmt.setInt(4, pointReprise.getDernierId());
+            stmt.setBoolean(5, pointReprise.isTermine());
+            stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public ResultatEmprunt emprunterLivreAtomique(String isbn, int membreId, Date dateEmprunt,
+            Date dateRetourPrevue, int limiteEmprunts) throws SQLException {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                ResultatEmprunt resultat = emprunterLivreAtomique(conn, isbn, membreId, dateEmprunt,
+                        dateRetourPrevue, limiteEmprunts);
+                if (resultat.isAccepte()) {
+                    VariationStatistiques variation = new VariationStatistiques();
+                    variation.ouverture(1);
+                    long passe = avantCommit(membreId);
+                    conn.commit();
+                    statistiques().appliquer(variation);
+                    disponibiliteModifieeIsbn(isbn);
+                    empruntOuvert(membreId, resultat.getEmpruntId(), DateUtils.versJour(dateRetourPrevue), passe);
+                } else {
+                    conn.rollback();
+                }
+                return resultat;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    @Override
+    public List<ResultatEmprunt> emprunterLivresEnLot(List<String> isbns, int membreId, Date dateEmprunt,
+            Date dateRetourPrevue, int limiteEmprunts) throws SQLException {
+        if (isbns.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                List<ResultatEmprunt> resultats = emprunterLivresEnLot(conn, isbns, membreId, dateEmprunt,
+                        dateRetourPrevue, limiteEmprunts);
+                int acceptes = (int) resultats.stream().filter(ResultatEmprunt::isAccepte).count();
+                if (acceptes > 0) {
+                    VariationStatistiques variation = new VariationStatistiques();
+                    variation.ouverture(acceptes);
+                    long passe = avantCommit(membreId);
+                    conn.commit();
+                    statistiques().appliquer(variation);
+                    for (ResultatEmprunt resultat : resultats) {
+                        if (resultat.isAccepte()) {
+                            disponibiliteModifieeIsbn(resultat.getIsbn());
+                            empruntOuvert(membreId, resultat.getEmpruntId(), DateUtils.versJour(dateRetourPrevue), passe);
+                        }
+                    }
+                } else {
+                    conn.rollback();
+                }
+                return resultats;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Étapes de l'emprunt en lot dans la transaction courante : une lecture verrouillée
+     * du membre, une lecture verrouillée des livres, puis deux batchs (livres, emprunts).
+     */
+    private List<ResultatEmprunt> emprunterLivresEnLot(Connection conn, List<String> isbns, int membreId,
+            Date dateEmprunt, Date dateRetourPrevue, int limiteEmprunts) throws SQLException {
+        List<ResultatEmprunt> resultats = new ArrayList<>(isbns.size());
+
+        // 1. Membre : vérifié une seule fois pour tout le lot
+        EtatMembre membre = verrouillerMembre(conn, membreId);
+        if (membre.refus != null) {
+            for (String isbn : isbns) {
+                resultats.add(ResultatEmprunt.refuse(isbn, membre.refus, membre.empruntsEnCours));
+            }
+            return resultats;
+        }
+
+        // 2. Livres : une seule requête verrouillante pour tout le lot
+        Map<String, String> idsDisponibles = new HashMap<>();
+        Set<String> isbnsExistants = new HashSet<>();
+        String placeholders = String.join(", ", Collections.nCopies(isbns.size(), "?"));
+        String sqlLivres = "SELECT id, isbn, disponible FROM livres WHERE isbn IN (" + placeholders + ") FOR UPDATE";
+        try (PreparedStatement stmt = conn.prepareStatement(sqlLivres)) {
+            for (int i = 0; i < isbns.size(); i++) {
+                stmt.setString(i + 1, isbns.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    isbnsExistants.add(rs.getString("isbn"));
+                    if (rs.getBoolean("disponible")) {
+                        idsDisponibles.put(rs.getString("isbn"), rs.getString("id"));
+                    }
+                }
+            }
+        }
+
+        // 3. Décision par livre, dans l'ordre de scan, en appliquant la limite au lot
+        int empruntsEnCours = membre.empruntsEnCours;
+        List<String> idsAcceptes = new ArrayList<>();
+        List<Integer> positionsAcceptees = new ArrayList<>();
+        for (String isbn : isbns) {
+            if (!isbnsExistants.contains(isbn)) {
+                resultats.add(ResultatEmprunt.refuse(isbn, ResultatEmprunt.Statut.LIVRE_INEXISTANT, empruntsEnCours));
+            } else if (!idsDisponibles.containsKey(isbn)) {
+                // indisponible, ou déjà pris par une ligne précédente du même lot
+                resultats.add(ResultatEmprunt.refuse(isbn, ResultatEmprunt.Statut.LIVRE_INDISPONIBLE, empruntsEnCours));
+            } else if (empruntsEnCours >= limiteEmprunts) {
+                resultats.add(ResultatEmprunt.refuse(isbn, ResultatEmprunt.Statut.LIMITE_ATTEINTE, empruntsEnCours));
+            } else {
+                empruntsEnCours++;
+                idsAcceptes.add(idsDisponibles.remove(isbn));
+                positionsAcceptees.add(resultats.size());
+                resultats.add(null); // complété après l'insertion
+            }
+        }
+        if (idsAcceptes.isEmpty()) {
+            return resultats;
+        }
+
+        // 4. Marquer les livres indisponibles (batch)
+        String sqlLivre = "UPDATE livres SET disponible = FALSE WHERE id = ? AND disponible = TRUE";
+        try (PreparedStatement stmt = conn.prepareStatement(sqlLivre)) {
+            for (String idLivre : idsAcceptes) {
+                stmt.setString(1, idLivre);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+
+        // 5. Insérer les emprunts (batch) et récupérer les IDs générés
+        String sqlEmprunt = "INSERT INTO emprunts (id_livre, id_membre, date_emprunt, date_retour_prevue, penalite) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sqlEmprunt, Statement.RETURN_GENERATED_KEYS)) {
+            for (String idLivre : idsAcceptes) {
                 stmt.setString(1, idLivre);
                 stmt.setInt(2, membreId);
                 stmt.setDate(3, dateEmprunt);
                 stmt.setDate(4, dateRetourPrevue);
                 stmt.setBigDecimal(5, java.math.BigDecimal.ZERO);
-                stmt.executeUpdate();
+                stmt.addBatch();
             }
+            stmt.executeBatch();
 
-            // Marquer le livre comme indisponible
-            String sqlLivre = "UPDATE livres SET disponible = FALSE WHERE id = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(sqlLivre)) {
-                stmt.setString(1, idLivre);
-                stmt.executeUpdate();
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                for (int i = 0; i < positionsAcceptees.size(); i++) {
+                    int position = positionsAcceptees.get(i);
+                    int empruntId = rs.next() ? rs.getInt(1) : 0;
+                    resultats.set(position, ResultatEmprunt.accepte(isbns.get(position), empruntId, empruntsEnCours));
+                }
             }
+        }
+        return resultats;
+    }
 
-            conn.commit();
+    /**
+     * Étapes de l'emprunt atomique dans la transaction courante.
+     * Le verrou sur la ligne du membre sérialise les emprunts concurrents d'un même membre,
+     * l'UPDATE conditionnel empêche deux postes de prêter le même exemplaire.
+     */
+    private ResultatEmprunt emprunterLivreAtomique(Connection conn, String isbn, int membreId, Date dateEmprunt,
+            Date dateRetourPrevue, int limiteEmprunts) throws SQLException {
 
-        } catch (SQLException e) {
-            conn.rollback();
-            throw e;
-        } finally {
-            conn.setAutoCommit(true);
+        // 1. Verrouiller le membre et lire son statut
+        EtatMembre membre = verrouillerMembre(conn, membreId);
+        if (membre.refus != null) {
+            return ResultatEmprunt.refuse(isbn, membre.refus, membre.empruntsEnCours);
+        }
+        int empruntsEnCours = membre.empruntsEnCours;
+        if (empruntsEnCours >= limiteEmprunts) {
+            return ResultatEmprunt.refuse(isbn, ResultatEmprunt.Statut.LIMITE_ATTEINTE, empruntsEnCours);
         }
-    }
 
-    @Override
-    public void retournerEmpruntTransactional(int empruntId, java.sql.Date dateRetourEffective, java.math.BigDecimal penalite) throws SQLException {
-        Connection conn = DatabaseConnection.getInstance().getConnection();
-        conn.setAutoCommit(false);
+        // 2. Réserver le livre seulement s'il est encore disponible
+        String sqlLivre = "UPDATE livres SET disponible = FALSE WHERE isbn = ? AND disponible = TRUE";
+        try (PreparedStatement stmt = conn.prepareStatement(sqlLivre)) {
+            stmt.setString(1, isbn);
+            if (stmt.executeUpdate() == 0) {
+                ResultatEmprunt.Statut statut = livreExiste(conn, isbn)
+                        ? ResultatEmprunt.Statut.LIVRE_INDISPONIBLE
+                        : ResultatEmprunt.Statut.LIVRE_INEXISTANT;
+                return ResultatEmprunt.refuse(isbn, statut, empruntsEnCours);
+            }
+        }
 
-        try {
-            // Récupérer l'emprunt pour obtenir l'ISBN
-            Emprunt emprunt = findById(empruntId);
-            if (emprunt == null) {
-                throw new SQLException("Emprunt non trouvé");
+        // 3. Insérer l'emprunt (l'id du livre est résolu par le SELECT)
+        String sqlEmprunt = "INSERT INTO emprunts (id_livre, id_membre, date_emprunt, date_retour_prevue, penalite) " +
+                            "SELECT id, ?, ?, ?, 0 FROM livres WHERE isbn = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sqlEmprunt, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setInt(1, membreId);
+            stmt.setDate(2, dateEmprunt);
+            stmt.setDate(3, dateRetourPrevue);
+            stmt.setString(4, isbn);
+            stmt.executeUpdate();
+
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                int empruntId = rs.next() ? rs.getInt(1) : 0;
+                return ResultatEmprunt.accepte(isbn, empruntId, empruntsEnCours + 1);
             }
+        }
+    }
 
-            // Mettre à jour l'emprunt
-            String sqlUpdate = "UPDATE emprunts SET date_retour_effective = ?, penalite = ? WHERE id = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(sqlUpdate)) {
-                stmt.setDate(1, dateRetourEffective);
-                stmt.setBigDecimal(2, penalite);
-                stmt.setInt(3, empruntId);
-                stmt.executeUpdate();
+    /**
+     * Verrouille la ligne du membre (FOR UPDATE) et lit son statut et ses emprunts en cours.
+     * La sous-requête est une lecture verrouillante : le compte est à jour même après une attente de verrou.
+     */
+    private EtatMembre verrouillerMembre(Connection conn, int membreId) throws SQLException {
+        String sql = "SELECT m.actif, (SELECT COUNT(*) FROM emprunts e " +
+                     "WHERE e.id_membre = m.id AND e.date_retour_effective IS NULL FOR SHARE) AS en_cours " +
+                     "FROM membres m WHERE m.id = ? FOR UPDATE";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, membreId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return new EtatMembre(ResultatEmprunt.Statut.MEMBRE_INEXISTANT, 0);
+                }
+                int empruntsEnCours = rs.getInt("en_cours");
+                ResultatEmprunt.Statut refus = rs.getBoolean("actif") ? null : ResultatEmprunt.Statut.MEMBRE_INACTIF;
+                return new EtatMembre(refus, empruntsEnCours);
             }
+        }
+    }
 
-            // Marquer le livre comme disponible
-            String sqlLivre = "UPDATE livres SET disponible = TRUE WHERE id = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(sqlLivre)) {
-                stmt.setString(1, emprunt.getIdLivre());
-                stmt.executeUpdate();
+    /**
+     * Vérifie l'existence d'un livre sur une connexion déjà ouverte
+     */
+    private boolean livreExiste(Connection conn, String isbn) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM livres WHERE isbn = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, isbn);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
             }
+        }
+    }
 
-            conn.commit();
+    /**
+     * Appelé après commit quand la disponibilité d'un livre a changé
+     */
+    private void disponibiliteModifiee(String idLivre) {
+        CacheLivres.getInstance().invalider(idLivre);
+    }
+
+    private void disponibiliteModifieeIsbn(String isbn) {
+        CacheLivres.getInstance().invaliderIsbn(isbn);
+    }
+
+    private StatistiquesEmprunts statistiques() {
+        return StatistiquesEmprunts.getInstance();
+    }
 
-        } catch (SQLException e) {
-            conn.rollback();
-            throw e;
-        } finally {
-            conn.setAutoCommit(true);
+    /**
+     * Appelé juste avant le commit d'une transaction qui change les emprunts en cours du membre
+     * @return la passe de réconciliation des compteurs, à rendre après le commit
+     */
+    private long avantCommit(int membreId) {
+        return CompteursEmprunts.getInstance().marquer(membreId);
+    }
+
+    /**
+     * Appelé après commit : reporte la variation sur le compteur en mémoire
+     */
+    private void empruntsEnCoursModifies(int membreId, int delta, long passe) {
+        CompteursEmprunts.getInstance().ajuster(membreId, delta, passe);
+    }
+
+    /**
+     * Après commit d'un nouvel emprunt
+     */
+    private void empruntOuvert(int membreId, int empruntId, int jourRetourPrevue, long passe) {
+        empruntsEnCoursModifies(membreId, 1, passe);
+        if (empruntId > 0) {
+            EcheancesEmprunts.getInstance().ouvrir(empruntId, jourRetourPrevue);
+        }
+    }
+
+    /**
+     * Après commit d'un retour : l'emprunt lu avant la mise à jour donne l'état précédent
+     */
+    private void retourEnregistre(Emprunt ancien, int jourRetourEffective, long passe) {
+        if (!ancien.isRetourne() && jourRetourEffective != DateUtils.AUCUN_JOUR) {
+            empruntsEnCoursModifies(ancien.getIdMembre(), -1, passe);
+        }
+        if (jourRetourEffective != DateUtils.AUCUN_JOUR) {
+            EcheancesEmprunts.getInstance().fermer(ancien.getId());
         }
     }
 
-    private Emprunt mapResultSetToEmprunt(ResultSet rs) throws SQLException {
-        Emprunt emprunt = new Emprunt();
-        emprunt.setId(rs.getInt("id"));
-        emprunt.setIdLivre(rs.getString("id_livre"));
-        emprunt.setIdMembre(rs.getInt("id_membre"));
-        emprunt.setDateEmprunt(rs.getDate("date_emprunt"));
-        emprunt.setDateRetourPrevue(rs.getDate("date_retour_prevue"));
-        emprunt.setDateRetourEffective(rs.getDate("date_retour_effective"));
-        emprunt.setPenalite(rs.getBigDecimal("penalite"));
-        return emprunt;
+    /**
+     * État du membre lu sous verrou (refus = null si le membre peut emprunter)
+     */
+    private static final class EtatMembre {
+        final ResultatEmprunt.Statut refus;
+        final int empruntsEnCours;
+
+        EtatMembre(ResultatEmprunt.Statut refus, int empruntsEnCours) {
+            this.refus = refus;
+            this.empruntsEnCours = empruntsEnCours;
+        }
     }
 }
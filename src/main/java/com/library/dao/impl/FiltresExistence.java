@@ -0,0 +1,216 @@
+package com.library.dao.impl;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import com.library.util.DatabaseConnection;
+import com.library.util.FiltreBloom;
+import com.library.util.Normalisation;
+
+/**
+ * Filtres de Bloom des ISBN et des IDs de membres existants (singleton).
+ * Une clé absente du filtre n'existe certainement pas en base : la requête est évitée.
+ * Les insertions alimentent les filtres ; les suppressions n'y sont pas retirées
+ * (simple faux positif) et sont purgées par la reconstruction périodique.
+ * Tant qu'un filtre n'est pas construit, toutes les clés sont considérées possibles.
+ */
+public final class FiltresExistence {
+
+    private static final double TAUX_FAUX_POSITIFS = 0.01;
+    // Marge pour les insertions jusqu'à la prochaine reconstruction
+    private static final int FACTEUR_CROISSANCE = 2;
+    private static final int CAPACITE_MIN = 1024;
+    private static final int FETCH_SIZE = 5000;
+    private static final long PERIODE_RECONSTRUCTION_HEURES = 6;
+
+    private static volatile FiltresExistence instance;
+
+    private volatile FiltreBloom isbns;
+    private volatile FiltreBloom membres;
+
+    // Insertions survenues pendant une reconstruction, rejouées avant la bascule
+    private List<String> journalIsbns;
+    private List<Integer> journalMembres;
+
+    private ScheduledExecutorService planificateur;
+    private boolean reconstructionPlanifiee;
+
+    private FiltresExistence() {
+    }
+
+    public static FiltresExistence getInstance() {
+        if (instance == null) {
+            synchronized (FiltresExistence.class) {
+                if (instance == null) {
+                    instance = new FiltresExistence();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Construit les filtres en arrière-plan puis les reconstruit périodiquement
+     */
+    public synchronized void demarrer() {
+        if (planificateur != null) {
+            return;
+        }
+        planificateur = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "filtres-existence");
+            thread.setDaemon(true);
+            return thread;
+        });
+        planificateur.scheduleWithFixedDelay(this::reconstruire, 0, PERIODE_RECONSTRUCTION_HEURES, TimeUnit.HOURS);
+    }
+
+    /**
+     * false si aucun livre ne porte cet ISBN (certain) ; true si le livre existe peut-être
+     */
+    public boolean isbnPeutExister(String isbn) {
+        if (isbn == null) {
+            return false;
+        }
+        FiltreBloom filtre = isbns;
+        return filtre == null || filtre.peutContenir(cleIsbn(isbn));
+    }
+
+    /**
+     * false si aucun membre ne porte cet ID (certain) ; true si le membre existe peut-être
+     */
+    public boolean membrePeutExister(int membreId) {
+        FiltreBloom filtre = membres;
+        return filtre == null || filtre.peutContenir(membreId);
+    }
+
+    /**
+     * Enregistre l'ISBN d'un livre inséré
+     */
+    public void ajouterIsbn(String isbn) {
+        if (isbn == null) {
+            return;
+        }
+        String cle = cleIsbn(isbn);
+        FiltreBloom filtre;
+        synchronized (this) {
+            filtre = isbns;
+            if (filtre != null) {
+                filtre.ajouter(cle);
+            }
+            if (journalIsbns != null) {
+                journalIsbns.add(cle);
+            }
+        }
+        if (filtre != null && filtre.isSature()) {
+            reconstruireAnticipee();
+        }
+    }
+
+    /**
+     * Enregistre l'ID d'un membre inséré
+     */
+    public void ajouterMembre(int membreId) {
+        FiltreBloom filtre;
+        synchronized (this) {
+            filtre = membres;
+            if (filtre != null) {
+                filtre.ajouter(membreId);
+            }
+            if (journalMembres != null) {
+                journalMembres.add(membreId);
+            }
+        }
+        if (filtre != null && filtre.isSature()) {
+            reconstruireAnticipee();
+        }
+    }
+
+    /**
+     * Reconstruit les deux filtres à partir des tables puis les substitue aux anciens
+     */
+    public void reconstruire() {
+        synchronized (this) {
+            if (journalIsbns != null) {
+                return; // reconstruction déjà en cours
+            }
+            journalIsbns = new ArrayList<>();
+            journalMembres = new ArrayList<>();
+            reconstructionPlanifiee = false;
+        }
+
+        long debut = System.currentTimeMillis();
+        try {
+            FiltreBloom nouveauxIsbns = creer("livres");
+            try (Stream<String> lignes = FluxResultats.ouvrir("SELECT isbn FROM livres WHERE isbn IS NOT NULL",
+                    FETCH_SIZE, rs -> rs.getString(1))) {
+                lignes.forEach(isbn -> nouveauxIsbns.ajouter(cleIsbn(isbn)));
+            }
+
+            FiltreBloom nouveauxMembres = creer("membres");
+            try (Stream<Integer> lignes = FluxResultats.ouvrir("SELECT id FROM membres",
+                    FETCH_SIZE, rs -> rs.getInt(1))) {
+                lignes.forEach(nouveauxMembres::ajouter);
+            }
+
+            synchronized (this) {
+                for (String isbn : journalIsbns) {
+                    nouveauxIsbns.ajouter(isbn);
+                }
+                for (int membreId : journalMembres) {
+                    nouveauxMembres.ajouter(membreId);
+                }
+                isbns = nouveauxIsbns;
+                membres = nouveauxMembres;
+                journalIsbns = null;
+                journalMembres = null;
+            }
+            System.out.println("Filtres d'existence construits: " + nouveauxIsbns.getNombreElements() + " ISBN, "
+                    + nouveauxMembres.getNombreElements() + " membres, "
+                    + (nouveauxIsbns.getTailleOctets() + nouveauxMembres.getTailleOctets()) / 1024 + " Ko en "
+                    + (System.currentTimeMillis() - debut) + " ms");
+        } catch (SQLException | RuntimeException e) {
+            synchronized (this) {
+                journalIsbns = null;
+                journalMembres = null;
+            }
+            System.err.println("Erreur lors de la construction des filtres d'existence: " + e.getMessage());
+        }
+    }
+
+    private void reconstruireAnticipee() {
+        synchronized (this) {
+            if (planificateur == null || reconstructionPlanifiee || journalIsbns != null) {
+                return;
+            }
+            reconstructionPlanifiee = true;
+            planificateur.execute(this::reconstruire);
+        }
+    }
+
+    private static FiltreBloom creer(String table) throws SQLException {
+        long lignes = 0;
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            if (rs.next()) {
+                lignes = rs.getLong(1);
+            }
+        }
+        return new FiltreBloom(Math.max(CAPACITE_MIN, lignes * FACTEUR_CROISSANCE), TAUX_FAUX_POSITIFS);
+    }
+
+    /**
+     * Forme canonique au moins aussi large que l'égalité de la collation (casse, accents, espaces)
+     */
+    private static String cleIsbn(String isbn) {
+        return Normalisation.plier(isbn).trim();
+    }
+}
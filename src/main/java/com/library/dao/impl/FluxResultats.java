@@ -0,0 +1,93 @@
+package com.library.dao.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.library.dao.RowMapper;
+import com.library.util.DatabaseConnection;
+
+/**
+ * Lecture en flux d'une requête : les lignes sont converties au fur et à mesure,
+ * sans jamais matérialiser toute la table en mémoire.
+ * La connexion reste empruntée au pool jusqu'à la fermeture du Stream.
+ */
+final class FluxResultats {
+
+    private FluxResultats() {
+    }
+
+    /**
+     * Exécute la requête et retourne ses lignes sous forme de Stream (à fermer par l'appelant).
+     * @param fetchSize nombre de lignes lues par aller-retour (curseur serveur) ;
+     *                  0 ou négatif pour le streaming ligne à ligne de MySQL
+     */
+    static <T> Stream<T> ouvrir(String sql, int fetchSize, RowMapper<T> mapper) throws SQLException {
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        try {
+            // Statement hors cache : un ResultSet en streaming occupe la connexion
+            stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(fetchSize > 0 ? fetchSize : Integer.MIN_VALUE);
+            rs = stmt.executeQuery();
+        } catch (SQLException e) {
+            fermer(rs, stmt, conn, e);
+            throw e;
+        }
+
+        final ResultSet resultats = rs;
+        final PreparedStatement statement = stmt;
+        Spliterator<T> lignes = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!resultats.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.map(resultats));
+                    return true;
+                } catch (SQLException e) {
+                    throw new RuntimeException("Erreur lors de la lecture en flux", e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(lignes, false).onClose(() -> {
+            SQLException erreur = fermer(resultats, statement, conn, null);
+            if (erreur != null) {
+                throw new RuntimeException("Erreur lors de la fermeture du flux", erreur);
+            }
+        });
+    }
+
+    /**
+     * Ferme les ressources dans l'ordre inverse d'ouverture (la connexion retourne au pool).
+     */
+    private static SQLException fermer(ResultSet rs, PreparedStatement stmt, Connection conn, SQLException erreur) {
+        AutoCloseable[] ressources = {rs, stmt, conn};
+        for (AutoCloseable ressource : ressources) {
+            if (ressource == null) {
+                continue;
+            }
+            try {
+                ressource.close();
+            } catch (Exception e) {
+                SQLException sqle = e instanceof SQLException ? (SQLException) e : new SQLException(e);
+                if (erreur == null) {
+                    erreur = sqle;
+                } else {
+                    erreur.addSuppressed(sqle);
+                }
+            }
+        }
+        return erreur;
+    }
+}
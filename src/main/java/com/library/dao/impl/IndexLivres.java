@@ -0,0 +1,137 @@
+package com.library.dao.impl;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.library.model.Livre;
+import com.library.util.IndexInverse;
+
+/**
+ * Index de recherche des livres sur le titre et l'auteur (singleton).
+ * Alimenté par les écritures de LivreDAOImpl et reconstruit en arrière-plan au démarrage ;
+ * tant qu'il n'est pas prêt, les recherches passent par la base.
+ */
+public final class IndexLivres {
+
+    public static final int CHAMP_TITRE = 0;
+    public static final int CHAMP_AUTEUR = 1;
+
+    // Un mot du titre pèse plus qu'un mot de l'auteur
+    private static final int POIDS_TITRE = 2;
+    private static final int POIDS_AUTEUR = 1;
+    private static final int FETCH_SIZE = 1000;
+
+    private static volatile IndexLivres instance;
+
+    private volatile IndexInverse index = new IndexInverse(POIDS_TITRE, POIDS_AUTEUR);
+    private volatile boolean pret;
+
+    // Écritures survenues pendant une reconstruction (id -> {titre, auteur}, null = suppression)
+    private Map<String, String[]> journal;
+
+    private IndexLivres() {
+    }
+
+    public static IndexLivres getInstance() {
+        if (instance == null) {
+            synchronized (IndexLivres.class) {
+                if (instance == null) {
+                    instance = new IndexLivres();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Indique si l'index a été construit et peut remplacer les LIKE
+     */
+    public boolean isPret() {
+        return pret;
+    }
+
+    /**
+     * Indexe un livre ajouté ou modifié
+     */
+    public synchronized void indexer(Livre livre) {
+        index.ajouter(livre.getId(), livre.getTitre(), livre.getAuteur());
+        if (journal != null) {
+            journal.put(livre.getId(), new String[] {livre.getTitre(), livre.getAuteur()});
+        }
+    }
+
+    /**
+     * Retire un livre supprimé
+     */
+    public synchronized void retirer(String id) {
+        index.retirer(id);
+        if (journal != null) {
+            journal.put(id, null);
+        }
+    }
+
+    /**
+     * IDs des livres correspondant à la requête, du plus pertinent au moins pertinent
+     */
+    public List<String> rechercher(String requete, int champ) {
+        return index.rechercher(requete, 1 << champ);
+    }
+
+    /**
+     * Même recherche en tolérant une ou deux fautes de frappe par mot
+     */
+    public List<String> rechercherApproximatif(String requete, int champ) {
+        return index.rechercherApproximatif(requete, 1 << champ);
+    }
+
+    /**
+     * Lance la reconstruction dans un thread démon
+     */
+    public void reconstruireEnArrierePlan() {
+        Thread thread = new Thread(this::reconstruire, "index-livres");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Reconstruit l'index à partir de la table livres puis le substitue à l'ancien.
+     * Les écritures concurrentes sont rejouées sur le nouvel index avant la bascule.
+     */
+    public void reconstruire() {
+        synchronized (this) {
+            if (journal != null) {
+                return; // reconstruction déjà en cours
+            }
+            journal = new LinkedHashMap<>();
+        }
+
+        long debut = System.currentTimeMillis();
+        IndexInverse nouveau = new IndexInverse(POIDS_TITRE, POIDS_AUTEUR);
+        try (Stream<Livre> livres = new LivreDAOImpl().streamAll(FETCH_SIZE)) {
+            livres.forEach(livre -> nouveau.ajouter(livre.getId(), livre.getTitre(), livre.getAuteur()));
+
+            synchronized (this) {
+                for (Map.Entry<String, String[]> ecriture : journal.entrySet()) {
+                    if (ecriture.getValue() == null) {
+                        nouveau.retirer(ecriture.getKey());
+                    } else {
+                        nouveau.ajouter(ecriture.getKey(), ecriture.getValue());
+                    }
+                }
+                index = nouveau;
+                pret = true;
+                journal = null;
+            }
+            System.out.println("Index des livres construit: " + nouveau.getNombreDocuments() + " livres, "
+                    + nouveau.getNombreTermes() + " mots en " + (System.currentTimeMillis() - debut) + " ms");
+        } catch (SQLException | RuntimeException e) {
+            synchronized (this) {
+                journal = null;
+            }
+            System.err.println("Erreur lors de la construction de l'index des livres: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.library.dao.impl;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import com.library.model.Membre;
+import com.library.util.IndexInverse;
+import com.library.util.IndexSousChaines;
+import com.library.util.Normalisation;
+
+/**
+ * Index de recherche des membres sur le nom, le prénom et l'email (singleton).
+ * Les mots d'au moins trois caractères sont cherchés comme sous-chaînes (trigrammes),
+ * les plus courts comme préfixes de mots. Tenu à jour par MembreDAOImpl
+ * et reconstruit en arrière-plan au démarrage.
+ */
+public final class IndexMembres {
+
+    private static final int CHAMPS_TOUS = 0b111;
+    private static final int FETCH_SIZE = 1000;
+
+    private static volatile IndexMembres instance;
+
+    private volatile IndexInverse prefixes = nouvelIndexPrefixes();
+    private volatile IndexSousChaines sousChaines = new IndexSousChaines();
+    private volatile boolean pret;
+
+    // Écritures survenues pendant une reconstruction (id -> membre, null = suppression)
+    private Map<Integer, Membre> journal;
+
+    private IndexMembres() {
+    }
+
+    public static IndexMembres getInstance() {
+        if (instance == null) {
+            synchronized (IndexMembres.class) {
+                if (instance == null) {
+                    instance = new IndexMembres();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public boolean isPret() {
+        return pret;
+    }
+
+    /**
+     * Indexe un membre ajouté ou modifié
+     */
+    public synchronized void indexer(Membre membre) {
+        indexer(prefixes, sousChaines, membre);
+        if (journal != null) {
+            journal.put(membre.getId(), copie(membre));
+        }
+    }
+
+    /**
+     * Retire un membre supprimé
+     */
+    public synchronized void retirer(int id) {
+        prefixes.retirer(String.valueOf(id));
+        sousChaines.retirer(id);
+        if (journal != null) {
+            journal.put(id, null);
+        }
+    }
+
+    /**
+     * IDs des membres dont le nom, le prénom ou l'email contient chaque mot du mot-clé
+     */
+    public Set<Integer> rechercher(String motCle) {
+        Set<Integer> resultat = null;
+        for (String mot : motCle.trim().split("\\s+")) {
+            if (mot.isEmpty()) {
+                continue;
+            }
+            Set<Integer> ids;
+            if (Normalisation.plier(mot).length() >= IndexSousChaines.LONGUEUR_MIN) {
+                ids = sousChaines.rechercher(mot);
+            } else {
+                ids = new HashSet<>();
+                for (String cle : prefixes.rechercher(mot, CHAMPS_TOUS)) {
+                    ids.add(Integer.valueOf(cle));
+                }
+            }
+            if (resultat == null) {
+                resultat = ids;
+            } else {
+                resultat.retainAll(ids);
+            }
+            if (resultat.isEmpty()) {
+                break;
+            }
+        }
+        return resultat == null ? new HashSet<>() : resultat;
+    }
+
+    /**
+     * Lance la reconstruction dans un thread démon
+     */
+    public void reconstruireEnArrierePlan() {
+        Thread thread = new Thread(this::reconstruire, "index-membres");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Reconstruit l'index à partir de la table membres puis le substitue à l'ancien.
+     * Les écritures concurrentes sont rejouées sur le nouvel index avant la bascule.
+     */
+    public void reconstruire() {
+        synchronized (this) {
+            if (journal != null) {
+                return; // reconstruction déjà en cours
+            }
+            journal = new LinkedHashMap<>();
+        }
+
+        long debut = System.currentTimeMillis();
+        IndexInverse nouveauxPrefixes = nouvelIndexPrefixes();
+        IndexSousChaines nouvellesSousChaines = new IndexSousChaines();
+        try (Stream<Membre> membres = new MembreDAOImpl().streamAll(FETCH_SIZE)) {
+            membres.forEach(membre -> indexer(nouveauxPrefixes, nouvellesSousChaines, membre));
+
+            synchronized (this) {
+                for (Map.Entry<Integer, Membre> ecriture : journal.entrySet()) {
+                    if (ecriture.getValue() == null) {
+                        nouveauxPrefixes.retirer(String.valueOf(ecriture.getKey()));
+                        nouvellesSousChaines.retirer(ecriture.getKey());
+                    } else {
+                        indexer(nouveauxPrefixes, nouvellesSousChaines, ecriture.getValue());
+                    }
+                }
+                prefixes = nouveauxPrefixes;
+                sousChaines = nouvellesSousChaines;
+                pret = true;
+                journal = null;
+            }
+            System.out.println("Index des membres construit: " + nouvellesSousChaines.getNombreDocuments()
+                    + " membres en " + (System.currentTimeMillis() - debut) + " ms");
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                journal = null;
+            }
+            System.err.println("Erreur lors de la construction de l'index des membres: " + e.getMessage());
+        }
+    }
+
+    private static void indexer(IndexInverse prefixes, IndexSousChaines sousChaines, Membre membre) {
+        prefixes.ajouter(String.valueOf(membre.getId()), membre.getNom(), membre.getPrenom(), membre.getEmail());
+        sousChaines.ajouter(membre.getId(), membre.getNom(), membre.getPrenom(), membre.getEmail());
+    }
+
+    private static IndexInverse nouvelIndexPrefixes() {
+        // Poids : nom, prénom, email
+        return new IndexInverse(3, 2, 1);
+    }
+
+    private static Membre copie(Membre membre) {
+        Membre copie = new Membre();
+        copie.setId(membre.getId());
+        copie.setNom(membre.getNom());
+        copie.setPrenom(membre.getPrenom());
+        copie.setEmail(membre.getEmail());
+        copie.setActif(membre.isActif());
+        return copie;
+    }
+}
@@ -1,18 +1,39 @@
 package com.library.dao.impl;
 
 import com.library.dao.LivreDAO;
+import com.library.dao.Page;
+import com.library.dao.RowMapper;
 import com.library.util.DatabaseConnection;
 import com.library.model.Livre;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Implémentation de l'interface LivreDAO pour les opérations CRUD sur les livres.
  */
 public class LivreDAOImpl implements LivreDAO {
 
+    // Colonnes de tri des pages : l'ID départage les titres identiques
+    private static final String[] TRI_TITRE = {"titre", "id"};
+    private static final String[] TRI_AUTEUR = {"auteur", "titre", "id"};
+    // Tris proposés au tableau du catalogue, par propriété de Livre
+    private static final Map<String, Pagination.Tri<Livre>> TRIS = Map.of(
+            "isbn", new Pagination.Tri<Livre>(new String[] {"isbn", "id"},
+                    livre -> new Object[] {livre.getIsbn(), livre.getId()}),
+            "titre", new Pagination.Tri<Livre>(TRI_TITRE,
+                    livre -> new Object[] {livre.getTitre(), livre.getId()}),
+            "auteur", new Pagination.Tri<Livre>(TRI_AUTEUR,
+                    livre -> new Object[] {livre.getAuteur(), livre.getTitre(), livre.getId()}),
+            "anneePublication", new Pagination.Tri<Livre>(new String[] {"annee_publication", "id"},
+                    livre -> new Object[] {livre.getAnneePublication(), livre.getId()}));
+    private static final int TAILLE_LOT_IDS = 1000;
+
     @Override
     public void save(Livre livre) throws SQLException {
         String sql = "INSERT INTO livres (id, isbn, titre, auteur, annee_publication, disponible) VALUES (?, ?, ?, ?, ?, ?)";
@@ -26,17 +47,31 @@ public class LivreDAOImpl implements LivreDAO {
             stmt.setBoolean(6, livre.isDisponible());
             stmt.executeUpdate();
         }
+        livre.marquerPropre();
+        CacheLivres.getInstance().invalider(livre.getId());
+        FiltresExistence.getInstance().ajouterIsbn(livre.getIsbn());
+        IndexLivres.getInstance().indexer(livre);
+        SuggestionsLivres.getInstance().ajouter(livre);
     }
 
     @Override
     public Livre findById(Object id) throws SQLException {
+        CacheLivres cache = CacheLivres.getInstance();
+        Livre enCache = cache.parId((String) id);
+        if (enCache != null) {
+            return enCache;
+        }
+
+        long generation = cache.debutChargement();
         String sql = "SELECT * FROM livres WHERE id = ?";
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, (String) id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToLivre(rs);
+                    Livre livre = new MapperLivre().map(rs);
+                    cache.mettre(livre, generation);
+                    return livre;
                 }
             }
         }
@@ -50,47 +85,123 @@ public class LivreDAOImpl implements LivreDAO {
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
+            RowMapper<Livre> mapper = new MapperLivre();
             while (rs.next()) {
-                livres.add(mapResultSetToLivre(rs));
+                livres.add(mapper.map(rs));
             }
         }
         return livres;
     }
 
+    @Override
+    public Stream<Livre> streamAll(int fetchSize) throws SQLException {
+        return FluxResultats.ouvrir("SELECT * FROM livres ORDER BY id", fetchSize, new MapperLivre());
+    }
+
     @Override
     public void update(Livre livre) throws SQLException {
-        String sql = "UPDATE livres SET titre = ?, auteur = ?, annee_publication = ?, disponible = ? WHERE id = ?";
+        // Seules les colonnes modifiées depuis le chargement sont écrites (l'ISBN n'est pas modifiable)
+        int champs = livre.getChampsModifies() & ~Livre.CHAMP_ISBN;
+        if (champs == 0) {
+            return;
+        }
+
+        List<String> colonnes = new ArrayList<>(4);
+        if ((champs & Livre.CHAMP_TITRE) != 0) {
+            colonnes.add("titre = ?");
+        }
+        if ((champs & Livre.CHAMP_AUTEUR) != 0) {
+            colonnes.add("auteur = ?");
+        }
+        if ((champs & Livre.CHAMP_ANNEE_PUBLICATION) != 0) {
+            colonnes.add("annee_publication = ?");
+        }
+        if ((champs & Livre.CHAMP_DISPONIBLE) != 0) {
+            colonnes.add("disponible = ?");
+        }
+        String sql = "UPDATE livres SET " + String.join(", ", colonnes) + " WHERE id = ?";
+        boolean libellesModifies = (champs & (Livre.CHAMP_TITRE | Livre.CHAMP_AUTEUR)) != 0;
+
+        Livre ancien;
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, livre.getTitre());
-            stmt.setString(2, livre.getAuteur());
-            stmt.setInt(3, livre.getAnneePublication());
-            stmt.setBoolean(4, livre.isDisponible());
-            stmt.setString(5, livre.getId());
+            // Version précédente : ses suggestions sont masquées
+            ancien = libellesModifies ? lireLivre(conn, livre.getId()) : null;
+            int i = 1;
+            if ((champs & Livre.CHAMP_TITRE) != 0) {
+                stmt.setString(i++, livre.getTitre());
+            }
+            if ((champs & Livre.CHAMP_AUTEUR) != 0) {
+                stmt.setString(i++, livre.getAuteur());
+            }
+            if ((champs & Livre.CHAMP_ANNEE_PUBLICATION) != 0) {
+                stmt.setInt(i++, livre.getAnneePublication());
+            }
+            if ((champs & Livre.CHAMP_DISPONIBLE) != 0) {
+                stmt.setBoolean(i++, livre.isDisponible());
+            }
+            stmt.setString(i, livre.getId());
             stmt.executeUpdate();
         }
+        livre.marquerPropre();
+
+        CacheLivres.getInstance().invalider(livre.getId());
+        if (libellesModifies) {
+            IndexLivres.getInstance().indexer(livre);
+            if (ancien != null) {
+                SuggestionsLivres.getInstance().remplacer(ancien, livre);
+            } else {
+                SuggestionsLivres.getInstance().ajouter(livre);
+            }
+        }
     }
 
     @Override
     public void delete(Object id) throws SQLException {
         String sql = "DELETE FROM livres WHERE id = ?";
+        Livre ancien;
+        int lignes;
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
+            ancien = lireLivre(conn, (String) id);
             stmt.setString(1, (String) id);
-            stmt.executeUpdate();
+            lignes = stmt.executeUpdate();
+        }
+        CacheLivres.getInstance().invalider((String) id);
+        IndexLivres.getInstance().retirer((String) id);
+        if (ancien != null && lignes > 0) {
+            SuggestionsLivres.getInstance().retirer(ancien);
+        }
+    }
+
+    /**
+     * Lecture directe en base (sans le cache, dont l'instance peut être celle en cours de modification)
+     */
+    private Livre lireLivre(Connection conn, String id) throws SQLException {
+        String sql = "SELECT * FROM livres WHERE id = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? new MapperLivre().map(rs) : null;
+            }
         }
     }
 
     @Override
     public List<Livre> findByTitre(String titre) throws SQLException {
+        IndexLivres index = IndexLivres.getInstance();
+        if (index.isPret()) {
+            return findByIdsOrdonnes(index.rechercher(titre, IndexLivres.CHAMP_TITRE));
+        }
         List<Livre> livres = new ArrayList<>();
         String sql = "SELECT * FROM livres WHERE titre LIKE ? ORDER BY titre";
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, "%" + titre + "%");
             try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<Livre> mapper = new MapperLivre();
                 while (rs.next()) {
-                    livres.add(mapResultSetToLivre(rs));
+                    livres.add(mapper.map(rs));
                 }
             }
         }
@@ -99,20 +210,43 @@ public class LivreDAOImpl implements LivreDAO {
 
     @Override
     public List<Livre> findByAuteur(String auteur) throws SQLException {
+        IndexLivres index = IndexLivres.getInstance();
+        if (index.isPret()) {
+            return findByIdsOrdonnes(index.rechercher(auteur, IndexLivres.CHAMP_AUTEUR));
+        }
         List<Livre> livres = new ArrayList<>();
         String sql = "SELECT * FROM livres WHERE auteur LIKE ? ORDER BY auteur, titre";
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, "%" + auteur + "%");
             try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<Livre> mapper = new MapperLivre();
                 while (rs.next()) {
-                    livres.add(mapResultSetToLivre(rs));
+                    livres.add(mapper.map(rs));
                 }
             }
         }
         return livres;
     }
 
+    @Override
+    public List<Livre> findByTitreApproximatif(String titre) throws SQLException {
+        IndexLivres index = IndexLivres.getInstance();
+        if (!index.isPret()) {
+            return findByTitre(titre);
+        }
+        return findByIdsOrdonnes(index.rechercherApproximatif(titre, IndexLivres.CHAMP_TITRE));
+    }
+
+    @Override
+    public List<Livre> findByAuteurApproximatif(String auteur) throws SQLException {
+        IndexLivres index = IndexLivres.getInstance();
+        if (!index.isPret()) {
+            return findByAuteur(auteur);
+        }
+        return findByIdsOrdonnes(index.rechercherApproximatif(auteur, IndexLivres.CHAMP_AUTEUR));
+    }
+
     @Override
     public List<Livre> findDisponibles() throws SQLException {
         List<Livre> livres = new ArrayList<>();
@@ -120,8 +254,9 @@ public class LivreDAOImpl implements LivreDAO {
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
+            RowMapper<Livre> mapper = new MapperLivre();
             while (rs.next()) {
-                livres.add(mapResultSetToLivre(rs));
+                livres.add(mapper.map(rs));
             }
         }
         return livres;
@@ -134,22 +269,98 @@ public class LivreDAOImpl implements LivreDAO {
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
+            RowMapper<Livre> mapper = new MapperLivre();
             while (rs.next()) {
-                livres.add(mapResultSetToLivre(rs));
+                livres.add(mapper.map(rs));
             }
         }
         return livres;
     }
 
+    @Override
+    public Page<Livre> findAllPage(String jeton, int taille) throws SQLException {
+        return Pagination.charger("SELECT * FROM livres", Collections.emptyList(), TRI_TITRE, false,
+                jeton, taille, new MapperLivre(), this::cleTitre);
+    }
+
+    @Override
+    public Page<Livre> findAllPage(String tri, boolean decroissant, String jeton, int debut, int taille) throws SQLException {
+        Pagination.Tri<Livre> colonnes = TRIS.get(tri);
+        if (colonnes == null) {
+            throw new IllegalArgumentException("Tri non pris en charge: " + tri);
+        }
+        return Pagination.charger("SELECT * FROM livres", Collections.emptyList(), colonnes, decroissant,
+                jeton, debut, taille, new MapperLivre());
+    }
+
+    @Override
+    public String findRepere(String tri, boolean decroissant, String jeton, int decalage) throws SQLException {
+        Pagination.Tri<Livre> colonnes = TRIS.get(tri);
+        if (colonnes == null) {
+            throw new IllegalArgumentException("Tri non pris en charge: " + tri);
+        }
+        return Pagination.repere("SELECT * FROM livres", Collections.emptyList(), colonnes, decroissant, jeton, decalage);
+    }
+
+    @Override
+    public int countAll() throws SQLException {
+        String sql = "SELECT COUNT(*) FROM livres";
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    @Override
+    public int estimerNombre() throws SQLException {
+        return Pagination.estimerLignes("livres");
+    }
+
+    @Override
+    public Page<Livre> findByTitrePage(String titre, String jeton, int taille) throws SQLException {
+        return Pagination.charger("SELECT * FROM livres WHERE titre LIKE ?", List.of("%" + titre + "%"), TRI_TITRE, false,
+                jeton, taille, new MapperLivre(), this::cleTitre);
+    }
+
+    @Override
+    public Page<Livre> findByAuteurPage(String auteur, String jeton, int taille) throws SQLException {
+        return Pagination.charger("SELECT * FROM livres WHERE auteur LIKE ?", List.of("%" + auteur + "%"), TRI_AUTEUR, false,
+                jeton, taille, new MapperLivre(),
+                livre -> new Object[] {livre.getAuteur(), livre.getTitre(), livre.getId()});
+    }
+
+    @Override
+    public Page<Livre> findDisponiblesPage(String jeton, int taille) throws SQLException {
+        return Pagination.charger("SELECT * FROM livres WHERE disponible = true", Collections.emptyList(), TRI_TITRE, false,
+                jeton, taille, new MapperLivre(), this::cleTitre);
+    }
+
+    private Object[] cleTitre(Livre livre) {
+        return new Object[] {livre.getTitre(), livre.getId()};
+    }
+
     @Override
     public Livre findByIsbn(String isbn) throws SQLException {
+        CacheLivres cache = CacheLivres.getInstance();
+        Livre enCache = cache.parIsbn(isbn);
+        if (enCache != null) {
+            return enCache;
+        }
+        if (!FiltresExistence.getInstance().isbnPeutExister(isbn)) {
+            return null;
+        }
+
+        long generation = cache.debutChargement();
         String sql = "SELECT * FROM livres WHERE isbn = ?";
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, isbn);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToLivre(rs);
+                    Livre livre = new MapperLivre().map(rs);
+                    cache.mettre(livre, generation);
+                    return livre;
                 }
             }
         }
@@ -157,12 +368,36 @@ public class LivreDAOImpl implements LivreDAO {
     }
 
     /**
-     * Méthode utilitaire pour mapper un ResultSet à un objet Livre.
+     * Charge les livres désignés par l'index, dans l'ordre de pertinence.
      */
-    private Livre mapResultSetToLivre(ResultSet rs) throws SQLException {
-        Livre livre = new Livre(rs.getString("id"), rs.getString("isbn"), rs.getString("titre"), rs.getString("auteur"), rs.getInt("annee_publication"), rs.getBoolean("disponible"));
-        livre.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-        livre.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
-        return livre;
+    private List<Livre> findByIdsOrdonnes(List<String> ids) throws SQLException {
+        Map<String, Livre> parId = new HashMap<>();
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            for (int debut = 0; debut < ids.size(); debut += TAILLE_LOT_IDS) {
+                List<String> lot = ids.subList(debut, Math.min(debut + TAILLE_LOT_IDS, ids.size()));
+                String sql = "SELECT * FROM livres WHERE id IN (" + String.join(", ", Collections.nCopies(lot.size(), "?")) + ")";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < lot.size(); i++) {
+                        stmt.setString(i + 1, lot.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        RowMapper<Livre> mapper = new MapperLivre();
+                        while (rs.next()) {
+                            Livre livre = mapper.map(rs);
+                            parId.put(livre.getId(), livre);
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Livre> livres = new ArrayList<>(parId.size());
+        for (String id : ids) {
+            Livre livre = parId.get(id);
+            if (livre != null) {
+                livres.add(livre);
+            }
+        }
+        return livres;
     }
 }
@@ -0,0 +1,55 @@
+package com.library.dao.impl;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import com.library.dao.RowMapper;
+import com.library.model.Emprunt;
+import com.library.util.Centimes;
+import com.library.util.DateUtils;
+
+/**
+ * Conversion d'une ligne de la table emprunts. Les index de colonnes sont résolus
+ * une fois par ResultSet : une instance par requête.
+ */
+final class MapperEmprunt implements RowMapper<Emprunt> {
+
+    private ResultSet resolu;
+    private int id;
+    private int idLivre;
+    private int idMembre;
+    private int dateEmprunt;
+    private int dateRetourPrevue;
+    private int dateRetourEffective;
+    private int penalite;
+    private int penaliteCourue;
+
+    @Override
+    public Emprunt map(ResultSet rs) throws SQLException {
+        if (rs != resolu) {
+            resoudre(rs);
+        }
+        Emprunt emprunt = new Emprunt();
+        emprunt.setId(rs.getInt(id));
+        emprunt.setIdLivre(rs.getString(idLivre));
+        emprunt.setIdMembre(rs.getInt(idMembre));
+        emprunt.setJourEmprunt(DateUtils.versJour(rs.getDate(dateEmprunt)));
+        emprunt.setJourRetourPrevue(DateUtils.versJour(rs.getDate(dateRetourPrevue)));
+        emprunt.setJourRetourEffective(DateUtils.versJour(rs.getDate(dateRetourEffective)));
+        emprunt.setPenaliteCentimes(Centimes.depuis(rs.getBigDecimal(penalite)));
+        emprunt.setPenaliteCourueCentimes(Centimes.depuis(rs.getBigDecimal(penaliteCourue)));
+        return emprunt;
+    }
+
+    private void resoudre(ResultSet rs) throws SQLException {
+        id = rs.findColumn("id");
+        idLivre = rs.findColumn("id_livre");
+        idMembre = rs.findColumn("id_membre");
+        dateEmprunt = rs.findColumn("date_emprunt");
+        dateRetourPrevue = rs.findColumn("date_retour_prevue");
+        dateRetourEffective = rs.findColumn("date_retour_effective");
+        penalite = rs.findColumn("penalite");
+        penaliteCourue = rs.findColumn("penalite_courue");
+        resolu = rs;
+    }
+}
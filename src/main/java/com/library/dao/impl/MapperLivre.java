@@ -0,0 +1,52 @@
+package com.library.dao.impl;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import com.library.dao.RowMapper;
+import com.library.model.Livre;
+
+/**
+ * Conversion d'une ligne de la table livres. Les index de colonnes sont résolus
+ * une fois par ResultSet : une instance par requête.
+ */
+final class MapperLivre implements RowMapper<Livre> {
+
+    private ResultSet resolu;
+    private int id;
+    private int isbn;
+    private int titre;
+    private int auteur;
+    private int anneePublication;
+    private int disponible;
+    private int createdAt;
+    private int updatedAt;
+
+    @Override
+    public Livre map(ResultSet rs) throws SQLException {
+        if (rs != resolu) {
+            resoudre(rs);
+        }
+        return Livre.depuisBase(rs.getString(id), rs.getString(isbn), rs.getString(titre), rs.getString(auteur),
+                rs.getInt(anneePublication), rs.getBoolean(disponible),
+                horodatage(rs.getTimestamp(createdAt)), horodatage(rs.getTimestamp(updatedAt)));
+    }
+
+    private void resoudre(ResultSet rs) throws SQLException {
+        id = rs.findColumn("id");
+        isbn = rs.findColumn("isbn");
+        titre = rs.findColumn("titre");
+        auteur = rs.findColumn("auteur");
+        anneePublication = rs.findColumn("annee_publication");
+        disponible = rs.findColumn("disponible");
+        createdAt = rs.findColumn("created_at");
+        updatedAt = rs.findColumn("updated_at");
+        resolu = rs;
+    }
+
+    private static LocalDateTime horodatage(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
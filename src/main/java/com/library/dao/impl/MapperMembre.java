@@ -0,0 +1,45 @@
+package com.library.dao.impl;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import com.library.dao.RowMapper;
+import com.library.model.Membre;
+
+/**
+ * Conversion d'une ligne de la table membres. Les index de colonnes sont résolus
+ * une fois par ResultSet : une instance par requête.
+ */
+final class MapperMembre implements RowMapper<Membre> {
+
+    private ResultSet resolu;
+    private int id;
+    private int nom;
+    private int prenom;
+    private int email;
+    private int actif;
+
+    @Override
+    public Membre map(ResultSet rs) throws SQLException {
+        if (rs != resolu) {
+            resoudre(rs);
+        }
+        Membre membre = new Membre();
+        membre.setId(rs.getInt(id));
+        membre.setNom(rs.getString(nom));
+        membre.setPrenom(rs.getString(prenom));
+        membre.setEmail(rs.getString(email));
+        membre.setActif(rs.getBoolean(actif));
+        membre.marquerPropre();
+        return membre;
+    }
+
+    private void resoudre(ResultSet rs) throws SQLException {
+        id = rs.findColumn("id");
+        nom = rs.findColumn("nom");
+        prenom = rs.findColumn("prenom");
+        email = rs.findColumn("email");
+        actif = rs.findColumn("actif");
+        resolu = rs;
+    }
+}
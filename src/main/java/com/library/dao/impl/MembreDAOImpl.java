@@ -2,44 +2,35 @@ package com.library.dao.impl;
 
 import java.sql.Connection;
 import java.sql.Date;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import com.library.dao.MembreDAO;
+import com.library.dao.Page;
+import com.library.dao.RowMapper;
 import com.library.model.Emprunt;
 import com.library.model.Membre;
 import com.library.util.DatabaseConnection;
+import com.library.util.Normalisation;
 
 public class MembreDAOImpl implements MembreDAO {
-    
-    private Connection connection;
-    
-    public MembreDAOImpl() throws SQLException{
-        this.connection= DatabaseConnection.getInstance().getConnection();
-    }
-    
-    private Membre extractMembreFromResultSet(ResultSet rs) throws SQLException {
-        Membre membre = new Membre();
-        membre.setId(rs.getInt("id")); // IMPORTANT : Récupérer l'ID
-        membre.setNom(rs.getString("nom"));
-        membre.setPrenom(rs.getString("prenom"));
-        membre.setEmail(rs.getString("email"));
-        membre.setActif(rs.getBoolean("actif"));
-        
-        return membre;
-    }
+
+    private static final int TAILLE_LOT_IDS = 1000;
 
     @Override
     public Membre save(Membre membre) {
         String sql = "INSERT INTO membres (nom, prenom, email, actif) VALUES (?, ?, ?, ?)";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setString(1, membre.getNom());
             stmt.setString(2, membre.getPrenom());
             stmt.setString(3, membre.getEmail());
@@ -53,6 +44,9 @@ public class MembreDAOImpl implements MembreDAO {
                         membre.setId(generatedKeys.getInt(1));
                     }
                 }
+                membre.marquerPropre();
+                FiltresExistence.getInstance().ajouterMembre(membre.getId());
+                IndexMembres.getInstance().indexer(membre);
             }
         return membre;
         } catch (SQLException e) {
@@ -64,12 +58,13 @@ public class MembreDAOImpl implements MembreDAO {
     public Optional<Membre> findById(int id) {
         String sql = "SELECT * FROM membres WHERE id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
             ResultSet rs = stmt.executeQuery();
             
             if (rs.next()) {
-                return Optional.of(extractMembreFromResultSet(rs));
+                return Optional.of(new MapperMembre().map(rs));
             }
             return Optional.empty();
         } catch (SQLException e) {
@@ -82,11 +77,13 @@ public class MembreDAOImpl implements MembreDAO {
         String sql = "SELECT * FROM membres ORDER BY nom, prenom";
         List<Membre> membres = new ArrayList<>();
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql);
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             
+            RowMapper<Membre> mapper = new MapperMembre();
             while (rs.next()) {
-                membres.add(extractMembreFromResultSet(rs));
+                membres.add(mapper.map(rs));
             }
             return membres;
         } catch (SQLException e) {
@@ -94,27 +91,97 @@ public class MembreDAOImpl implements MembreDAO {
         }
     }
 
+    @Override
+    public Stream<Membre> streamAll(int fetchSize) {
+        try {
+            return FluxResultats.ouvrir("SELECT * FROM membres ORDER BY id", fetchSize, new MapperMembre());
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors de la lecture des membres", e);
+        }
+    }
+
+    @Override
+    public Page<Membre> findAllPage(String jeton, int taille) {
+        try {
+            return Pagination.charger("SELECT * FROM membres", Collections.emptyList(),
+                    new String[] {"nom", "prenom", "id"}, false, jeton, taille, new MapperMembre(),
+                    membre -> new Object[] {membre.getNom(), membre.getPrenom(), membre.getId()});
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors de la récupération des membres", e);
+        }
+    }
+
     @Override
     public Membre update(Membre membre) {
-        String sql = "UPDATE membres SET nom = ?, prenom = ?, email = ?, actif = ? WHERE id = ?";
+        // Seules les colonnes modifiées depuis le chargement sont écrites
+        int champs = membre.getChampsModifies();
+        if (champs == 0) {
+            // Rien à écrire : le membre doit tout de même exister
+            if (!existe(membre.getId())) {
+                throw new RuntimeException("Aucun membre trouvé avec l'ID: " + membre.getId());
+            }
+            return membre;
+        }
+
+        List<String> colonnes = new ArrayList<>(4);
+        if ((champs & Membre.CHAMP_NOM) != 0) {
+            colonnes.add("nom = ?");
+        }
+        if ((champs & Membre.CHAMP_PRENOM) != 0) {
+            colonnes.add("prenom = ?");
+        }
+        if ((champs & Membre.CHAMP_EMAIL) != 0) {
+            colonnes.add("email = ?");
+        }
+        if ((champs & Membre.CHAMP_ACTIF) != 0) {
+            colonnes.add("actif = ?");
+        }
+        String sql = "UPDATE membres SET " + String.join(", ", colonnes) + " WHERE id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, membre.getNom());
-            stmt.setString(2, membre.getPrenom());
-            stmt.setString(3, membre.getEmail());
-            stmt.setBoolean(4, membre.isActif());
-            stmt.setInt(5, membre.getId()); // Ajout de l'ID pour la clause WHERE
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int i = 1;
+            if ((champs & Membre.CHAMP_NOM) != 0) {
+                stmt.setString(i++, membre.getNom());
+            }
+            if ((champs & Membre.CHAMP_PRENOM) != 0) {
+                stmt.setString(i++, membre.getPrenom());
+            }
+            if ((champs & Membre.CHAMP_EMAIL) != 0) {
+                stmt.setString(i++, membre.getEmail());
+            }
+            if ((champs & Membre.CHAMP_ACTIF) != 0) {
+                stmt.setBoolean(i++, membre.isActif());
+            }
+            stmt.setInt(i, membre.getId()); // Ajout de l'ID pour la clause WHERE
             
             int rowsAffected = stmt.executeUpdate();
             if (rowsAffected == 0) {
                 throw new RuntimeException("Aucun membre trouvé avec l'ID: " + membre.getId());
             }
+            membre.marquerPropre();
+            if ((champs & (Membre.CHAMP_NOM | Membre.CHAMP_PRENOM | Membre.CHAMP_EMAIL)) != 0) {
+                IndexMembres.getInstance().indexer(membre);
+            }
         return membre;
         } catch (SQLException e) {
             throw new RuntimeException("Erreur lors de la modification du membre", e);
         }
     }
 
+    private boolean existe(int id) {
+        String sql = "SELECT 1 FROM membres WHERE id = ?";
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors de la vérification du membre", e);
+        }
+    }
+
     @Override
     public Membre delete(int id) {
         Optional<Membre> membreOpt = findById(id);
@@ -124,12 +191,14 @@ public class MembreDAOImpl implements MembreDAO {
         Membre membre = membreOpt.get();
         String sql = "DELETE FROM membres WHERE id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
             int rowsAffected = stmt.executeUpdate();
             if (rowsAffected == 0) {
                 throw new RuntimeException("Aucun membre trouvé avec l'ID: " + id);
             }
+            IndexMembres.getInstance().retirer(id);
             return membre;
         } catch (SQLException e) {
             throw new RuntimeException("Erreur lors de la suppression du membre"+ e.getMessage(), e);
@@ -140,12 +209,13 @@ public class MembreDAOImpl implements MembreDAO {
     public Optional<Membre> findByEmail(String email) {
         String sql = "SELECT * FROM membres WHERE email = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, email);
             ResultSet rs = stmt.executeQuery();
             
             if (rs.next()) {
-                return Optional.of(extractMembreFromResultSet(rs));
+                return Optional.of(new MapperMembre().map(rs));
             }
             return Optional.empty();
         } catch (SQLException e) {
@@ -158,11 +228,13 @@ public class MembreDAOImpl implements MembreDAO {
         String sql = "SELECT * FROM membres WHERE actif = true ORDER BY nom, prenom";
         List<Membre> membres = new ArrayList<>();
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql);
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             
+            RowMapper<Membre> mapper = new MapperMembre();
             while (rs.next()) {
-                membres.add(extractMembreFromResultSet(rs));
+                membres.add(mapper.map(rs));
             }
             return membres;
         } catch (SQLException e) {
@@ -174,12 +246,14 @@ public class MembreDAOImpl implements MembreDAO {
         String sql = "SELECT * FROM membres WHERE nom LIKE ? ORDER BY nom, prenom";
         List<Membre> membres = new ArrayList<>();
         
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, "%" + nom + "%");
             
             try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<Membre> mapper = new MapperMembre();
                 while (rs.next()) {
-                    membres.add(mapResultSetToMembre(rs));
+                    membres.add(mapper.map(rs));
                 }
             }
         } catch (SQLException e) {
@@ -214,7 +288,8 @@ public class MembreDAOImpl implements MembreDAO {
         
         List<Emprunt> emprunts = new ArrayList<>();
         
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, membreId);
             
             try (ResultSet rs = stmt.executeQuery()) {
@@ -237,7 +312,8 @@ public class MembreDAOImpl implements MembreDAO {
         
         List<Emprunt> emprunts = new ArrayList<>();
         
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, membreId);
             
             try (ResultSet rs = stmt.executeQuery()) {
@@ -253,6 +329,12 @@ public class MembreDAOImpl implements MembreDAO {
     
     @Override
     public List<Membre> rechercherMembres(String keyword) {
+        IndexMembres index = IndexMembres.getInstance();
+        if (index.isPret()) {
+            return findByIds(new ArrayList<>(index.rechercher(keyword)));
+        }
+
+        // Index pas encore construit : recherche directe en base
         String sql = "SELECT * FROM membres WHERE " +
                     "LOWER(nom) LIKE LOWER(?) OR " +
                     "LOWER(prenom) LIKE LOWER(?) OR " +
@@ -262,7 +344,8 @@ public class MembreDAOImpl implements MembreDAO {
         
         List<Membre> membres = new ArrayList<>();
         
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             String searchTerm = "%" + keyword + "%";
             stmt.setString(1, searchTerm);
             stmt.setString(2, searchTerm);
@@ -270,8 +353,9 @@ public class MembreDAOImpl implements MembreDAO {
             stmt.setString(4, searchTerm);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<Membre> mapper = new MapperMembre();
                 while (rs.next()) {
-                    membres.add(mapResultSetToMembre(rs));
+                    membres.add(mapper.map(rs));
                 }
             }
         } catch (SQLException e) {
@@ -280,16 +364,36 @@ public class MembreDAOImpl implements MembreDAO {
         return membres;
     }
     
-    // votre méthode mapResultSetToMembre existante
-    private Membre mapResultSetToMembre(ResultSet rs) throws SQLException {
-        Membre membre = new Membre();
-        membre.setId(rs.getInt("id"));
-        membre.setNom(rs.getString("nom"));
-        membre.setPrenom(rs.getString("prenom"));
-        membre.setEmail(rs.getString("email"));
-        membre.setActif(rs.getBoolean("actif"));
-        return membre;
+    /**
+     * Charge les membres désignés par l'index, triés par nom et prénom
+     */
+    private List<Membre> findByIds(List<Integer> ids) {
+        List<Membre> membres = new ArrayList<>();
+        try (Connection conn = getConnection()) {
+            for (int debut = 0; debut < ids.size(); debut += TAILLE_LOT_IDS) {
+                List<Integer> lot = ids.subList(debut, Math.min(debut + TAILLE_LOT_IDS, ids.size()));
+                String sql = "SELECT * FROM membres WHERE id IN (" + String.join(", ", Collections.nCopies(lot.size(), "?")) + ")";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < lot.size(); i++) {
+                        stmt.setInt(i + 1, lot.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        RowMapper<Membre> mapper = new MapperMembre();
+                        while (rs.next()) {
+                            membres.add(mapper.map(rs));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors de la recherche: " + e.getMessage(), e);
+        }
+        membres.sort(Comparator.comparing((Membre m) -> Normalisation.plier(m.getNom()))
+                .thenComparing(m -> Normalisation.plier(m.getPrenom()))
+                .thenComparingInt(Membre::getId));
+        return membres;
     }
+
     
     private Connection getConnection() throws SQLException {
     // use the project's DatabaseConnection singleton (no hard-coded credentials)
@@ -0,0 +1,264 @@
+package com.library.dao.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import com.library.dao.Page;
+import com.library.dao.RowMapper;
+import com.library.util.DatabaseConnection;
+
+/**
+ * Pagination par clé (seek) : chaque page reprend après la dernière ligne de la précédente
+ * au lieu d'un OFFSET, de sorte qu'une page profonde coûte autant que la première.
+ * Pour un accès direct loin du début, un repère (jeton d'une ligne donnée) se lit sur les seules
+ * colonnes de tri à partir du jeton connu le plus proche ; les pages voisines reprennent ensuite
+ * à ce repère et ne sautent que les lignes restantes.
+ * Les colonnes de tri doivent être non nulles et se terminer par la clé primaire.
+ */
+final class Pagination {
+
+    private static final int TAILLE_MAX = 500;
+    // En dessous, le nombre de lignes estimé est remplacé par un COUNT(*) exact, peu coûteux
+    private static final long SEUIL_COMPTAGE_EXACT = 100_000;
+
+    private Pagination() {
+    }
+
+    /**
+     * Tri proposé à l'interface : colonnes SQL (non nulles, terminées par la clé primaire)
+     * et valeurs de ces colonnes pour un élément
+     */
+    static final class Tri<T> {
+        final String[] colonnes;
+        final Function<T, Object[]> cle;
+
+        Tri(String[] colonnes, Function<T, Object[]> cle) {
+            this.colonnes = colonnes;
+            this.cle = cle;
+        }
+    }
+
+    /**
+     * Charge une page selon un tri nommé, en sautant debut lignes après le jeton
+     * (ou depuis le début sans jeton) : l'OFFSET ne couvre que l'écart au dernier jeton ou repère connu.
+     */
+    static <T> Page<T> charger(String select, List<Object> params, Tri<T> tri, boolean decroissant,
+                               String jeton, int debut, int taille, RowMapper<T> mapper) throws SQLException {
+        return charger(select, params, tri.colonnes, decroissant, jeton, debut, taille, mapper, tri.cle);
+    }
+
+    static <T> Page<T> charger(String select, List<Object> params, String[] colonnes, boolean decroissant,
+                               String jeton, int taille, RowMapper<T> mapper,
+                               Function<T, Object[]> cle) throws SQLException {
+        return charger(select, params, colonnes, decroissant, jeton, 0, taille, mapper, cle);
+    }
+
+    /**
+     * Repère d'accès direct : le jeton menant à la ligne située decalage lignes après le jeton
+     * (après le début de la liste sans jeton), null si la liste est plus courte.
+     * Seules les colonnes de tri sont lues : l'écart se parcourt dans l'index, sans charger les lignes.
+     */
+    static <T> String repere(String select, List<Object> params, Tri<T> tri, boolean decroissant,
+                             String jeton, int decalage) throws SQLException {
+        if (decalage <= 0) {
+            throw new IllegalArgumentException("Position de repère invalide: " + decalage);
+        }
+        StringBuilder sql = new StringBuilder("SELECT ").append(String.join(", ", tri.colonnes))
+                .append(" FROM (").append(select).append(") base");
+        List<Object> valeurs = new ArrayList<>(params);
+        if (jeton != null) {
+            Object[] derniere = decoder(jeton, tri.colonnes.length);
+            sql.append(" WHERE ").append(predicatApres(tri.colonnes, decroissant, derniere, valeurs));
+        }
+        // Le jeton menant à une ligne est la clé de la ligne qui la précède
+        sql.append(" ORDER BY ").append(ordre(tri.colonnes, decroissant)).append(" LIMIT 1 OFFSET ?");
+        valeurs.add(decalage - 1);
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < valeurs.size(); i++) {
+                stmt.setObject(i + 1, valeurs.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                Object[] cle = new Object[tri.colonnes.length];
+                for (int i = 0; i < cle.length; i++) {
+                    cle[i] = rs.getObject(i + 1);
+                }
+                return encoder(cle);
+            }
+        }
+    }
+
+    /**
+     * Nombre de lignes d'une table d'après les statistiques InnoDB (sans parcours), remplacé par
+     * un comptage exact pour les petites tables. L'estimation peut s'écarter du nombre réel :
+     * les listes paginées corrigent leur taille en atteignant la fin de la table.
+     */
+    static int estimerLignes(String table) throws SQLException {
+        String sqlEstimation = "SELECT TABLE_ROWS FROM information_schema.TABLES " +
+                               "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            long estimation = -1;
+            try (PreparedStatement stmt = conn.prepareStatement(sqlEstimation)) {
+                stmt.setString(1, table);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        estimation = rs.getLong(1);
+                    }
+                }
+            }
+            if (estimation >= SEUIL_COMPTAGE_EXACT) {
+                return (int) Math.min(Integer.MAX_VALUE, estimation);
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) FROM " + table);
+                 ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Charge une page.
+     * @param select    requête sans ORDER BY, avec ou sans clause WHERE
+     * @param params    paramètres de la requête de base
+     * @param colonnes  colonnes de tri, la dernière étant l'identifiant
+     * @param decroissant tri décroissant sur toutes les colonnes
+     * @param debut     lignes sautées après le jeton, ou depuis le début sans jeton
+     * @param cle       valeurs des colonnes de tri pour un élément (String, Integer ou Date)
+     */
+    private static <T> Page<T> charger(String select, List<Object> params, String[] colonnes, boolean decroissant,
+                                       String jeton, int debut, int taille, RowMapper<T> mapper,
+                                       Function<T, Object[]> cle) throws SQLException {
+        if (taille <= 0 || taille > TAILLE_MAX) {
+            throw new IllegalArgumentException("Taille de page invalide: " + taille);
+        }
+        if (debut < 0) {
+            throw new IllegalArgumentException("Position de page invalide: " + debut);
+        }
+
+        StringBuilder sql = new StringBuilder(select);
+        List<Object> valeurs = new ArrayList<>(params);
+
+        if (jeton != null) {
+            Object[] derniere = decoder(jeton, colonnes.length);
+            sql.append(select.toUpperCase().contains(" WHERE ") ? " AND " : " WHERE ");
+            sql.append(predicatApres(colonnes, decroissant, derniere, valeurs));
+        }
+
+        sql.append(" ORDER BY ").append(ordre(colonnes, decroissant));
+        sql.append(" LIMIT ?");
+        valeurs.add(taille + 1);
+        if (debut > 0) {
+            sql.append(" OFFSET ?");
+            valeurs.add(debut);
+        }
+
+        List<T> elements = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < valeurs.size(); i++) {
+                stmt.setObject(i + 1, valeurs.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    elements.add(mapper.map(rs));
+                }
+            }
+        }
+
+        // Une ligne de plus que demandé indique qu'une page suivante existe
+        String suivant = null;
+        if (elements.size() > taille) {
+            elements.remove(taille);
+            suivant = encoder(cle.apply(elements.get(taille - 1)));
+        }
+        return new Page<>(elements, suivant);
+    }
+
+    private static String ordre(String[] colonnes, boolean decroissant) {
+        StringBuilder ordre = new StringBuilder();
+        for (int i = 0; i < colonnes.length; i++) {
+            ordre.append(i > 0 ? ", " : "").append(colonnes[i]).append(decroissant ? " DESC" : "");
+        }
+        return ordre.toString();
+    }
+
+    /**
+     * (c1 > ?) OR (c1 = ? AND c2 > ?) OR ... : forme développée, exploitable par l'index
+     */
+    private static String predicatApres(String[] colonnes, boolean decroissant, Object[] derniere,
+                                        List<Object> valeurs) {
+        String comparaison = decroissant ? " < ?" : " > ?";
+        StringBuilder predicat = new StringBuilder("(");
+        for (int i = 0; i < colonnes.length; i++) {
+            predicat.append(i > 0 ? " OR (" : "(");
+            for (int j = 0; j < i; j++) {
+                predicat.append(colonnes[j]).append(" = ? AND ");
+                valeurs.add(derniere[j]);
+            }
+            predicat.append(colonnes[i]).append(comparaison).append(')');
+            valeurs.add(derniere[i]);
+        }
+        return predicat.append(')').toString();
+    }
+
+    private static String encoder(Object[] cle) {
+        try {
+            ByteArrayOutputStream octets = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(octets);
+            out.writeByte(cle.length);
+            for (Object valeur : cle) {
+                if (valeur instanceof Integer) {
+                    out.writeByte('I');
+                    out.writeInt((Integer) valeur);
+                } else if (valeur instanceof Date) {
+                    out.writeByte('D');
+                    out.writeLong(((Date) valeur).toLocalDate().toEpochDay());
+                } else {
+                    out.writeByte('S');
+                    out.writeUTF(String.valueOf(valeur));
+                }
+            }
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(octets.toByteArray());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object[] decoder(String jeton, int nbColonnes) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(jeton)));
+            if (in.readByte() != nbColonnes) {
+                throw new IllegalArgumentException("Jeton de pagination invalide");
+            }
+            Object[] cle = new Object[nbColonnes];
+            for (int i = 0; i < nbColonnes; i++) {
+                switch (in.readByte()) {
+                    case 'I': cle[i] = in.readInt(); break;
+                    case 'D': cle[i] = Date.valueOf(LocalDate.ofEpochDay(in.readLong())); break;
+                    case 'S': cle[i] = in.readUTF(); break;
+                    default: throw new IllegalArgumentException("Jeton de pagination invalide");
+                }
+            }
+            return cle;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Jeton de pagination invalide", e);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.library.dao.impl;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.library.util.Centimes;
+import com.library.util.DatabaseConnection;
+
+/**
+ * Agrégats des emprunts (singleton) : total, en cours, retours, retours à temps et somme des pénalités.
+ * Les transactions d'écriture de EmpruntDAOImpl ne touchent pas la ligne statistiques_emprunts :
+ * après leur commit, leur variation s'ajoute aux valeurs en mémoire et à une variation en attente,
+ * reportée dans la ligne (id = 1) à chaque point de contrôle périodique et à l'arrêt.
+ * La ligne est donc un point de contrôle : elle sert à démarrer et à intégrer les écritures des autres
+ * instances, au prix des variations perdues si une instance s'arrête brutalement ; le recalcul SQL la rétablit.
+ * Les valeurs servent d'ordre de grandeur (taille des listes paginées), pas de comptage exact.
+ */
+public final class StatistiquesEmprunts {
+
+    private static final long PERIODE_POINT_CONTROLE_SECONDES = 60;
+
+    private static volatile StatistiquesEmprunts instance;
+
+    private long totalEmprunts;
+    private long empruntsEnCours;
+    private long retours;
+    private long retoursATemps;
+    private long penalitesCentimes;
+
+    private boolean pret;
+    // Variations commitées par cette instance et pas encore reportées dans la ligne
+    private VariationStatistiques enAttente = new VariationStatistiques();
+    // Sérialise les accès à la ligne (point de contrôle, relecture, recalcul) sans bloquer appliquer()
+    private final Object verrouLigne = new Object();
+    private ScheduledExecutorService planificateur;
+
+    private StatistiquesEmprunts() {
+    }
+
+    public static StatistiquesEmprunts getInstance() {
+        if (instance == null) {
+            synchronized (StatistiquesEmprunts.class) {
+                if (instance == null) {
+                    instance = new StatistiquesEmprunts();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Lit la ligne des agrégats (recalculée si elle n'existe pas encore), puis y reporte périodiquement
+     * les variations en attente avant de la relire
+     */
+    public synchronized void demarrer() {
+        if (planificateur != null) {
+            return;
+        }
+        planificateur = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "statistiques-emprunts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        planificateur.execute(() -> {
+            if (!relire()) {
+                recalculer();
+            }
+        });
+        planificateur.scheduleWithFixedDelay(() -> {
+            pointDeControle();
+            relire();
+        }, PERIODE_POINT_CONTROLE_SECONDES, PERIODE_POINT_CONTROLE_SECONDES, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Arrête les points de contrôle périodiques et reporte les variations en attente
+     */
+    public void arreter() {
+        synchronized (this) {
+            if (planificateur == null) {
+                return;
+            }
+            planificateur.shutdownNow();
+            planificateur = null;
+        }
+        pointDeControle();
+    }
+
+    /**
+     * Reporte en mémoire une variation commitée ; elle rejoint la ligne au prochain point de contrôle
+     */
+    synchronized void appliquer(VariationStatistiques variation) {
+        if (variation.isVide()) {
+            return;
+        }
+        totalEmprunts += variation.totalEmprunts;
+        empruntsEnCours += variation.empruntsEnCours;
+        retours += variation.retours;
+        retoursATemps += variation.retoursATemps;
+        penalitesCentimes += variation.penalitesCentimes;
+        enAttente.ajouter(variation);
+    }
+
+    public synchronized boolean isPret() {
+        return pret;
+    }
+
+    public synchronized long getTotalEmprunts() {
+        return totalEmprunts;
+    }
+
+    public synchronized long getEmpruntsEnCours() {
+        return empruntsEnCours;
+    }
+
+    public synchronized long getRetours() {
+        return retours;
+    }
+
+    public synchronized long getRetoursATemps() {
+        return retoursATemps;
+    }
+
+    public synchronized BigDecimal getTotalPenalites() {
+        return Centimes.versMontant(penalitesCentimes);
+    }
+
+    /**
+     * Pourcentage des retours effectués au plus tard à la date prévue
+     */
+    public synchronized double getTauxRetourATemps() {
+        return retours > 0 ? (double) retoursATemps / retours * 100 : 0;
+    }
+
+    /**
+     * Ajoute à la ligne des agrégats les variations en attente, en une mise à jour courte.
+     * En cas d'échec, elles restent en attente pour le point de contrôle suivant.
+     * @return true si rien ne reste en attente
+     */
+    public boolean pointDeControle() {
+        String sql = "UPDATE statistiques_emprunts SET total_emprunts = total_emprunts + ?, " +
+                     "emprunts_en_cours = emprunts_en_cours + ?, retours = retours + ?, " +
+                     "retours_a_temps = retours_a_temps + ?, total_penalites = total_penalites + ? WHERE id = 1";
+        synchronized (verrouLigne) {
+            VariationStatistiques variation;
+            synchronized (this) {
+                variation = enAttente;
+                enAttente = new VariationStatistiques();
+            }
+            if (variation.isVide()) {
+                return true;
+            }
+            try (Connection conn = DatabaseConnection.getInstance().getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setLong(1, variation.totalEmprunts);
+                stmt.setLong(2, variation.empruntsEnCours);
+                stmt.setLong(3, variation.retours);
+                stmt.setLong(4, variation.retoursATemps);
+                stmt.setBigDecimal(5, Centimes.versMontant(variation.penalitesCentimes));
+                if (stmt.executeUpdate() > 0) {
+                    return true;
+                }
+                System.err.println("Point de contrôle des statistiques d'emprunts: ligne absente");
+            } catch (SQLException e) {
+                System.err.println("Erreur lors du point de contrôle des statistiques d'emprunts: " + e.getMessage());
+            }
+            synchronized (this) {
+                enAttente.ajouter(variation);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Recalcule la ligne des agrégats en une requête SQL, puis relit les valeurs en mémoire.
+     * La ligne est verrouillée pendant le calcul, ce qui fait attendre les points de contrôle
+     * des autres instances. Les variations en attente de cette instance sont abandonnées :
+     * l'agrégat SQL contient déjà leurs écritures commitées.
+     * @return true si la ligne a été recalculée
+     */
+    public boolean recalculer() {
+        String sqlCreer = "INSERT IGNORE INTO statistiques_emprunts (id, total_emprunts, emprunts_en_cours, " +
+                          "retours, retours_a_temps, total_penalites) VALUES (1, 0, 0, 0, 0, 0)";
+        String sqlVerrou = "SELECT id FROM statistiques_emprunts WHERE id = 1 FOR UPDATE";
+        String sqlAgregats = "SELECT COUNT(*), " +
+                             "COALESCE(SUM(date_retour_effective IS NULL), 0), " +
+                             "COALESCE(SUM(date_retour_effective IS NOT NULL AND date_retour_effective <= date_retour_prevue), 0), " +
+                             "COALESCE(SUM(penalite), 0) " +
+                             "FROM emprunts";
+        String sqlEcrire = "UPDATE statistiques_emprunts SET total_emprunts = ?, emprunts_en_cours = ?, " +
+                           "retours = ?, retours_a_temps = ?, total_penalites = ? WHERE id = 1";
+        long debut = System.currentTimeMillis();
+        synchronized (verrouLigne) {
+            try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    try (Statement stmt = conn.createStatement()) {
+                        stmt.executeUpdate(sqlCreer);
+                        stmt.executeQuery(sqlVerrou).close();
+                    }
+                    // Variations commitées avant la lecture cohérente qui suit : comprises dans l'agrégat
+                    synchronized (this) {
+                        enAttente = new VariationStatistiques();
+                    }
+                    try (Statement stmt = conn.createStatement();
+                         ResultSet rs = stmt.executeQuery(sqlAgregats);
+                         PreparedStatement ecrire = conn.prepareStatement(sqlEcrire)) {
+                        if (!rs.next()) {
+                            conn.rollback();
+                            return false;
+                        }
+                        long total = rs.getLong(1);
+                        long enCours = rs.getLong(2);
+                        ecrire.setLong(1, total);
+                        ecrire.setLong(2, enCours);
+                        ecrire.setLong(3, total - enCours);
+                        ecrire.setLong(4, rs.getLong(3));
+                        ecrire.setBigDecimal(5, rs.getBigDecimal(4));
+                        ecrire.executeUpdate();
+                    }
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                System.err.println("Erreur lors du recalcul des statistiques d'emprunts: " + e.getMessage());
+                return false;
+            }
+            System.out.println("Statistiques des emprunts recalculées en "
+                    + (System.currentTimeMillis() - debut) + " ms");
+            return relire();
+        }
+    }
+
+    /**
+     * Remplace les valeurs en mémoire par la ligne des agrégats augmentée des variations en attente.
+     * Les points de contrôle étant exclus pendant la lecture, une variation est soit dans la ligne,
+     * soit en attente, jamais dans les deux.
+     * @return false si la ligne n'existe pas ou n'a pas pu être lue
+     */
+    public boolean relire() {
+        String sql = "SELECT total_emprunts, emprunts_en_cours, retours, retours_a_temps, total_penalites " +
+                     "FROM statistiques_emprunts WHERE id = 1";
+        synchronized (verrouLigne) {
+            try (Connection conn = DatabaseConnection.getInstance().getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                if (!rs.next()) {
+                    return false;
+                }
+                synchronized (this) {
+                    totalEmprunts = rs.getLong(1) + enAttente.totalEmprunts;
+                    empruntsEnCours = rs.getLong(2) + enAttente.empruntsEnCours;
+                    retours = rs.getLong(3) + enAttente.retours;
+                    retoursATemps = rs.getLong(4) + enAttente.retoursATemps;
+                    penalitesCentimes = Centimes.depuis(rs.getBigDecimal(5)) + enAttente.penalitesCentimes;
+                    pret = true;
+                    return true;
+                }
+            } catch (SQLException e) {
+                System.err.println("Erreur lors de la lecture des statistiques d'emprunts: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package com.library.dao.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import com.library.model.Livre;
+import com.library.util.DictionnairePrefixes;
+import com.library.util.Normalisation;
+
+/**
+ * Suggestions d'autocomplétion sur les titres, auteurs et ISBN (singleton).
+ * Repose sur un DictionnairePrefixes reconstruit en arrière-plan ; les livres
+ * ajoutés ou modifiés depuis la dernière construction sont gardés dans une petite liste à part,
+ * les livres supprimés ou modifiés masquent leurs anciens libellés (pierres tombales).
+ * Le dictionnaire n'est reconstruit qu'au-delà d'un seuil de changements ou après un délai.
+ */
+public final class SuggestionsLivres {
+
+    public static final int TITRE = 1;
+    public static final int AUTEUR = 2;
+    public static final int ISBN = 4;
+
+    private static final int FETCH_SIZE = 1000;
+    // Nombre de candidats examinés par suggestion demandée
+    private static final int FACTEUR_BALAYAGE = 8;
+    // Au-delà de ce nombre d'ajouts et de retraits, le dictionnaire est reconstruit
+    private static final int SEUIL_RECONSTRUCTION = 1000;
+    // Sinon, reconstruction différée de ce délai après le premier changement
+    private static final long DELAI_RECONSTRUCTION_MINUTES = 10;
+
+    private static volatile SuggestionsLivres instance;
+
+    private volatile Instantane instantane =
+            new Instantane(new DictionnairePrefixes.Constructeur().construire(), new byte[0], new int[] {0}, new int[0]);
+
+    // Ajouts non encore présents dans le dictionnaire (protégés par this)
+    private List<Entree> ajouts = new ArrayList<>();
+    private List<Entree> ajoutsEnCours = new ArrayList<>();
+    // Pierres tombales : occurrences retirées du dictionnaire, par libellé (protégées par this)
+    private Map<String, Integer> retraits = new HashMap<>();
+    private Map<String, Integer> retraitsEnCours = new HashMap<>();
+    private int nombreRetraits;
+    private boolean enReconstruction;
+    private boolean relancer;
+    private ScheduledExecutorService planificateur;
+    private boolean reconstructionPlanifiee;
+
+    private SuggestionsLivres() {
+    }
+
+    public static SuggestionsLivres getInstance() {
+        if (instance == null) {
+            synchronized (SuggestionsLivres.class) {
+                if (instance == null) {
+                    instance = new SuggestionsLivres();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Propose jusqu'à nombre libellés commençant par la saisie (début du texte ou d'un mot).
+     * Les correspondances en début de texte passent en premier.
+     * @param types combinaison de TITRE, AUTEUR et ISBN
+     */
+    public List<String> suggerer(String saisie, int nombre, int types) {
+        String prefixe = cle(saisie);
+        if (prefixe.isEmpty() || nombre <= 0) {
+            return new ArrayList<>();
+        }
+
+        Set<String> debuts = new LinkedHashSet<>();
+        Set<String> autres = new LinkedHashSet<>();
+        // Dictionnaire et pierres tombales lus ensemble : une construction les remplace ensemble
+        synchronized (this) {
+            Instantane courant = instantane;
+            for (int valeur : courant.dictionnaire.rechercher(prefixe, nombre * FACTEUR_BALAYAGE)) {
+                if ((types & typeDe(valeur)) != 0) {
+                    String libelle = courant.libelle(valeur >>> 4);
+                    // Masqué quand tous les livres qui le portaient ont été retirés
+                    int retires = retraits.getOrDefault(libelle, 0) + retraitsEnCours.getOrDefault(libelle, 0);
+                    if (retires < courant.occurrences[valeur >>> 4]) {
+                        (estDebut(valeur) ? debuts : autres).add(libelle);
+                    }
+                }
+            }
+            for (List<Entree> liste : List.of(ajoutsEnCours, ajouts)) {
+                for (Entree entree : liste) {
+                    if ((types & entree.type) != 0 && entree.cle.startsWith(prefixe)) {
+                        (entree.debut ? debuts : autres).add(entree.libelle);
+                    }
+                }
+            }
+        }
+
+        List<String> suggestions = new ArrayList<>(nombre);
+        for (Set<String> groupe : List.of(debuts, autres)) {
+            for (String libelle : groupe) {
+                if (suggestions.size() == nombre) {
+                    return suggestions;
+                }
+                if (!suggestions.contains(libelle)) {
+                    suggestions.add(libelle);
+                }
+            }
+        }
+        return suggestions;
+    }
+
+    /**
+     * Prend en compte un livre ajouté
+     */
+    public synchronized void ajouter(Livre livre) {
+        String idLivre = livre.getId();
+        entrees(livre, (cle, libelle, type, debut) -> ajouts.add(new Entree(idLivre, cle, libelle, type, debut)));
+        changementEnregistre();
+    }
+
+    /**
+     * Prend en compte un livre supprimé (état lu avant la suppression)
+     */
+    public synchronized void retirer(Livre livre) {
+        // Version gardée à part (livre ajouté ou modifié depuis la construction) : il suffit de l'oublier
+        boolean aPart = ajouts.removeIf(entree -> entree.idLivre.equals(livre.getId()));
+        if (ajoutsEnCours.removeIf(entree -> entree.idLivre.equals(livre.getId()))) {
+            // La construction en cours a pu lire ce livre : elle sera suivie d'une autre
+            aPart = true;
+            relancer = true;
+        }
+        if (!aPart) {
+            for (String libelle : libellesDistincts(livre)) {
+                retraits.merge(libelle, 1, Integer::sum);
+                nombreRetraits++;
+            }
+            if (enReconstruction) {
+                relancer = true;
+            }
+        }
+        changementEnregistre();
+    }
+
+    /**
+     * Prend en compte un livre modifié : l'ancienne version est masquée, la nouvelle gardée à part
+     */
+    public synchronized void remplacer(Livre ancien, Livre nouveau) {
+        retirer(ancien);
+        ajouter(nouveau);
+    }
+
+    /**
+     * Reconstruit au-delà du seuil de changements, sinon planifie une reconstruction différée
+     */
+    private void changementEnregistre() {
+        if (ajouts.size() + nombreRetraits > SEUIL_RECONSTRUCTION) {
+            reconstruireEnArrierePlan();
+            return;
+        }
+        if (reconstructionPlanifiee) {
+            return;
+        }
+        if (planificateur == null) {
+            planificateur = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "suggestions-livres-planification");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        reconstructionPlanifiee = true;
+        planificateur.schedule(() -> {
+            synchronized (this) {
+                reconstructionPlanifiee = false;
+            }
+            reconstruireEnArrierePlan();
+        }, DELAI_RECONSTRUCTION_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Lance une reconstruction dans un thread démon (regroupée avec celle en cours le cas échéant)
+     */
+    public synchronized void reconstruireEnArrierePlan() {
+        if (!demarrerReconstruction()) {
+            return;
+        }
+        Thread thread = new Thread(this::executerReconstruction, "suggestions-livres");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Reconstruit le dictionnaire depuis la table livres
+     */
+    public void reconstruire() {
+        if (demarrerReconstruction()) {
+            executerReconstruction();
+        }
+    }
+
+    private synchronized boolean demarrerReconstruction() {
+        if (enReconstruction) {
+            relancer = true;
+            return false;
+        }
+        enReconstruction = true;
+        // Les ajouts antérieurs seront couverts par la lecture de la table
+        ajoutsEnCours.addAll(ajouts);
+        ajouts = new ArrayList<>();
+        // De même pour les retraits : ils restent appliqués à l'ancien dictionnaire jusqu'à son remplacement
+        retraitsEnCours = retraits;
+        retraits = new HashMap<>();
+        nombreRetraits = 0;
+        return true;
+    }
+
+    /**
+     * Libellés d'un livre, une fois par type : une occurrence dans le dictionnaire
+     */
+    private static List<String> libellesDistincts(Livre livre) {
+        Set<String> vus = new HashSet<>();
+        List<String> libelles = new ArrayList<>();
+        entrees(livre, (cle, libelle, type, debut) -> {
+            if (vus.add(type + ":" + libelle)) {
+                libelles.add(libelle);
+            }
+        });
+        return libelles;
+    }
+
+    private void executerReconstruction() {
+        long debut = System.currentTimeMillis();
+        boolean succes = false;
+        DictionnairePrefixes.Constructeur constructeur = new DictionnairePrefixes.Constructeur();
+        Map<String, Integer> indicesLibelles = new HashMap<>();
+        ByteArrayOutputStream libelles = new ByteArrayOutputStream();
+        List<Integer> debutsLibelles = new ArrayList<>();
+        // Nombre de livres portant chaque libellé (une fois par type), pour les pierres tombales
+        List<Integer> occurrences = new ArrayList<>();
+        Set<String> vus = new HashSet<>();
+        int[] nombreLivres = {0};
+        try (Stream<Livre> livres = new LivreDAOImpl().streamAll(FETCH_SIZE)) {
+            livres.forEach(livre -> {
+                nombreLivres[0]++;
+                vus.clear();
+                entrees(livre, (cle, libelle, type, estDebut) -> {
+                    Integer indice = indicesLibelles.get(libelle);
+                    if (indice == null) {
+                        indice = debutsLibelles.size();
+                        indicesLibelles.put(libelle, indice);
+                        debutsLibelles.add(libelles.size());
+                        occurrences.add(0);
+                        byte[] octets = libelle.getBytes(StandardCharsets.UTF_8);
+                        libelles.write(octets, 0, octets.length);
+                    }
+                    if (estDebut && vus.add(type + ":" + libelle)) {
+                        occurrences.set(indice, occurrences.get(indice) + 1);
+                    }
+                    constructeur.ajouter(cle, (indice << 4) | (type << 1) | (estDebut ? 1 : 0));
+                });
+            });
+            int[] debuts = new int[debutsLibelles.size() + 1];
+            int[] nombres = new int[occurrences.size()];
+            for (int i = 0; i < debutsLibelles.size(); i++) {
+                debuts[i] = debutsLibelles.get(i);
+                nombres[i] = occurrences.get(i);
+            }
+            debuts[debutsLibelles.size()] = libelles.size();
+            Instantane nouveau = new Instantane(constructeur.construire(), libelles.toByteArray(), debuts, nombres);
+            synchronized (this) {
+                instantane = nouveau;
+                // Retraits antérieurs à la lecture de la table : couverts par le nouveau dictionnaire
+                retraitsEnCours = new HashMap<>();
+            }
+            succes = true;
+            rapporterMemoire(nouveau, nombreLivres[0], System.currentTimeMillis() - debut);
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Erreur lors de la construction des suggestions: " + e.getMessage());
+        } finally {
+            boolean encore;
+            synchronized (this) {
+                if (!succes) {
+                    ajouts.addAll(0, ajoutsEnCours);
+                    retraitsEnCours.forEach((libelle, nombre) -> {
+                        retraits.merge(libelle, nombre, Integer::sum);
+                        nombreRetraits += nombre;
+                    });
+                    retraitsEnCours = new HashMap<>();
+                }
+                ajoutsEnCours = new ArrayList<>();
+                enReconstruction = false;
+                encore = relancer && succes;
+                relancer = false;
+            }
+            if (encore) {
+                reconstruireEnArrierePlan();
+            }
+        }
+    }
+
+    /**
+     * Journalise la mémoire occupée, ramenée à un million de titres
+     */
+    private void rapporterMemoire(Instantane instantane, int nombreLivres, long dureeMs) {
+        long octets = instantane.dictionnaire.getTailleOctets()
+                + instantane.libelles.length + 4L * instantane.debutsLibelles.length
+                + 4L * instantane.occurrences.length;
+        double parMillion = nombreLivres == 0 ? 0 : octets * 1_000_000.0 / nombreLivres / (1024 * 1024);
+        System.out.printf("Suggestions construites: %d livres, %d clés, %d libellés, %d Ko en %d ms (≈ %.0f Mo par million de titres)%n",
+                nombreLivres, instantane.dictionnaire.getNombreCles(), instantane.debutsLibelles.length - 1,
+                octets / 1024, dureeMs, parMillion);
+    }
+
+    /**
+     * Clés d'un livre : texte complet, puis à partir de chaque mot ; ISBN avec et sans tirets
+     */
+    private static void entrees(Livre livre, Recepteur recepteur) {
+        ajouterTexte(livre.getTitre(), TITRE, recepteur);
+        ajouterTexte(livre.getAuteur(), AUTEUR, recepteur);
+        String isbn = livre.getIsbn();
+        if (isbn != null && !isbn.isEmpty()) {
+            recepteur.recevoir(cle(isbn), isbn, ISBN, true);
+            recepteur.recevoir(isbn.replaceAll("[^0-9Xx]", "").toLowerCase(), isbn, ISBN, true);
+        }
+    }
+
+    private static void ajouterTexte(String texte, int type, Recepteur recepteur) {
+        List<String> mots = Normalisation.tokens(texte);
+        for (int i = 0; i < mots.size(); i++) {
+            if (i == 0 || mots.get(i).length() > 1) {
+                recepteur.recevoir(String.join(" ", mots.subList(i, mots.size())), texte, type, i == 0);
+            }
+        }
+    }
+
+    /**
+     * Forme normalisée d'une saisie : mots pliés séparés par un espace
+     */
+    private static String cle(String texte) {
+        return String.join(" ", Normalisation.tokens(texte));
+    }
+
+    private static int typeDe(int valeur) {
+        return (valeur >>> 1) & 0x7;
+    }
+
+    private static boolean estDebut(int valeur) {
+        return (valeur & 1) != 0;
+    }
+
+    @FunctionalInterface
+    private interface Recepteur {
+        void recevoir(String cle, String libelle, int type, boolean debut);
+    }
+
+    private static final class Entree {
+        final String idLivre;
+        final String cle;
+        final String libelle;
+        final int type;
+        final boolean debut;
+
+        Entree(String idLivre, String cle, String libelle, int type, boolean debut) {
+            this.idLivre = idLivre;
+            this.cle = cle;
+            this.libelle = libelle;
+            this.type = type;
+            this.debut = debut;
+        }
+    }
+
+    /**
+     * Dictionnaire et libellés d'une construction ; les libellés sont concaténés en UTF-8
+     * (debutsLibelles[i] .. debutsLibelles[i + 1]) plutôt que gardés en String,
+     * occurrences[i] compte les livres qui portent le libellé i
+     */
+    private static final class Instantane {
+        final DictionnairePrefixes dictionnaire;
+        final byte[] libelles;
+        final int[] debutsLibelles;
+        final int[] occurrences;
+
+        Instantane(DictionnairePrefixes dictionnaire, byte[] libelles, int[] debutsLibelles, int[] occurrences) {
+            this.dictionnaire = dictionnaire;
+            this.libelles = libelles;
+            this.debutsLibelles = debutsLibelles;
+            this.occurrences = occurrences;
+        }
+
+        String libelle(int indice) {
+            int debut = debutsLibelles[indice];
+            return new String(libelles, debut, debutsLibelles[indice + 1] - debut, StandardCharsets.UTF_8);
+        }
+    }
+}
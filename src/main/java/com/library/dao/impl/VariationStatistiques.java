@@ -0,0 +1,75 @@
+package com.library.dao.impl;
+
+import com.library.model.Emprunt;
+import com.library.util.DateUtils;
+
+/**
+ * Variation des agrégats d'emprunts produite par une transaction : appliquée aux agrégats en mémoire
+ * après le commit, puis cumulée avec les autres jusqu'au point de contrôle de statistiques_emprunts.
+ */
+final class VariationStatistiques {
+
+    long totalEmprunts;
+    long empruntsEnCours;
+    long retours;
+    long retoursATemps;
+    long penalitesCentimes;
+
+    /**
+     * Nouveaux emprunts ouverts (sans pénalité)
+     */
+    void ouverture(int nombre) {
+        totalEmprunts += nombre;
+        empruntsEnCours += nombre;
+    }
+
+    /**
+     * Remplace l'état d'un emprunt par un autre (null pour une création ou une suppression)
+     */
+    void remplacer(Emprunt ancien, Emprunt nouveau) {
+        if (ancien != null) {
+            compter(ancien.getJourRetourPrevue(), ancien.getJourRetourEffective(), ancien.getPenaliteCentimes(), -1);
+        }
+        if (nouveau != null) {
+            compter(nouveau.getJourRetourPrevue(), nouveau.getJourRetourEffective(), nouveau.getPenaliteCentimes(), 1);
+        }
+    }
+
+    /**
+     * Retour d'un emprunt : nouvelle date de retour effective et nouvelle pénalité
+     * (jours depuis l'époque, DateUtils.AUCUN_JOUR pour un emprunt en cours ; pénalités en centimes)
+     */
+    void retour(int jourRetourPrevue, int retourAvant, long penaliteAvant, int retourApres, long penaliteApres) {
+        compter(jourRetourPrevue, retourAvant, penaliteAvant, -1);
+        compter(jourRetourPrevue, retourApres, penaliteApres, 1);
+    }
+
+    /**
+     * Cumule une autre variation dans celle-ci
+     */
+    void ajouter(VariationStatistiques autre) {
+        totalEmprunts += autre.totalEmprunts;
+        empruntsEnCours += autre.empruntsEnCours;
+        retours += autre.retours;
+        retoursATemps += autre.retoursATemps;
+        penalitesCentimes += autre.penalitesCentimes;
+    }
+
+    boolean isVide() {
+        return totalEmprunts == 0 && empruntsEnCours == 0 && retours == 0 && retoursATemps == 0
+                && penalitesCentimes == 0;
+    }
+
+    private void compter(int jourRetourPrevue, int jourRetourEffective, long penalite, int signe) {
+        totalEmprunts += signe;
+        if (jourRetourEffective == DateUtils.AUCUN_JOUR) {
+            empruntsEnCours += signe;
+        } else {
+            retours += signe;
+            if (jourRetourEffective <= jourRetourPrevue) {
+                retoursATemps += signe;
+            }
+        }
+        penalitesCentimes += signe * penalite;
+    }
+}
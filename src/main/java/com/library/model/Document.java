@@ -1,12 +1,21 @@
 package com.library.model;
 
 import java.time.LocalDateTime;
+import java.util.Objects;
 
 /**
  * Classe abstraite représentant un document dans la bibliothèque.
  */
 public abstract class Document {
 
+    // Champs persistés, pour le suivi des modifications (voir getChampsModifies)
+    public static final int CHAMP_ISBN = 1;
+    public static final int CHAMP_TITRE = 1 << 1;
+    public static final int CHAMP_AUTEUR = 1 << 2;
+    public static final int CHAMP_ANNEE_PUBLICATION = 1 << 3;
+    public static final int CHAMP_DISPONIBLE = 1 << 4;
+    public static final int TOUS_LES_CHAMPS = (1 << 5) - 1;
+
     protected String id;
     protected String isbn;
     protected String titre;
@@ -15,13 +24,15 @@ public abstract class Document {
     protected boolean disponible;
     protected LocalDateTime createdAt;
     protected LocalDateTime updatedAt;
+    // Un objet qui ne vient pas de la base est entièrement à écrire
+    private int champsModifies = TOUS_LES_CHAMPS;
 
     /**
      * Constructeur par défaut.
      */
     public Document() {
         this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
     }
 
     /**
@@ -35,7 +46,23 @@ public abstract class Document {
         this.anneePublication = anneePublication;
         this.disponible = disponible;
         this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    /**
+     * Constructeur pour un document lu en base : horodatages fournis, aucune modification en attente.
+     */
+    protected Document(String id, String isbn, String titre, String auteur, int anneePublication, boolean disponible,
+            LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.isbn = isbn;
+        this.titre = titre;
+        this.auteur = auteur;
+        this.anneePublication = anneePublication;
+        this.disponible = disponible;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.champsModifies = 0;
     }
 
     // Getters et setters
@@ -46,7 +73,6 @@ public abstract class Document {
 
     public void setId(String id) {
         this.id = id;
-        this.updatedAt = LocalDateTime.now();
     }
 
     public String getIsbn() {
@@ -54,8 +80,10 @@ public abstract class Document {
     }
 
     public void setIsbn(String isbn) {
+        if (!Objects.equals(this.isbn, isbn)) {
+            marquerModifie(CHAMP_ISBN);
+        }
         this.isbn = isbn;
-        this.updatedAt = LocalDateTime.now();
     }
 
     public String getTitre() {
@@ -63,8 +91,10 @@ public abstract class Document {
     }
 
     public void setTitre(String titre) {
+        if (!Objects.equals(this.titre, titre)) {
+            marquerModifie(CHAMP_TITRE);
+        }
         this.titre = titre;
-        this.updatedAt = LocalDateTime.now();
     }
 
     public String getAuteur() {
@@ -72,8 +102,10 @@ public abstract class Document {
     }
 
     public void setAuteur(String auteur) {
+        if (!Objects.equals(this.auteur, auteur)) {
+            marquerModifie(CHAMP_AUTEUR);
+        }
         this.auteur = auteur;
-        this.updatedAt = LocalDateTime.now();
     }
 
     public int getAnneePublication() {
@@ -81,8 +113,10 @@ public abstract class Document {
     }
 
     public void setAnneePublication(int anneePublication) {
+        if (this.anneePublication != anneePublication) {
+            marquerModifie(CHAMP_ANNEE_PUBLICATION);
+        }
         this.anneePublication = anneePublication;
-        this.updatedAt = LocalDateTime.now();
     }
 
     public boolean isDisponible() {
@@ -90,8 +124,10 @@ public abstract class Document {
     }
 
     public void setDisponible(boolean disponible) {
+        if (this.disponible != disponible) {
+            marquerModifie(CHAMP_DISPONIBLE);
+        }
         this.disponible = disponible;
-        this.updatedAt = LocalDateTime.now();
     }
 
     public LocalDateTime getCreatedAt() {
@@ -110,6 +146,32 @@ public abstract class Document {
         this.updatedAt = updatedAt;
     }
 
+    /**
+     * Champs modifiés depuis le chargement ou la dernière écriture (combinaison de CHAMP_*)
+     */
+    public int getChampsModifies() {
+        return champsModifies;
+    }
+
+    public boolean isModifie() {
+        return champsModifies != 0;
+    }
+
+    /**
+     * Déclare l'objet conforme à la base (après lecture ou écriture)
+     */
+    public void marquerPropre() {
+        champsModifies = 0;
+    }
+
+    /**
+     * Marque des champs comme modifiés et horodate la modification
+     */
+    protected void marquerModifie(int champs) {
+        champsModifies |= champs;
+        updatedAt = LocalDateTime.now();
+    }
+
     @Override
     public String toString() {
         return "Document{" +
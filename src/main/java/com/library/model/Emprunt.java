@@ -3,17 +3,25 @@ package com.library.model;
 import java.math.BigDecimal;
 import java.sql.Date;
 
+import com.library.util.Centimes;
+import com.library.util.DateUtils;
+
 /**
- * Classe modèle représentant un emprunt de livre
+ * Classe modèle représentant un emprunt de livre.
+ * Les dates sont tenues en jours depuis l'époque (DateUtils.AUCUN_JOUR pour une date absente)
+ * et les pénalités en centimes ; les accesseurs Date et BigDecimal convertissent à la demande
+ * pour JDBC et l'interface.
  */
 public class Emprunt {
     private int id;
     private String idLivre;
     private int idMembre;
-    private Date dateEmprunt;
-    private Date dateRetourPrevue;
-    private Date dateRetourEffective;
-    private BigDecimal penalite;
+    private int jourEmprunt = DateUtils.AUCUN_JOUR;
+    private int jourRetourPrevue = DateUtils.AUCUN_JOUR;
+    private int jourRetourEffective = DateUtils.AUCUN_JOUR;
+    private long penaliteCentimes;
+    // Pénalité accumulée par un emprunt en cours et en retard (mise à jour chaque nuit)
+    private long penaliteCourueCentimes;
 
     // Constructeurs
     public Emprunt() {}
@@ -21,9 +29,8 @@ public class Emprunt {
     public Emprunt(String idLivre, int idMembre, Date dateEmprunt, Date dateRetourPrevue) {
         this.idLivre = idLivre;
         this.idMembre = idMembre;
-        this.dateEmprunt = dateEmprunt;
-        this.dateRetourPrevue = dateRetourPrevue;
-        this.penalite = BigDecimal.ZERO;
+        this.jourEmprunt = DateUtils.versJour(dateEmprunt);
+        this.jourRetourPrevue = DateUtils.versJour(dateRetourPrevue);
     }
 
     // Getters et Setters
@@ -52,35 +59,98 @@ public class Emprunt {
     }
 
     public Date getDateEmprunt() {
-        return dateEmprunt;
+        return DateUtils.versDateSql(jourEmprunt);
     }
 
     public void setDateEmprunt(Date dateEmprunt) {
-        this.dateEmprunt = dateEmprunt;
+        this.jourEmprunt = DateUtils.versJour(dateEmprunt);
     }
 
     public Date getDateRetourPrevue() {
-        return dateRetourPrevue;
+        return DateUtils.versDateSql(jourRetourPrevue);
     }
 
     public void setDateRetourPrevue(Date dateRetourPrevue) {
-        this.dateRetourPrevue = dateRetourPrevue;
+        this.jourRetourPrevue = DateUtils.versJour(dateRetourPrevue);
     }
 
     public Date getDateRetourEffective() {
-        return dateRetourEffective;
+        return DateUtils.versDateSql(jourRetourEffective);
     }
 
     public void setDateRetourEffective(Date dateRetourEffective) {
-        this.dateRetourEffective = dateRetourEffective;
+        this.jourRetourEffective = DateUtils.versJour(dateRetourEffective);
     }
 
     public BigDecimal getPenalite() {
-        return penalite;
+        return Centimes.versMontant(penaliteCentimes);
     }
 
     public void setPenalite(BigDecimal penalite) {
-        this.penalite = penalite;
+        this.penaliteCentimes = Centimes.depuis(penalite);
+    }
+
+    public BigDecimal getPenaliteCourue() {
+        return Centimes.versMontant(penaliteCourueCentimes);
+    }
+
+    public void setPenaliteCourue(BigDecimal penaliteCourue) {
+        this.penaliteCourueCentimes = Centimes.depuis(penaliteCourue);
+    }
+
+    // Représentation compacte (jours depuis l'époque, centimes)
+    public int getJourEmprunt() {
+        return jourEmprunt;
+    }
+
+    public void setJourEmprunt(int jourEmprunt) {
+        this.jourEmprunt = jourEmprunt;
+    }
+
+    public int getJourRetourPrevue() {
+        return jourRetourPrevue;
+    }
+
+    public void setJourRetourPrevue(int jourRetourPrevue) {
+        this.jourRetourPrevue = jourRetourPrevue;
+    }
+
+    public int getJourRetourEffective() {
+        return jourRetourEffective;
+    }
+
+    public void setJourRetourEffective(int jourRetourEffective) {
+        this.jourRetourEffective = jourRetourEffective;
+    }
+
+    public long getPenaliteCentimes() {
+        return penaliteCentimes;
+    }
+
+    public void setPenaliteCentimes(long penaliteCentimes) {
+        this.penaliteCentimes = penaliteCentimes;
+    }
+
+    public long getPenaliteCourueCentimes() {
+        return penaliteCourueCentimes;
+    }
+
+    public void setPenaliteCourueCentimes(long penaliteCourueCentimes) {
+        this.penaliteCourueCentimes = penaliteCourueCentimes;
+    }
+
+    /**
+     * Vrai si le livre a été rendu (date de retour effective renseignée)
+     */
+    public boolean isRetourne() {
+        return jourRetourEffective != DateUtils.AUCUN_JOUR;
+    }
+
+    /**
+     * Vrai si l'emprunt est en cours et que son échéance est antérieure au jour donné
+     */
+    public boolean isEnRetard(int jour) {
+        return !isRetourne() && jourRetourPrevue != DateUtils.AUCUN_JOUR && jourRetourPrevue < jour;
     }
 
     @Override
@@ -89,10 +159,11 @@ public class Emprunt {
                 "id=" + id +
                 ", idLivre='" + idLivre + '\'' +
                 ", idMembre=" + idMembre +
-                ", dateEmprunt=" + dateEmprunt +
-                ", dateRetourPrevue=" + dateRetourPrevue +
-                ", dateRetourEffective=" + dateRetourEffective +
-                ", penalite=" + penalite +
+                ", dateEmprunt=" + getDateEmprunt() +
+                ", dateRetourPrevue=" + getDateRetourPrevue() +
+                ", dateRetourEffective=" + getDateRetourEffective() +
+                ", penalite=" + getPenalite() +
+                ", penaliteCourue=" + getPenaliteCourue() +
                 '}';
     }
 }
@@ -1,5 +1,7 @@
 package com.library.model;
 
+import java.time.LocalDateTime;
+
 import com.library.exception.LivreIndisponibleException;
 
 /**
@@ -22,6 +24,19 @@ public class Livre extends Document implements Empruntable {
         super(id, isbn, titre, auteur, anneePublication, disponible);
     }
 
+    private Livre(String id, String isbn, String titre, String auteur, int anneePublication, boolean disponible,
+            LocalDateTime createdAt, LocalDateTime updatedAt) {
+        super(id, isbn, titre, auteur, anneePublication, disponible, createdAt, updatedAt);
+    }
+
+    /**
+     * Livre tel que lu en base : horodatages de la base, sans lecture d'horloge ni modification en attente.
+     */
+    public static Livre depuisBase(String id, String isbn, String titre, String auteur, int anneePublication,
+            boolean disponible, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        return new Livre(id, isbn, titre, auteur, anneePublication, disponible, createdAt, updatedAt);
+    }
+
     @Override
     public boolean isDisponible() {
         return disponible;
@@ -29,14 +44,18 @@ public class Livre extends Document implements Empruntable {
 
     @Override
     public void emprunter() {
+        if (disponible) {
+            marquerModifie(CHAMP_DISPONIBLE);
+        }
         this.disponible = false;
-        this.updatedAt = java.time.LocalDateTime.now();
     }
 
     @Override
     public void retourner() {
+        if (!disponible) {
+            marquerModifie(CHAMP_DISPONIBLE);
+        }
         this.disponible = true;
-        this.updatedAt = java.time.LocalDateTime.now();
     }
 
     @Override
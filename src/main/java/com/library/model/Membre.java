@@ -1,12 +1,23 @@
 // Source code is decompiled from a .class file using FernFlower decompiler (from Intellij IDEA).
 package com.library.model;
 
+import java.util.Objects;
+
 public class Membre {
+   // Champs persistés, pour le suivi des modifications (voir getChampsModifies)
+   public static final int CHAMP_NOM = 1;
+   public static final int CHAMP_PRENOM = 1 << 1;
+   public static final int CHAMP_EMAIL = 1 << 2;
+   public static final int CHAMP_ACTIF = 1 << 3;
+   public static final int TOUS_LES_CHAMPS = (1 << 4) - 1;
+
    private int id;
    private String nom;
    private String prenom;
    private String email;
    private boolean actif;
+   // Un objet qui ne vient pas de la base est entièrement à écrire
+   private int champsModifies = TOUS_LES_CHAMPS;
 
    public Membre() {
       this.actif = true;
@@ -39,6 +50,9 @@ public class Membre {
    }
 
    public void setNom(String nom) {
+      if (!Objects.equals(this.nom, nom)) {
+         this.champsModifies |= CHAMP_NOM;
+      }
       this.nom = nom;
    }
 
@@ -47,6 +61,9 @@ public class Membre {
    }
 
    public void setPrenom(String prenom) {
+      if (!Objects.equals(this.prenom, prenom)) {
+         this.champsModifies |= CHAMP_PRENOM;
+      }
       this.prenom = prenom;
    }
 
@@ -55,6 +72,9 @@ public class Membre {
    }
 
    public void setEmail(String email) {
+      if (!Objects.equals(this.email, email)) {
+         this.champsModifies |= CHAMP_EMAIL;
+      }
       this.email = email;
    }
 
@@ -63,6 +83,9 @@ public class Membre {
    }
 
    public void setActif(boolean actif) {
+      if (this.actif != actif) {
+         this.champsModifies |= CHAMP_ACTIF;
+      }
       this.actif = actif;
    }
 
@@ -73,6 +96,25 @@ public class Membre {
 
    public void toggleActif() {
       this.actif = !this.actif;
+      this.champsModifies |= CHAMP_ACTIF;
+   }
+
+   /**
+    * Champs modifiés depuis le chargement ou la dernière écriture (combinaison de CHAMP_*)
+    */
+   public int getChampsModifies() {
+      return this.champsModifies;
+   }
+
+   public boolean isModifie() {
+      return this.champsModifies != 0;
+   }
+
+   /**
+    * Déclare l'objet conforme à la base (après lecture ou écriture)
+    */
+   public void marquerPropre() {
+      this.champsModifies = 0;
    }
 }
 
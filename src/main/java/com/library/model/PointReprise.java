@@ -0,0 +1,56 @@
+package com.library.model;
+
+import java.sql.Date;
+
+/**
+ * Avancement d'un traitement par lots : dernière clé traitée (date de retour prévue puis ID)
+ * pour la date du traitement. Permet de reprendre un traitement interrompu là où il s'était arrêté.
+ */
+public class PointReprise {
+
+    private final String traitement;
+    private final Date dateTraitement;
+    // Null tant qu'aucune tranche n'a été traitée
+    private final Date derniereEcheance;
+    private final int dernierId;
+    private final boolean termine;
+
+    public PointReprise(String traitement, Date dateTraitement, Date derniereEcheance, int dernierId, boolean termine) {
+        this.traitement = traitement;
+        this.dateTraitement = dateTraitement;
+        this.derniereEcheance = derniereEcheance;
+        this.dernierId = dernierId;
+        this.termine = termine;
+    }
+
+    public String getTraitement() {
+        return traitement;
+    }
+
+    public Date getDateTraitement() {
+        return dateTraitement;
+    }
+
+    public Date getDerniereEcheance() {
+        return derniereEcheance;
+    }
+
+    public int getDernierId() {
+        return dernierId;
+    }
+
+    public boolean isTermine() {
+        return termine;
+    }
+
+    @Override
+    public String toString() {
+        return "PointReprise{" +
+                "traitement='" + traitement + '\'' +
+                ", dateTraitement=" + dateTraitement +
+                ", derniereEcheance=" + derniereEcheance +
+                ", dernierId=" + dernierId +
+                ", termine=" + termine +
+                '}';
+    }
+}
@@ -0,0 +1,77 @@
+package com.library.model;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.library.util.MetriqueLot;
+
+/**
+ * Bilan d'un traitement de retours en lot (dépôt automatique de livres)
+ */
+public class RapportRetours {
+
+    private final Map<Integer, BigDecimal> penalites = new LinkedHashMap<>();
+    private final List<Integer> introuvables = new ArrayList<>();
+    private final List<Integer> dejaRetournes = new ArrayList<>();
+    private final List<MetriqueLot> lots = new ArrayList<>();
+
+    public void ajouterRetour(int empruntId, BigDecimal penalite) {
+        penalites.put(empruntId, penalite);
+    }
+
+    public void ajouterIntrouvable(int empruntId) {
+        introuvables.add(empruntId);
+    }
+
+    public void ajouterDejaRetourne(int empruntId) {
+        dejaRetournes.add(empruntId);
+    }
+
+    public void ajouterLot(MetriqueLot lot) {
+        lots.add(lot);
+    }
+
+    /**
+     * Pénalité appliquée à chaque emprunt retourné (clé: ID de l'emprunt)
+     */
+    public Map<Integer, BigDecimal> getPenalites() {
+        return penalites;
+    }
+
+    public List<Integer> getIntrouvables() {
+        return introuvables;
+    }
+
+    public List<Integer> getDejaRetournes() {
+        return dejaRetournes;
+    }
+
+    /**
+     * Mesures de débit, une par lot transactionnel
+     */
+    public List<MetriqueLot> getLots() {
+        return lots;
+    }
+
+    public int getNombreRetours() {
+        return penalites.size();
+    }
+
+    public BigDecimal getTotalPenalites() {
+        return penalites.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Override
+    public String toString() {
+        return "RapportRetours{" +
+                "retours=" + penalites.size() +
+                ", introuvables=" + introuvables.size() +
+                ", dejaRetournes=" + dejaRetournes.size() +
+                ", lots=" + lots.size() +
+                ", totalPenalites=" + getTotalPenalites() +
+                '}';
+    }
+}
@@ -0,0 +1,81 @@
+package com.library.model;
+
+/**
+ * Résultat d'une tentative d'emprunt : emprunt accepté ou règle qui a échoué.
+ */
+public class ResultatEmprunt {
+
+    /**
+     * Issue d'une tentative d'emprunt
+     */
+    public enum Statut {
+        ACCEPTE,
+        LIVRE_INEXISTANT,
+        LIVRE_INDISPONIBLE,
+        MEMBRE_INEXISTANT,
+        MEMBRE_INACTIF,
+        LIMITE_ATTEINTE
+    }
+
+    private final String isbn;
+    private final Statut statut;
+    private final int empruntId;
+    private final int empruntsEnCours;
+
+    private ResultatEmprunt(String isbn, Statut statut, int empruntId, int empruntsEnCours) {
+        this.isbn = isbn;
+        this.statut = statut;
+        this.empruntId = empruntId;
+        this.empruntsEnCours = empruntsEnCours;
+    }
+
+    /**
+     * Emprunt enregistré
+     */
+    public static ResultatEmprunt accepte(String isbn, int empruntId, int empruntsEnCours) {
+        return new ResultatEmprunt(isbn, Statut.ACCEPTE, empruntId, empruntsEnCours);
+    }
+
+    /**
+     * Emprunt refusé pour la raison indiquée
+     */
+    public static ResultatEmprunt refuse(String isbn, Statut statut, int empruntsEnCours) {
+        return new ResultatEmprunt(isbn, statut, 0, empruntsEnCours);
+    }
+
+    public boolean isAccepte() {
+        return statut == Statut.ACCEPTE;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public Statut getStatut() {
+        return statut;
+    }
+
+    /**
+     * ID de l'emprunt créé (0 si refusé)
+     */
+    public int getEmpruntId() {
+        return empruntId;
+    }
+
+    /**
+     * Nombre d'emprunts en cours du membre au moment de la vérification
+     */
+    public int getEmpruntsEnCours() {
+        return empruntsEnCours;
+    }
+
+    @Override
+    public String toString() {
+        return "ResultatEmprunt{" +
+                "isbn='" + isbn + '\'' +
+                ", statut=" + statut +
+                ", empruntId=" + empruntId +
+                ", empruntsEnCours=" + empruntsEnCours +
+                '}';
+    }
+}
@@ -6,8 +6,11 @@ import java.util.Optional;
 
 import com.library.dao.LivreDAO;
 import com.library.dao.MembreDAO;
+import com.library.dao.Page;
+import com.library.dao.impl.CacheLivres;
 import com.library.dao.impl.LivreDAOImpl;
 import com.library.dao.impl.MembreDAOImpl;
+import com.library.dao.impl.SuggestionsLivres;
 import com.library.exception.LivreIndisponibleException;
 import com.library.exception.ValidationException;
 import com.library.model.Emprunt;
@@ -20,6 +23,11 @@ import com.library.util.StringValidator;
  */
 public class BibliothequeService {
 
+    // Types de suggestions d'autocomplétion (combinables)
+    public static final int SUGGESTION_TITRE = SuggestionsLivres.TITRE;
+    public static final int SUGGESTION_AUTEUR = SuggestionsLivres.AUTEUR;
+    public static final int SUGGESTION_ISBN = SuggestionsLivres.ISBN;
+
     private final LivreDAO livreDAO;
     private final MembreDAO membreDAO;
 
@@ -69,6 +77,29 @@ public class BibliothequeService {
         return livreDAO.findAll();
     }
 
+    /**
+     * Récupère une page de livres triés par la propriété donnée.
+     */
+    public Page<Livre> listerLivresPage(String tri, boolean decroissant, String jeton, int debut, int taille)
+            throws SQLException {
+        return livreDAO.findAllPage(tri, decroissant, jeton, debut, taille);
+    }
+
+    /**
+     * Repère d'accès direct aux pages de livres pour le même tri (jeton menant à la ligne
+     * située decalage lignes après le jeton).
+     */
+    public String getRepereLivres(String tri, boolean decroissant, String jeton, int decalage) throws SQLException {
+        return livreDAO.findRepere(tri, decroissant, jeton, decalage);
+    }
+
+    /**
+     * Nombre approximatif de livres, pour dimensionner la liste paginée.
+     */
+    public int estimerNombreLivres() throws SQLException {
+        return livreDAO.estimerNombre();
+    }
+
     /**
      * Recherche des livres par titre.
      */
@@ -77,6 +108,17 @@ public class BibliothequeService {
         return livreDAO.findByTitre(titre);
     }
 
+    /**
+     * Recherche des livres par titre, en tolérant les fautes de frappe si approximatif.
+     */
+    public List<Livre> rechercherParTitre(String titre, boolean approximatif) throws SQLException, ValidationException {
+        if (!approximatif) {
+            return rechercherParTitre(titre);
+        }
+        StringValidator.validateNotEmpty(titre, "Titre");
+        return livreDAO.findByTitreApproximatif(titre);
+    }
+
     /**
      * Recherche des livres par auteur.
      */
@@ -85,6 +127,31 @@ public class BibliothequeService {
         return livreDAO.findByAuteur(auteur);
     }
 
+    /**
+     * Recherche des livres par auteur, en tolérant les fautes de frappe si approximatif.
+     */
+    public List<Livre> rechercherParAuteur(String auteur, boolean approximatif) throws SQLException, ValidationException {
+        if (!approximatif) {
+            return rechercherParAuteur(auteur);
+        }
+        StringValidator.validateNotEmpty(auteur, "Auteur");
+        return livreDAO.findByAuteurApproximatif(auteur);
+    }
+
+    /**
+     * Suggestions d'autocomplétion pour la saisie (insensible aux accents et à la casse).
+     */
+    public List<String> suggererLivres(String saisie, int nombre, int types) {
+        return SuggestionsLivres.getInstance().suggerer(saisie, nombre, types);
+    }
+
+    /**
+     * Compteurs du cache de livres (taux de succès, taille, évictions).
+     */
+    public CacheLivres getCacheLivres() {
+        return CacheLivres.getInstance();
+    }
+
     /**
      * Récupère les livres disponibles.
      */
@@ -115,9 +182,9 @@ public class BibliothequeService {
     }
 
     /**
-     * Emprunte un livre.
+     * Emprunte un livre et le renvoie tel qu'enregistré.
      */
-    public void emprunterLivre(String isbn) throws SQLException, ValidationException, LivreIndisponibleException {
+    public Livre emprunterLivre(String isbn) throws SQLException, ValidationException, LivreIndisponibleException {
         Livre livre = trouverLivreParIsbn(isbn);
         if (livre == null) {
             throw LivreIndisponibleException.inexistant(isbn);
@@ -127,18 +194,20 @@ public class BibliothequeService {
         }
         livre.emprunter();
         modifierLivre(livre);
+        return livre;
     }
 
     /**
-     * Retourne un livre.
+     * Retourne un livre et le renvoie tel qu'enregistré.
      */
-    public void retournerLivre(String isbn) throws SQLException, ValidationException {
+    public Livre retournerLivre(String isbn) throws SQLException, ValidationException {
         Livre livre = trouverLivreParIsbn(isbn);
         if (livre == null) {
             throw new ValidationException("Livre introuvable avec l'ISBN: " + isbn);
         }
         livre.retourner();
         modifierLivre(livre);
+        return livre;
     }
 
     /**
@@ -4,18 +4,30 @@ import java.math.BigDecimal;
 import java.sql.Date;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import com.library.dao.EmpruntDAO;
+import com.library.dao.Page;
+import com.library.dao.impl.CompteursEmprunts;
 import com.library.dao.impl.EmpruntDAOImpl;
+import com.library.dao.impl.StatistiquesEmprunts;
 import com.library.exception.EmpruntNotFoundException;
 import com.library.exception.LimiteEmpruntDepasseeException;
 import com.library.exception.LivreIndisponibleException;
 import com.library.exception.MembreInactifException;
 import com.library.exception.ValidationException;
 import com.library.model.Emprunt;
-import com.library.model.Livre;
+import com.library.model.RapportRetours;
+import com.library.model.ResultatEmprunt;
+import com.library.util.Centimes;
 import com.library.util.DateUtils;
+import com.library.util.MetriqueLot;
+import com.library.util.StringValidator;
 
 /**
  * Service métier pour la gestion des emprunts
@@ -25,60 +37,116 @@ public class EmpruntService {
 
     private static final int LIMITE_EMPRUNTS = 3;
     private static final double PENALITE_PAR_JOUR = 5.0;
+    private static final int TAILLE_LOT_RETOURS = 100;
 
     private final EmpruntDAO empruntDAO;
-    private final BibliothequeService bibliothequeService;
 
     public EmpruntService() throws SQLException {
         this.empruntDAO = new EmpruntDAOImpl();
-        this.bibliothequeService = new BibliothequeService();
     }
 
     /**
      * Effectue un emprunt de livre
+     * @return l'emprunt créé, relu par sa clé pour être affiché sans relire la liste
      */
-    public void emprunterLivre(String isbn, int membreId, Date dateRetourPrevue) throws SQLException,
+    public Emprunt emprunterLivre(String isbn, int membreId, Date dateRetourPrevue) throws SQLException,
             LivreIndisponibleException, MembreInactifException, LimiteEmpruntDepasseeException {
 
-        // Vérifier si le livre existe et récupérer ses infos
-        Livre livre;
+        // Vérifier le format de l'ISBN avant d'interroger la base
         try {
-            livre = bibliothequeService.trouverLivreParIsbn(isbn);
+            StringValidator.validateISBN(isbn);
         } catch (ValidationException e) {
-            throw new LivreIndisponibleException(isbn, "Aucun livre trouvé avec l'ISBN " + isbn + ".");
+            throw LivreIndisponibleException.inexistant(isbn);
         }
 
-        // Vérifier si le livre est disponible
-        if (!livre.isDisponible()) {
-            throw new LivreIndisponibleException(isbn);
+        // Limite connue en mémoire : refus immédiat, sans transaction
+        int empruntsEnCours = CompteursEmprunts.getInstance().lire(membreId);
+        if (empruntsEnCours >= LIMITE_EMPRUNTS) {
+            throw new LimiteEmpruntDepasseeException(membreId, empruntsEnCours);
         }
 
-        // Vérifier si le membre existe et est actif
-        try {
-            if (!bibliothequeService.isMembreActif(membreId)) {
-                throw new MembreInactifException(membreId);
+        Date dateEmprunt = Date.valueOf(LocalDate.now());
+
+        // Toutes les règles sont vérifiées et appliquées dans une seule transaction
+        ResultatEmprunt resultat = empruntDAO.emprunterLivreAtomique(isbn, membreId, dateEmprunt,
+                dateRetourPrevue, LIMITE_EMPRUNTS);
+        verifierResultat(resultat, membreId);
+        return empruntDAO.findById(resultat.getEmpruntId());
+    }
+
+    /**
+     * Emprunte une pile de livres pour un même membre (une seule transaction).
+     * Les ISBN mal formés sont refusés sans interroger la base.
+     * @return un résultat par ISBN, dans l'ordre de la liste
+     */
+    public List<ResultatEmprunt> emprunterLivres(List<String> isbns, int membreId, Date dateRetourPrevue)
+            throws SQLException, MembreInactifException {
+
+        List<ResultatEmprunt> resultats = new ArrayList<>(isbns.size());
+        List<String> isbnsValides = new ArrayList<>();
+        for (String isbn : isbns) {
+            try {
+                StringValidator.validateISBN(isbn);
+                isbnsValides.add(isbn);
+                resultats.add(null);
+            } catch (ValidationException e) {
+                resultats.add(ResultatEmprunt.refuse(isbn, ResultatEmprunt.Statut.LIVRE_INEXISTANT, 0));
             }
-        } catch (ValidationException e) {
-            throw new MembreInactifException(membreId, "Aucun membre trouvé avec l'ID " + membreId + ".");
         }
 
-        // Vérifier la limite d'emprunts
-        int empruntsEnCours = empruntDAO.countEmpruntsEnCoursByMembre(membreId);
-        if (empruntsEnCours >= LIMITE_EMPRUNTS) {
-            throw new LimiteEmpruntDepasseeException(membreId, empruntsEnCours);
+        Date dateEmprunt = Date.valueOf(LocalDate.now());
+        List<ResultatEmprunt> resultatsLot = empruntDAO.emprunterLivresEnLot(isbnsValides, membreId, dateEmprunt,
+                dateRetourPrevue, LIMITE_EMPRUNTS);
+
+        // Le membre est vérifié une fois pour tout le lot
+        if (!resultatsLot.isEmpty()) {
+            ResultatEmprunt.Statut statut = resultatsLot.get(0).getStatut();
+            if (statut == ResultatEmprunt.Statut.MEMBRE_INEXISTANT) {
+                throw new MembreInactifException(membreId, "Aucun membre trouvé avec l'ID " + membreId + ".");
+            }
+            if (statut == ResultatEmprunt.Statut.MEMBRE_INACTIF) {
+                throw new MembreInactifException(membreId);
+            }
         }
 
-        Date dateEmprunt = Date.valueOf(LocalDate.now());
+        // Replacer les résultats du lot aux positions des ISBN valides
+        int suivant = 0;
+        for (int i = 0; i < resultats.size(); i++) {
+            if (resultats.get(i) == null) {
+                resultats.set(i, resultatsLot.get(suivant++));
+            }
+        }
+        return resultats;
+    }
 
-        // Utiliser la méthode transactionnelle
-        empruntDAO.emprunterLivreTransactional(livre.getId(), membreId, dateEmprunt, dateRetourPrevue);
+    /**
+     * Convertit un emprunt refusé en exception métier
+     */
+    private void verifierResultat(ResultatEmprunt resultat, int membreId) throws
+            LivreIndisponibleException, MembreInactifException, LimiteEmpruntDepasseeException {
+        switch (resultat.getStatut()) {
+            case ACCEPTE:
+                return;
+            case LIVRE_INEXISTANT:
+                throw LivreIndisponibleException.inexistant(resultat.getIsbn());
+            case LIVRE_INDISPONIBLE:
+                throw new LivreIndisponibleException(resultat.getIsbn());
+            case MEMBRE_INEXISTANT:
+                throw new MembreInactifException(membreId, "Aucun membre trouvé avec l'ID " + membreId + ".");
+            case MEMBRE_INACTIF:
+                throw new MembreInactifException(membreId);
+            case LIMITE_ATTEINTE:
+                throw new LimiteEmpruntDepasseeException(membreId, resultat.getEmpruntsEnCours());
+            default:
+                throw new IllegalStateException("Statut d'emprunt inconnu: " + resultat.getStatut());
+        }
     }
 
     /**
      * Enregistre le retour d'un livre
      */
     public BigDecimal retournerLivre(int empruntId) throws EmpruntNotFoundException, SQLException {
-        Date dateRetourEffective = Date.valueOf(LocalDate.now());
+        int jourRetour = DateUtils.versJour(LocalDate.now());
 
         // Récupérer l'emprunt pour calculer la pénalité
         Emprunt emprunt = empruntDAO.findById(empruntId);
@@ -86,18 +154,81 @@ public class EmpruntService {
             throw new EmpruntNotFoundException(empruntId);
         }
 
-        // Calculer la pénalité si retour en retard
-        BigDecimal penalite = DateUtils.calculerPenaliteBigDecimal(
-            emprunt.getDateRetourPrevue().toLocalDate(),
-            dateRetourEffective.toLocalDate()
-        );
+        // Calculer la pénalité si retour en retard (jours et centimes, comme les retours en lot)
+        BigDecimal penalite = Centimes.versMontant(
+            DateUtils.calculerPenaliteCentimes(emprunt.getJourRetourPrevue(), jourRetour));
 
         // Utiliser la méthode transactionnelle
-        empruntDAO.retournerEmpruntTransactional(empruntId, dateRetourEffective, penalite);
+        empruntDAO.retournerEmpruntTransactional(empruntId, DateUtils.versDateSql(jourRetour), penalite);
 
         return penalite;
     }
 
+    /**
+     * Enregistre en lot les retours du dépôt automatique.
+     * Les emprunts sont chargés en une requête, les pénalités calculées en mémoire,
+     * puis les mises à jour appliquées en batchs JDBC par transactions de TAILLE_LOT_RETOURS.
+     */
+    public RapportRetours retournerLivres(List<Integer> empruntIds) throws SQLException {
+        RapportRetours rapport = new RapportRetours();
+        int jourRetour = DateUtils.versJour(LocalDate.now());
+
+        // Charger tous les emprunts visés en une seule requête
+        Map<Integer, Emprunt> empruntsParId = new HashMap<>();
+        for (Emprunt emprunt : empruntDAO.findByIds(empruntIds)) {
+            empruntsParId.put(emprunt.getId(), emprunt);
+        }
+
+        // Calculer les pénalités en mémoire
+        List<Emprunt> aRetourner = new ArrayList<>();
+        Set<Integer> vus = new HashSet<>();
+        for (int empruntId : empruntIds) {
+            Emprunt emprunt = empruntsParId.get(empruntId);
+            if (emprunt == null) {
+                rapport.ajouterIntrouvable(empruntId);
+            } else if (emprunt.isRetourne() || !vus.add(empruntId)) {
+                rapport.ajouterDejaRetourne(empruntId);
+            } else {
+                emprunt.setJourRetourEffective(jourRetour);
+                emprunt.setPenaliteCentimes(DateUtils.calculerPenaliteCentimes(emprunt.getJourRetourPrevue(), jourRetour));
+                emprunt.setPenaliteCourueCentimes(0);
+                aRetourner.add(emprunt);
+            }
+        }
+
+        // Appliquer par lots, une transaction par lot
+        for (int debut = 0; debut < aRetourner.size(); debut += TAILLE_LOT_RETOURS) {
+            List<Emprunt> lot = aRetourner.subList(debut, Math.min(debut + TAILLE_LOT_RETOURS, aRetourner.size()));
+
+            long t0 = System.nanoTime();
+            List<Emprunt> retournes = empruntDAO.retournerEmpruntsEnLot(lot);
+            MetriqueLot metrique = new MetriqueLot(rapport.getLots().size() + 1, retournes.size(), System.nanoTime() - t0);
+            rapport.ajouterLot(metrique);
+            System.out.println("Retours en lot - " + metrique);
+
+            Set<Integer> idsRetournes = new HashSet<>();
+            for (Emprunt emprunt : retournes) {
+                idsRetournes.add(emprunt.getId());
+                rapport.ajouterRetour(emprunt.getId(), emprunt.getPenalite());
+            }
+            // Retournés entre le chargement et la mise à jour (autre poste)
+            for (Emprunt emprunt : lot) {
+                if (!idsRetournes.contains(emprunt.getId())) {
+                    rapport.ajouterDejaRetourne(emprunt.getId());
+                }
+            }
+        }
+        return rapport;
+    }
+
+    /**
+     * Pénalité courue d'un emprunt : calculée chaque nuit pour les emprunts en cours en retard,
+     * nulle une fois le livre rendu (la pénalité définitive la remplace)
+     */
+    public BigDecimal getPenaliteCourue(Emprunt emprunt) {
+        return emprunt.isRetourne() ? Centimes.versMontant(0) : emprunt.getPenaliteCourue();
+    }
+
     /**
      * Recherche un emprunt par ID
      */
@@ -112,6 +243,29 @@ public class EmpruntService {
         return empruntDAO.findAll();
     }
 
+    /**
+     * Récupère une page d'emprunts triés par la propriété donnée
+     */
+    public Page<Emprunt> getEmpruntsPage(String tri, boolean decroissant, String jeton, int debut, int taille)
+            throws SQLException {
+        return empruntDAO.findAllPage(tri, decroissant, jeton, debut, taille);
+    }
+
+    /**
+     * Repère d'accès direct aux pages d'emprunts pour le même tri (jeton menant à la ligne
+     * située decalage lignes après le jeton)
+     */
+    public String getRepereEmprunts(String tri, boolean decroissant, String jeton, int decalage) throws SQLException {
+        return empruntDAO.findRepere(tri, decroissant, jeton, decalage);
+    }
+
+    /**
+     * Nombre approximatif d'emprunts, pour dimensionner la liste paginée
+     */
+    public int estimerNombreEmprunts() throws SQLException {
+        return empruntDAO.estimerNombre();
+    }
+
     /**
      * Récupère les emprunts d'un membre
      */
@@ -137,12 +291,14 @@ public class EmpruntService {
      * Récupère les emprunts en retard
      */
     public List<Emprunt> getEmpruntsEnRetard() throws SQLException {
-        List<Emprunt> empruntsEnCours = empruntDAO.findEmpruntsEnCours();
-        Date aujourdHui = Date.valueOf(LocalDate.now());
+        return empruntDAO.findEmpruntsEnRetard(Date.valueOf(LocalDate.now()));
+    }
 
-        return empruntsEnCours.stream()
-                .filter(emprunt -> emprunt.getDateRetourPrevue().before(aujourdHui))
-                .toList();
+    /**
+     * Emprunts en cours à rendre dans les prochains jours (aujourd'hui inclus)
+     */
+    public List<Emprunt> getEmpruntsAEcheance(int jours) throws SQLException {
+        return empruntDAO.findEmpruntsAEcheance(Date.valueOf(LocalDate.now()), jours);
     }
 
     /**
@@ -164,7 +320,7 @@ public class EmpruntService {
      */
     public boolean peutEmprunter(int membreId) throws SQLException {
         int empruntsEnCours = empruntDAO.countEmpruntsEnCoursByMembre(membreId);
-        return empruntsEnCours < 3; // Limite de 3 emprunts
+        return empruntsEnCours < LIMITE_EMPRUNTS;
     }
 
     /**
@@ -178,24 +334,11 @@ public class EmpruntService {
      * Génère des statistiques sur les emprunts
      */
     public String genererStatistiques() throws SQLException {
-        List<Emprunt> tousEmprunts = empruntDAO.findAll();
-        List<Emprunt> empruntsEnCours = empruntDAO.findEmpruntsEnCours();
-
-        int totalEmprunts = tousEmprunts.size();
-        int empruntsEnCoursCount = empruntsEnCours.size();
-        int empruntsTermines = totalEmprunts - empruntsEnCoursCount;
-
-        // Calculer le taux de retour à temps
-        long retoursATemps = tousEmprunts.stream()
-                .filter(e -> e.getDateRetourEffective() != null)
-                .filter(e -> !e.getDateRetourEffective().after(e.getDateRetourPrevue()))
-                .count();
-
-        long totalRetours = tousEmprunts.stream()
-                .mapToLong(e -> e.getDateRetourEffective() != null ? 1 : 0)
-                .sum();
-
-        double tauxRetourATemps = totalRetours > 0 ? (double) retoursATemps / totalRetours * 100 : 0;
+        // Agrégats tenus en mémoire ; avant le premier chargement, lecture de la ligne des agrégats
+        StatistiquesEmprunts statistiques = StatistiquesEmprunts.getInstance();
+        if (!statistiques.isPret() && !statistiques.relire() && !statistiques.recalculer()) {
+            throw new SQLException("Statistiques des emprunts indisponibles");
+        }
 
         return String.format("""
                              Statistiques des emprunts:
@@ -203,8 +346,17 @@ public class EmpruntService {
                              - Emprunts en cours: %d
                              - Emprunts terminés: %d
                              - Taux de retour à temps: %.2f%%
+                             - Total pénalités: %.2f
                              """,
-            totalEmprunts, empruntsEnCoursCount, empruntsTermines, tauxRetourATemps
+            statistiques.getTotalEmprunts(), statistiques.getEmpruntsEnCours(), statistiques.getRetours(),
+            statistiques.getTauxRetourATemps(), statistiques.getTotalPenalites()
         );
     }
+
+    /**
+     * Recalcule les statistiques entièrement en SQL (après une correction manuelle en base par exemple)
+     */
+    public boolean recalculerStatistiques() {
+        return StatistiquesEmprunts.getInstance().recalculer();
+    }
 }
@@ -0,0 +1,225 @@
+package com.library.service;
+
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.library.dao.EmpruntDAO;
+import com.library.dao.impl.EmpruntDAOImpl;
+import com.library.model.Emprunt;
+import com.library.model.PointReprise;
+import com.library.util.DateUtils;
+import com.library.util.MetriqueLot;
+
+/**
+ * Traitement de nuit des pénalités courues : calcule la pénalité accumulée par chaque
+ * emprunt en cours et en retard, pour qu'elle soit visible avant le retour du livre,
+ * et remet à zéro celle des emprunts en cours qui ne sont plus en retard.
+ *
+ * Les emprunts en retard sont lus par tranches (pagination par date de retour prévue puis ID,
+ * dans l'ordre de l'index), chaque tranche est répartie par membre entre les workers, puis écrite
+ * en batch JDBC. Un point de reprise est enregistré après chaque tranche : un traitement interrompu
+ * repart de la dernière tranche validée. Le calcul ne dépend que de la date du traitement,
+ * rejouer une tranche est donc sans effet.
+ *
+ * Le traitement tourne chaque nuit à HEURE_EXECUTION (heure locale, replanifiée après chaque passage
+ * pour suivre les changements d'heure) ; au démarrage, un traitement interrompu est repris et celui
+ * du jour est lancé s'il n'a pas encore abouti, l'application ayant pu être fermée pendant la nuit.
+ */
+public class TraitementPenalitesCourues {
+
+    private static final String TRAITEMENT = "penalites_courues";
+    private static final int TAILLE_TRANCHE = 2000;
+    private static final int NOMBRE_PARTITIONS = 4;
+    private static final LocalTime HEURE_EXECUTION = LocalTime.of(2, 0);
+
+    private static volatile TraitementPenalitesCourues instance;
+
+    private final EmpruntDAO empruntDAO;
+    private ScheduledExecutorService planificateur;
+
+    private TraitementPenalitesCourues() {
+        this.empruntDAO = new EmpruntDAOImpl();
+    }
+
+    public static TraitementPenalitesCourues getInstance() {
+        if (instance == null) {
+            synchronized (TraitementPenalitesCourues.class) {
+                if (instance == null) {
+                    instance = new TraitementPenalitesCourues();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Rattrape le traitement manqué ou interrompu, puis le planifie chaque nuit
+     */
+    public synchronized void demarrer() {
+        if (planificateur != null) {
+            return;
+        }
+        planificateur = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "penalites-courues");
+            thread.setDaemon(true);
+            return thread;
+        });
+        planificateur.execute(this::rattraper);
+        planifierProchaine();
+    }
+
+    /**
+     * Planifie le prochain passage à HEURE_EXECUTION ; un délai fixe de 24 h dériverait d'une heure
+     * à chaque changement d'heure
+     */
+    private void planifierProchaine() {
+        ZonedDateTime maintenant = ZonedDateTime.now();
+        ZonedDateTime prochaine = maintenant.toLocalDate().atTime(HEURE_EXECUTION).atZone(maintenant.getZone());
+        if (!prochaine.isAfter(maintenant)) {
+            prochaine = maintenant.toLocalDate().plusDays(1).atTime(HEURE_EXECUTION).atZone(maintenant.getZone());
+        }
+        planificateur.schedule(() -> {
+            executerAujourdhui();
+            planifierProchaine();
+        }, Duration.between(maintenant, prochaine).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reprend un traitement interrompu, puis lance celui du jour si le dernier traitement terminé
+     * date d'avant aujourd'hui (application fermée à l'heure prévue)
+     */
+    private void rattraper() {
+        try {
+            PointReprise point = empruntDAO.lirePointReprise(TRAITEMENT);
+            if (point != null && !point.isTermine()) {
+                executer(point.getDateTraitement().toLocalDate());
+            }
+            if (point == null || point.getDateTraitement().toLocalDate().isBefore(LocalDate.now())) {
+                executer(LocalDate.now());
+            }
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Erreur lors du rattrapage des pénalités courues: " + e.getMessage());
+        }
+    }
+
+    private void executerAujourdhui() {
+        try {
+            executer(LocalDate.now());
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Erreur lors du calcul des pénalités courues: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Calcule les pénalités courues à la date donnée, en reprenant au point de reprise si le
+     * traitement de cette date a été interrompu. Sans effet si ce traitement est déjà terminé.
+     * @return mesures de débit, une par tranche traitée
+     */
+    public synchronized List<MetriqueLot> executer(LocalDate date) throws SQLException {
+        List<MetriqueLot> tranches = new ArrayList<>();
+        Date dateTraitement = Date.valueOf(date);
+
+        PointReprise point = empruntDAO.lirePointReprise(TRAITEMENT);
+        Date derniereEcheance = null;
+        int dernierId = 0;
+        if (point != null && point.getDateTraitement().equals(dateTraitement)) {
+            if (point.isTermine()) {
+                return tranches;
+            }
+            derniereEcheance = point.getDerniereEcheance();
+            dernierId = point.getDernierId();
+            System.out.println("Pénalités courues - reprise après l'emprunt " + dernierId);
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(NOMBRE_PARTITIONS);
+        long debut = System.nanoTime();
+        int total = 0;
+        try {
+            List<Emprunt> tranche;
+            while (!(tranche = empruntDAO.findEmpruntsEnRetardApres(dateTraitement, derniereEcheance, dernierId,
+                    TAILLE_TRANCHE)).isEmpty()) {
+                long t0 = System.nanoTime();
+                int misAJour = traiterTranche(tranche, date, workers);
+                MetriqueLot metrique = new MetriqueLot(tranches.size() + 1, misAJour, System.nanoTime() - t0);
+                tranches.add(metrique);
+                System.out.println("Pénalités courues - " + metrique);
+
+                total += misAJour;
+                Emprunt dernier = tranche.get(tranche.size() - 1);
+                derniereEcheance = dernier.getDateRetourPrevue();
+                dernierId = dernier.getId();
+                empruntDAO.enregistrerPointReprise(new PointReprise(TRAITEMENT, dateTraitement, derniereEcheance,
+                        dernierId, false));
+            }
+            int effacees = empruntDAO.effacerPenalitesCourues(dateTraitement);
+            if (effacees > 0) {
+                System.out.println("Pénalités courues - " + effacees + " emprunt(s) plus en retard remis à zéro");
+            }
+            empruntDAO.enregistrerPointReprise(new PointReprise(TRAITEMENT, dateTraitement, derniereEcheance,
+                    dernierId, true));
+        } finally {
+            workers.shutdown();
+        }
+
+        MetriqueLot bilan = new MetriqueLot(tranches.size(), total, System.nanoTime() - debut);
+        System.out.println(String.format("Pénalités courues au %s: %d emprunt(s), %d tranche(s) en %.1f ms (%.0f lignes/s)",
+                DateUtils.formaterDate(date), total, tranches.size(), bilan.getDureeMillis(), bilan.getLignesParSeconde()));
+        return tranches;
+    }
+
+    /**
+     * Répartit la tranche par membre (id_membre modulo le nombre de partitions) et écrit
+     * chaque partition en parallèle : deux workers ne modifient jamais les emprunts d'un même membre.
+     */
+    private int traiterTranche(List<Emprunt> tranche, LocalDate date, ExecutorService workers) throws SQLException {
+        List<List<Emprunt>> partitions = new ArrayList<>(NOMBRE_PARTITIONS);
+        for (int i = 0; i < NOMBRE_PARTITIONS; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        int jour = DateUtils.versJour(date);
+        for (Emprunt emprunt : tranche) {
+            emprunt.setPenaliteCourueCentimes(DateUtils.calculerPenaliteCentimes(emprunt.getJourRetourPrevue(), jour));
+            partitions.get(Math.floorMod(emprunt.getIdMembre(), NOMBRE_PARTITIONS)).add(emprunt);
+        }
+
+        AtomicInteger misAJour = new AtomicInteger();
+        List<Future<?>> taches = new ArrayList<>();
+        for (List<Emprunt> partition : partitions) {
+            if (!partition.isEmpty()) {
+                taches.add(workers.submit(() -> {
+                    misAJour.addAndGet(empruntDAO.appliquerPenalitesCourues(partition));
+                    return null;
+                }));
+            }
+        }
+
+        // Toutes les partitions doivent réussir avant d'avancer le point de reprise
+        for (Future<?> tache : taches) {
+            try {
+                tache.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Traitement des pénalités courues interrompu", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof SQLException) {
+                    throw (SQLException) e.getCause();
+                }
+                throw new SQLException("Erreur lors de l'écriture des pénalités courues", e.getCause());
+            }
+        }
+        return misAJour.get();
+    }
+}
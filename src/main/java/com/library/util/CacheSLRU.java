@@ -0,0 +1,137 @@
+package com.library.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Cache borné à LRU segmenté : une entrée entre en période d'essai et n'est promue
+ * dans le segment protégé qu'à son deuxième accès. Un balayage d'entrées lues une
+ * seule fois n'évince donc que des entrées d'essai, pas les entrées fréquentes.
+ */
+public class CacheSLRU<K, V> {
+
+    private final int capacite;
+    private final int capaciteProtegee;
+    private final LinkedHashMap<K, V> essai = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, V> protege = new LinkedHashMap<>(16, 0.75f, true);
+    private final BiConsumer<K, V> surEviction;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param capacite          nombre maximal d'entrées
+     * @param partProtegee      part de la capacité réservée au segment protégé (0 à 1)
+     * @param surEviction       appelé pour chaque entrée évincée ou invalidée (peut être null)
+     */
+    public CacheSLRU(int capacite, double partProtegee, BiConsumer<K, V> surEviction) {
+        this.capacite = Math.max(1, capacite);
+        this.capaciteProtegee = (int) Math.max(0, Math.min(this.capacite - 1, this.capacite * partProtegee));
+        this.surEviction = surEviction;
+    }
+
+    public synchronized V get(K cle) {
+        V valeur = protege.get(cle);
+        if (valeur != null) {
+            hits++;
+            return valeur;
+        }
+        valeur = essai.remove(cle);
+        if (valeur == null) {
+            misses++;
+            return null;
+        }
+        // Deuxième accès : promotion, le plus ancien protégé redescend à l'essai
+        hits++;
+        protege.put(cle, valeur);
+        if (protege.size() > capaciteProtegee) {
+            Iterator<Map.Entry<K, V>> plusAncien = protege.entrySet().iterator();
+            Map.Entry<K, V> retrogradee = plusAncien.next();
+            plusAncien.remove();
+            essai.put(retrogradee.getKey(), retrogradee.getValue());
+        }
+        return valeur;
+    }
+
+    public synchronized void put(K cle, V valeur) {
+        if (protege.containsKey(cle)) {
+            protege.put(cle, valeur);
+            return;
+        }
+        essai.put(cle, valeur);
+        while (essai.size() + protege.size() > capacite) {
+            LinkedHashMap<K, V> segment = essai.isEmpty() ? protege : essai;
+            Iterator<Map.Entry<K, V>> plusAncien = segment.entrySet().iterator();
+            Map.Entry<K, V> evincee = plusAncien.next();
+            plusAncien.remove();
+            evictions++;
+            notifier(evincee.getKey(), evincee.getValue());
+        }
+    }
+
+    /**
+     * Compte un échec constaté hors du cache (clé absente d'un index secondaire)
+     */
+    public synchronized void signalerEchec() {
+        misses++;
+    }
+
+    /**
+     * Retire une entrée ; retourne sa valeur ou null
+     */
+    public synchronized V invalider(K cle) {
+        V valeur = protege.remove(cle);
+        if (valeur == null) {
+            valeur = essai.remove(cle);
+        }
+        if (valeur != null) {
+            notifier(cle, valeur);
+        }
+        return valeur;
+    }
+
+    public synchronized void vider() {
+        essai.clear();
+        protege.clear();
+    }
+
+    private void notifier(K cle, V valeur) {
+        if (surEviction != null) {
+            surEviction.accept(cle, valeur);
+        }
+    }
+
+    public synchronized int getTaille() {
+        return essai.size() + protege.size();
+    }
+
+    public int getCapacite() {
+        return capacite;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized double getTauxSucces() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("taille=%d/%d, hits=%d, misses=%d, taux=%.1f%%, evictions=%d",
+                getTaille(), capacite, hits, misses, getTauxSucces() * 100, evictions);
+    }
+}
@@ -0,0 +1,27 @@
+package com.library.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversion des montants (pénalités) entre BigDecimal et centimes entiers
+ */
+public final class Centimes {
+
+    private Centimes() {
+    }
+
+    /**
+     * Montant en centimes, arrondi au centime le plus proche (0 si null)
+     */
+    public static long depuis(BigDecimal montant) {
+        return montant != null ? montant.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact() : 0L;
+    }
+
+    /**
+     * Montant à deux décimales
+     */
+    public static BigDecimal versMontant(long centimes) {
+        return BigDecimal.valueOf(centimes, 2);
+    }
+}
@@ -0,0 +1,152 @@
+package com.library.util;
+
+import java.util.Arrays;
+
+/**
+ * Table de compteurs int -> int sans objets intermédiaires (adressage ouvert, sondage linéaire).
+ * Une clé absente vaut 0 et un compteur qui retombe à 0 est retiré.
+ * Non synchronisée : l'appelant protège les accès concurrents.
+ */
+public class CompteursEntiers {
+
+    private static final int VIDE = Integer.MIN_VALUE;
+    private static final float CHARGE_MAX = 0.5f;
+
+    private int[] cles;
+    private int[] valeurs;
+    private int taille;
+
+    public CompteursEntiers() {
+        this(16);
+    }
+
+    public CompteursEntiers(int capaciteInitiale) {
+        int capacite = Integer.highestOneBit(Math.max(4, (int) (capaciteInitiale / CHARGE_MAX)) - 1) << 1;
+        cles = new int[capacite];
+        valeurs = new int[capacite];
+        Arrays.fill(cles, VIDE);
+    }
+
+    /**
+     * Valeur du compteur, 0 si la clé est absente
+     */
+    public int get(int cle) {
+        verifierCle(cle);
+        int masque = cles.length - 1;
+        for (int i = position(cle, masque); ; i = (i + 1) & masque) {
+            if (cles[i] == cle) {
+                return valeurs[i];
+            }
+            if (cles[i] == VIDE) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Ajoute delta au compteur et retourne la nouvelle valeur
+     */
+    public int ajouter(int cle, int delta) {
+        verifierCle(cle);
+        int masque = cles.length - 1;
+        int i = position(cle, masque);
+        while (cles[i] != VIDE && cles[i] != cle) {
+            i = (i + 1) & masque;
+        }
+        if (cles[i] == VIDE) {
+            if (delta == 0) {
+                return 0;
+            }
+            cles[i] = cle;
+            valeurs[i] = delta;
+            if (++taille > cles.length * CHARGE_MAX) {
+                agrandir();
+            }
+            return delta;
+        }
+        int valeur = valeurs[i] + delta;
+        if (valeur == 0) {
+            supprimer(i);
+        } else {
+            valeurs[i] = valeur;
+        }
+        return valeur;
+    }
+
+    /**
+     * Fixe la valeur du compteur (0 retire la clé)
+     */
+    public void mettre(int cle, int valeur) {
+        ajouter(cle, valeur - get(cle));
+    }
+
+    public int getTaille() {
+        return taille;
+    }
+
+    /**
+     * Copie des clés présentes (compteurs non nuls)
+     */
+    public int[] cles() {
+        int[] resultat = new int[taille];
+        int n = 0;
+        for (int cle : cles) {
+            if (cle != VIDE) {
+                resultat[n++] = cle;
+            }
+        }
+        return resultat;
+    }
+
+    public void vider() {
+        Arrays.fill(cles, VIDE);
+        taille = 0;
+    }
+
+    private void supprimer(int i) {
+        // Suppression par décalage arrière : pas de marqueur de tombe
+        int masque = cles.length - 1;
+        int trou = i;
+        for (int j = (i + 1) & masque; cles[j] != VIDE; j = (j + 1) & masque) {
+            int ideal = position(cles[j], masque);
+            // L'entrée j peut combler le trou si sa position idéale ne se trouve pas entre le trou et j
+            if (((j - ideal) & masque) >= ((j - trou) & masque)) {
+                cles[trou] = cles[j];
+                valeurs[trou] = valeurs[j];
+                trou = j;
+            }
+        }
+        cles[trou] = VIDE;
+        taille--;
+    }
+
+    private void agrandir() {
+        int[] anciennesCles = cles;
+        int[] anciennesValeurs = valeurs;
+        cles = new int[anciennesCles.length << 1];
+        valeurs = new int[anciennesCles.length << 1];
+        Arrays.fill(cles, VIDE);
+        int masque = cles.length - 1;
+        for (int k = 0; k < anciennesCles.length; k++) {
+            if (anciennesCles[k] != VIDE) {
+                int i = position(anciennesCles[k], masque);
+                while (cles[i] != VIDE) {
+                    i = (i + 1) & masque;
+                }
+                cles[i] = anciennesCles[k];
+                valeurs[i] = anciennesValeurs[k];
+            }
+        }
+    }
+
+    private static int position(int cle, int masque) {
+        int h = cle * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & masque;
+    }
+
+    private static void verifierCle(int cle) {
+        if (cle == VIDE) {
+            throw new IllegalArgumentException("Clé réservée: " + cle);
+        }
+    }
+}
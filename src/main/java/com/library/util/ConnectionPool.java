@@ -0,0 +1,389 @@
+package com.library.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool de connexions JDBC borné (taille min/max).
+ * Les connexions obtenues sont des proxys : close() rend la connexion au pool
+ * au lieu de fermer la connexion physique.
+ * Une tâche de fond évince les connexions inactives, valide les connexions libres,
+ * signale les fuites et maintient la taille minimale.
+ * Chaque connexion physique garde un cache LRU de PreparedStatement (voir StatementCache).
+ */
+public class ConnectionPool {
+
+    private static final long DELAI_ATTENTE_MS = 5_000;          // attente max d'une connexion libre
+    private static final long DUREE_INACTIVITE_MAX_MS = 600_000; // éviction après 10 min d'inactivité
+    private static final long DELAI_VALIDATION_MS = 30_000;      // validation si inutilisée depuis 30 s
+    private static final long SEUIL_FUITE_MS = 60_000;           // connexion empruntée depuis plus d'1 min
+    private static final long PERIODE_MAINTENANCE_MS = 30_000;
+    private static final int TIMEOUT_VALIDATION_S = 2;
+    private static final int TAILLE_CACHE_STATEMENTS = 50;       // statements en cache par connexion
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int tailleMin;
+    private final int tailleMax;
+
+    // LIFO : les connexions chaudes sont réutilisées, les plus anciennes vieillissent en fin de file
+    private final LinkedBlockingDeque<ConnexionPhysique> libres = new LinkedBlockingDeque<>();
+    private final Set<ConnexionPhysique> empruntees = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+    private final ScheduledExecutorService maintenance;
+    private volatile boolean ferme;
+
+    /**
+     * Crée le pool et ouvre immédiatement tailleMin connexions.
+     */
+    public ConnectionPool(String url, String user, String password, int tailleMin, int tailleMax) throws SQLException {
+        if (tailleMin < 0 || tailleMax < 1 || tailleMin > tailleMax) {
+            throw new IllegalArgumentException("Tailles de pool invalides: min=" + tailleMin + ", max=" + tailleMax);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.tailleMin = tailleMin;
+        this.tailleMax = tailleMax;
+
+        remplirJusquAuMinimum();
+
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pool-connexions-maintenance");
+            t.setDaemon(true);
+            return t;
+        });
+        maintenance.scheduleWithFixedDelay(this::maintenir,
+                PERIODE_MAINTENANCE_MS, PERIODE_MAINTENANCE_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Emprunte une connexion au pool. Elle doit être fermée (close) pour être rendue.
+     */
+    public Connection getConnection() throws SQLException {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DELAI_ATTENTE_MS);
+
+        while (true) {
+            if (ferme) {
+                throw new SQLException("Le pool de connexions est fermé");
+            }
+
+            ConnexionPhysique connexion = libres.pollFirst();
+            if (connexion == null) {
+                connexion = creerSiPossible();
+            }
+            if (connexion == null) {
+                long restant = limite - System.nanoTime();
+                try {
+                    connexion = restant > 0 ? libres.pollFirst(restant, TimeUnit.NANOSECONDS) : null;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Attente d'une connexion interrompue", e);
+                }
+                if (connexion == null) {
+                    throw new SQLTimeoutException("Aucune connexion disponible après " + DELAI_ATTENTE_MS
+                            + " ms (" + empruntees.size() + "/" + tailleMax + " empruntées)");
+                }
+            }
+
+            if (!estUtilisable(connexion)) {
+                detruire(connexion);
+                continue;
+            }
+
+            connexion.marquerEmpruntee();
+            empruntees.add(connexion);
+            return connexion.ouvrirSession(this);
+        }
+    }
+
+    /**
+     * Ferme le pool : les connexions libres sont fermées, les connexions empruntées
+     * le seront à leur restitution.
+     */
+    public void shutdown() {
+        ferme = true;
+        maintenance.shutdownNow();
+        ConnexionPhysique connexion;
+        while ((connexion = libres.pollFirst()) != null) {
+            detruire(connexion);
+        }
+    }
+
+    public boolean isShutdown() {
+        return ferme;
+    }
+
+    public int getActiveCount() {
+        return empruntees.size();
+    }
+
+    public int getIdleCount() {
+        return libres.size();
+    }
+
+    public int getTotalCount() {
+        return total.get();
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits.get();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.get();
+    }
+
+    /**
+     * Taux de succès du cache de statements (0 à 1)
+     */
+    public double getStatementCacheHitRatio() {
+        long hits = statementCacheHits.get();
+        long requetes = hits + statementCacheMisses.get();
+        return requetes == 0 ? 0.0 : (double) hits / requetes;
+    }
+
+    /**
+     * Restitution d'une connexion par son proxy.
+     */
+    private void rendre(ConnexionPhysique connexion) {
+        empruntees.remove(connexion);
+        if (ferme || !reinitialiser(connexion)) {
+            detruire(connexion);
+            return;
+        }
+        connexion.derniereUtilisation = System.currentTimeMillis();
+        libres.offerFirst(connexion);
+    }
+
+    /**
+     * Remet la connexion dans un état neutre avant de la rendre au pool.
+     */
+    private boolean reinitialiser(ConnexionPhysique connexion) {
+        try {
+            Connection physique = connexion.physique;
+            if (physique.isClosed()) {
+                return false;
+            }
+            if (!physique.getAutoCommit()) {
+                physique.rollback();
+                physique.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private boolean estUtilisable(ConnexionPhysique connexion) {
+        try {
+            if (connexion.physique.isClosed()) {
+                return false;
+            }
+            // Évite un aller-retour isValid() pour une connexion utilisée récemment
+            if (System.currentTimeMillis() - connexion.derniereUtilisation < DELAI_VALIDATION_MS) {
+                return true;
+            }
+            return connexion.physique.isValid(TIMEOUT_VALIDATION_S);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private ConnexionPhysique creerSiPossible() throws SQLException {
+        while (true) {
+            int actuel = total.get();
+            if (actuel >= tailleMax) {
+                return null;
+            }
+            if (total.compareAndSet(actuel, actuel + 1)) {
+                break;
+            }
+        }
+        try {
+            Connection physique = DriverManager.getConnection(url, user, password);
+            return new ConnexionPhysique(physique, new StatementCache(physique, TAILLE_CACHE_STATEMENTS,
+                    statementCacheHits, statementCacheMisses));
+        } catch (SQLException | RuntimeException e) {
+            total.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void detruire(ConnexionPhysique connexion) {
+        total.decrementAndGet();
+        try {
+            connexion.physique.close();
+        } catch (SQLException e) {
+            System.err.println("Erreur fermeture connexion du pool: " + e.getMessage());
+        }
+    }
+
+    private void remplirJusquAuMinimum() throws SQLException {
+        while (!ferme && total.get() < tailleMin) {
+            ConnexionPhysique connexion = creerSiPossible();
+            if (connexion == null) {
+                return;
+            }
+            libres.offerLast(connexion);
+        }
+    }
+
+    /**
+     * Tâche de fond : éviction, validation, détection de fuites, taille minimale.
+     */
+    private void maintenir() {
+        try {
+            long maintenant = System.currentTimeMillis();
+
+            // Éviction des connexions inactives (les plus anciennes sont en fin de file)
+            Iterator<ConnexionPhysique> anciennes = libres.descendingIterator();
+            while (anciennes.hasNext() && total.get() > tailleMin) {
+                ConnexionPhysique connexion = anciennes.next();
+                if (maintenant - connexion.derniereUtilisation > DUREE_INACTIVITE_MAX_MS && libres.remove(connexion)) {
+                    detruire(connexion);
+                }
+            }
+
+            // Validation des connexions libres inutilisées depuis un moment
+            for (ConnexionPhysique connexion : libres) {
+                if (maintenant - connexion.derniereUtilisation < DELAI_VALIDATION_MS || !libres.remove(connexion)) {
+                    continue;
+                }
+                if (estUtilisable(connexion)) {
+                    connexion.derniereUtilisation = System.currentTimeMillis();
+                    libres.offerLast(connexion);
+                } else {
+                    detruire(connexion);
+                }
+            }
+
+            // Détection des fuites : connexions jamais rendues
+            for (ConnexionPhysique connexion : empruntees) {
+                if (!connexion.fuiteSignalee && maintenant - connexion.debutEmprunt > SEUIL_FUITE_MS) {
+                    connexion.fuiteSignalee = true;
+                    signalerFuite(connexion, maintenant);
+                }
+            }
+
+            remplirJusquAuMinimum();
+        } catch (Exception e) {
+            System.err.println("Erreur maintenance du pool de connexions: " + e.getMessage());
+        }
+    }
+
+    private void signalerFuite(ConnexionPhysique connexion, long maintenant) {
+        Thread proprietaire = connexion.proprietaire;
+        StringBuilder sb = new StringBuilder("Fuite probable de connexion: empruntée depuis ")
+                .append((maintenant - connexion.debutEmprunt) / 1000).append(" s par le thread ")
+                .append(proprietaire != null ? proprietaire.getName() : "?");
+        if (proprietaire != null) {
+            for (StackTraceElement element : proprietaire.getStackTrace()) {
+                sb.append("\n\tat ").append(element);
+            }
+        }
+        System.err.println(sb);
+    }
+
+    /**
+     * Connexion physique gérée par le pool.
+     */
+    private static final class ConnexionPhysique {
+        final Connection physique;
+        final StatementCache statements;
+        volatile long derniereUtilisation = System.currentTimeMillis();
+        volatile long debutEmprunt;
+        volatile Thread proprietaire;
+        volatile boolean fuiteSignalee;
+
+        ConnexionPhysique(Connection physique, StatementCache statements) {
+            this.physique = physique;
+            this.statements = statements;
+        }
+
+        void marquerEmpruntee() {
+            debutEmprunt = System.currentTimeMillis();
+            proprietaire = Thread.currentThread();
+            fuiteSignalee = false;
+        }
+
+        Connection ouvrirSession(ConnectionPool pool) {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    new Session(pool, this));
+        }
+    }
+
+    /**
+     * Proxy d'une connexion empruntée : intercepte close(), isClosed()
+     * et prepareStatement(sql) / prepareStatement(sql, clesGenerees) pour passer par le cache.
+     */
+    private static final class Session implements InvocationHandler {
+        private final ConnectionPool pool;
+        private final ConnexionPhysique connexion;
+        private boolean rendue;
+
+        Session(ConnectionPool pool, ConnexionPhysique connexion) {
+            this.pool = pool;
+            this.connexion = connexion;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!rendue) {
+                        rendue = true;
+                        pool.rendre(connexion);
+                    }
+                    return null;
+                case "isClosed":
+                    return rendue || connexion.physique.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Connexion du pool[" + connexion.physique + (rendue ? ", rendue]" : "]");
+                default:
+                    break;
+            }
+            if (rendue) {
+                throw new SQLException("Connexion déjà rendue au pool");
+            }
+            if ("prepareStatement".equals(method.getName())) {
+                if (args.length == 1) {
+                    return connexion.statements.preparer((Connection) proxy, (String) args[0], Statement.NO_GENERATED_KEYS);
+                }
+                if (args.length == 2 && args[1] instanceof Integer) {
+                    return connexion.statements.preparer((Connection) proxy, (String) args[0], (Integer) args[1]);
+                }
+            }
+            try {
+                return method.invoke(connexion.physique, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,30 +1,40 @@
 package com.library.util;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 /**
- * Singleton pour gérer la connexion à la base de données.
+ * Singleton pour gérer l'accès à la base de données.
  * Pattern: Singleton avec Double-Checked Locking (thread-safe)
+ * Les connexions proviennent d'un pool : chaque close() rend la connexion au pool.
  */
 public class DatabaseConnection {
-    
+
     private static volatile DatabaseConnection instance;
-    private Connection connection;
-    
+    private final ConnectionPool pool;
+
     private static final String URL = "jdbc:mysql://localhost:3306/library_db";
     private static final String USER = "root";
-    private static final String PASSWORD = "amine123"; 
-    private static final String OPTIONS = "?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true";
-    
+    private static final String PASSWORD = "amine123";
+    private static final String OPTIONS = "?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true"
+            + "&rewriteBatchedStatements=true" // un batch JDBC = un seul aller-retour
+            + "&useCursorFetch=true"; // fetchSize > 0 : lecture par curseur serveur
+
+    // Statements préparés côté serveur : combinés au cache du pool, le SQL n'est analysé
+    // qu'une fois par connexion. Mettre à false pour revenir à la préparation côté client.
+    private static final boolean USE_SERVER_PREP_STMTS = true;
+
+    private static final int POOL_TAILLE_MIN = 2;
+    private static final int POOL_TAILLE_MAX = 10;
+
     /**
      * Constructeur privé (Singleton)
      */
     private DatabaseConnection() {
         try {
             Class.forName("com.mysql.cj.jdbc.Driver");
-            this.connection = DriverManager.getConnection(URL + OPTIONS, USER, PASSWORD);
+            String options = OPTIONS + "&useServerPrepStmts=" + USE_SERVER_PREP_STMTS;
+            this.pool = new ConnectionPool(URL + options, USER, PASSWORD, POOL_TAILLE_MIN, POOL_TAILLE_MAX);
 
         } catch (ClassNotFoundException e) {
             throw new RuntimeException("Driver MySQL introuvable", e);
@@ -32,7 +42,7 @@ public class DatabaseConnection {
             throw new RuntimeException("Erreur connexion DB", e);
         }
     }
-    
+
     /**
      * Double-Checked Locking
      */
@@ -46,44 +56,34 @@ public class DatabaseConnection {
         }
         return instance;
     }
-    
+
+    /**
+     * Emprunte une connexion au pool. À utiliser dans un try-with-resources
+     * pour que la connexion soit rendue au pool.
+     */
     public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed() || !connection.isValid(2)) {
-            // Reconnexion automatique si la connexion est invalide
-            synchronized (DatabaseConnection.class) {
-                if (connection == null || connection.isClosed() || !connection.isValid(2)) {
-                    try {
-                        if (connection != null && !connection.isClosed()) {
-                            connection.close();
-                        }
-                        Class.forName("com.mysql.cj.jdbc.Driver");
-                        this.connection = DriverManager.getConnection(URL + OPTIONS, USER, PASSWORD);
-                        System.out.println("Reconnexion à la base de données réussie");
-                    } catch (ClassNotFoundException e) {
-                        throw new RuntimeException("Driver MySQL introuvable", e);
-                    }
-                }
-            }
-        }
-        return connection;
+        return pool.getConnection();
     }
-    
+
+    /**
+     * Accès au pool (statistiques d'utilisation, cache de statements).
+     */
+    public ConnectionPool getPool() {
+        return pool;
+    }
+
     public boolean isConnected() {
-        try {
-            return connection != null && !connection.isClosed() && connection.isValid(2);
+        if (pool.isShutdown()) {
+            return false;
+        }
+        try (Connection conn = pool.getConnection()) {
+            return conn.isValid(2);
         } catch (SQLException e) {
             return false;
         }
     }
-    
-    public void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
 
-            } catch (SQLException e) {
-                System.err.println("Erreur fermeture: " + e.getMessage());
-            }
-        }
+    public void closeConnection() {
+        pool.shutdown();
     }
-}
\ No newline at end of file
+}
@@ -12,6 +12,12 @@ public class DateUtils {
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
     private static final int DUREE_EMPRUNT_JOURS = 14; // 2 semaines
     private static final double PENALITE_PAR_JOUR = 5.0; // 5 MAD par jour de retard
+    private static final long PENALITE_PAR_JOUR_CENTIMES = Math.round(PENALITE_PAR_JOUR * 100);
+
+    /**
+     * Jour absent (date nulle) dans la représentation en jours depuis l'époque
+     */
+    public static final int AUCUN_JOUR = Integer.MIN_VALUE;
     
     /**
      * Calcule la date de retour prévue (aujourd'hui + 14 jours)
@@ -60,6 +66,41 @@ public class DateUtils {
         return java.math.BigDecimal.valueOf(joursRetard * PENALITE_PAR_JOUR);
     }
     
+    /**
+     * Calcule la pénalité en centimes, dates en jours depuis l'époque
+     */
+    public static long calculerPenaliteCentimes(int jourRetourPrevu, int jourRetourEffectif) {
+        return Math.max(0, (long) jourRetourEffectif - jourRetourPrevu) * PENALITE_PAR_JOUR_CENTIMES;
+    }
+
+    /**
+     * Convertit une date SQL en jours depuis l'époque (AUCUN_JOUR si null)
+     */
+    public static int versJour(java.sql.Date date) {
+        return date != null ? Math.toIntExact(date.toLocalDate().toEpochDay()) : AUCUN_JOUR;
+    }
+
+    /**
+     * Convertit une date en jours depuis l'époque (AUCUN_JOUR si null)
+     */
+    public static int versJour(LocalDate date) {
+        return date != null ? Math.toIntExact(date.toEpochDay()) : AUCUN_JOUR;
+    }
+
+    /**
+     * Convertit des jours depuis l'époque en date SQL (null pour AUCUN_JOUR)
+     */
+    public static java.sql.Date versDateSql(int jour) {
+        return jour != AUCUN_JOUR ? java.sql.Date.valueOf(LocalDate.ofEpochDay(jour)) : null;
+    }
+
+    /**
+     * Convertit des jours depuis l'époque en date (null pour AUCUN_JOUR)
+     */
+    public static LocalDate versDate(int jour) {
+        return jour != AUCUN_JOUR ? LocalDate.ofEpochDay(jour) : null;
+    }
+
     /**
      * Formate une date en String (dd/MM/yyyy)
      */
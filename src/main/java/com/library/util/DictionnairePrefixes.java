@@ -0,0 +1,200 @@
+package com.library.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Dictionnaire trié et compact pour la recherche par préfixe (autocomplétion).
+ * Les clés sont stockées en UTF-8 par blocs à codage frontal : la première clé
+ * d'un bloc est complète, les suivantes ne gardent que le suffixe qui diffère
+ * de la précédente. Chaque clé porte une valeur entière. Structure immuable.
+ */
+public final class DictionnairePrefixes {
+
+    private static final int TAILLE_BLOC = 16;
+
+    private final byte[] donnees;
+    private final int[] debutsBlocs;
+    private final int nombreCles;
+
+    private DictionnairePrefixes(byte[] donnees, int[] debutsBlocs, int nombreCles) {
+        this.donnees = donnees;
+        this.debutsBlocs = debutsBlocs;
+        this.nombreCles = nombreCles;
+    }
+
+    /**
+     * Valeurs des clés commençant par le préfixe, dans l'ordre des clés
+     * @param max nombre maximal de valeurs retournées
+     */
+    public int[] rechercher(String prefixe, int max) {
+        byte[] cible = prefixe.getBytes(StandardCharsets.UTF_8);
+        int[] valeurs = new int[Math.max(0, max)];
+        int trouvees = 0;
+        if (nombreCles == 0 || max <= 0) {
+            return valeurs;
+        }
+
+        // Dernier bloc dont la première clé est strictement inférieure au préfixe
+        int bas = 0;
+        int haut = debutsBlocs.length - 1;
+        int bloc = 0;
+        while (bas <= haut) {
+            int milieu = (bas + haut) >>> 1;
+            if (comparerPremiereCle(milieu, cible) < 0) {
+                bloc = milieu;
+                bas = milieu + 1;
+            } else {
+                haut = milieu - 1;
+            }
+        }
+
+        byte[] cle = new byte[64];
+        int longueur = 0;
+        int position = debutsBlocs[bloc];
+        for (int i = bloc * TAILLE_BLOC; i < nombreCles && trouvees < max; i++) {
+            int commun = 0;
+            if (i % TAILLE_BLOC != 0) {
+                commun = lireVarint(position);
+                position += tailleVarint(commun);
+            }
+            int suffixe = lireVarint(position);
+            position += tailleVarint(suffixe);
+            longueur = commun + suffixe;
+            if (longueur > cle.length) {
+                cle = Arrays.copyOf(cle, Math.max(longueur, cle.length * 2));
+            }
+            System.arraycopy(donnees, position, cle, commun, suffixe);
+            position += suffixe;
+            int valeur = lireVarint(position);
+            position += tailleVarint(valeur);
+
+            if (commencePar(cle, longueur, cible)) {
+                valeurs[trouvees++] = valeur;
+            } else if (Arrays.compareUnsigned(cle, 0, longueur, cible, 0, cible.length) > 0) {
+                break; // au-delà de la plage du préfixe
+            }
+        }
+        return Arrays.copyOf(valeurs, trouvees);
+    }
+
+    public int getNombreCles() {
+        return nombreCles;
+    }
+
+    /**
+     * Mémoire occupée par les clés encodées et l'index des blocs
+     */
+    public long getTailleOctets() {
+        return donnees.length + 4L * debutsBlocs.length;
+    }
+
+    private int comparerPremiereCle(int bloc, byte[] cible) {
+        int position = debutsBlocs[bloc];
+        int longueur = lireVarint(position);
+        position += tailleVarint(longueur);
+        return Arrays.compareUnsigned(donnees, position, position + longueur, cible, 0, cible.length);
+    }
+
+    private static boolean commencePar(byte[] cle, int longueur, byte[] prefixe) {
+        return longueur >= prefixe.length
+                && Arrays.equals(cle, 0, prefixe.length, prefixe, 0, prefixe.length);
+    }
+
+    private int lireVarint(int position) {
+        int valeur = 0;
+        int decalage = 0;
+        byte octet;
+        do {
+            octet = donnees[position++];
+            valeur |= (octet & 0x7F) << decalage;
+            decalage += 7;
+        } while ((octet & 0x80) != 0);
+        return valeur;
+    }
+
+    private static int tailleVarint(int valeur) {
+        int taille = 1;
+        while ((valeur >>>= 7) != 0) {
+            taille++;
+        }
+        return taille;
+    }
+
+    private static void ecrireVarint(ByteArrayOutputStream out, int valeur) {
+        while ((valeur & ~0x7F) != 0) {
+            out.write((valeur & 0x7F) | 0x80);
+            valeur >>>= 7;
+        }
+        out.write(valeur);
+    }
+
+    /**
+     * Accumule les clés puis produit le dictionnaire trié
+     */
+    public static final class Constructeur {
+
+        private final List<byte[]> cles = new ArrayList<>();
+        private int[] valeurs = new int[16];
+
+        public Constructeur ajouter(String cle, int valeur) {
+            if (cles.size() == valeurs.length) {
+                valeurs = Arrays.copyOf(valeurs, valeurs.length * 2);
+            }
+            valeurs[cles.size()] = valeur;
+            cles.add(cle.getBytes(StandardCharsets.UTF_8));
+            return this;
+        }
+
+        public DictionnairePrefixes construire() {
+            int n = cles.size();
+            Integer[] ordre = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                ordre[i] = i;
+            }
+            Arrays.sort(ordre, (a, b) -> {
+                int comparaison = Arrays.compareUnsigned(cles.get(a), cles.get(b));
+                return comparaison != 0 ? comparaison : Integer.compare(valeurs[a], valeurs[b]);
+            });
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            List<Integer> debuts = new ArrayList<>();
+            byte[] precedente = null;
+            int precedenteValeur = -1;
+            int nombre = 0;
+            for (int indice : ordre) {
+                byte[] cle = cles.get(indice);
+                int valeur = valeurs[indice];
+                if (precedente != null && valeur == precedenteValeur && Arrays.equals(cle, precedente)) {
+                    continue; // doublon exact
+                }
+                if (nombre % TAILLE_BLOC == 0) {
+                    debuts.add(out.size());
+                    ecrireVarint(out, cle.length);
+                    out.write(cle, 0, cle.length);
+                } else {
+                    int commun = Arrays.mismatch(cle, precedente);
+                    if (commun < 0) {
+                        commun = cle.length;
+                    }
+                    ecrireVarint(out, commun);
+                    ecrireVarint(out, cle.length - commun);
+                    out.write(cle, commun, cle.length - commun);
+                }
+                ecrireVarint(out, valeur);
+                precedente = cle;
+                precedenteValeur = valeur;
+                nombre++;
+            }
+
+            int[] debutsBlocs = new int[debuts.size()];
+            for (int i = 0; i < debutsBlocs.length; i++) {
+                debutsBlocs[i] = debuts.get(i);
+            }
+            return new DictionnairePrefixes(out.toByteArray(), debutsBlocs, nombre);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.library.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtre de Bloom : répond « absent à coup sûr » ou « peut-être présent ».
+ * Aucun faux négatif ; les faux positifs restent proches du taux demandé
+ * tant que le nombre d'éléments ajoutés ne dépasse pas la capacité.
+ * Les ajouts sont sans verrou (CAS sur les mots de bits) et peuvent être concurrents des lectures.
+ */
+public class FiltreBloom {
+
+    private final AtomicLongArray bits;
+    private final long nombreBits;
+    private final int nombreHachages;
+    private final long capacite;
+    private final AtomicLong nombreElements = new AtomicLong();
+
+    /**
+     * @param capacite nombre d'éléments attendus
+     * @param tauxFauxPositifs taux de faux positifs visé à pleine capacité (ex. 0.01)
+     */
+    public FiltreBloom(long capacite, double tauxFauxPositifs) {
+        if (capacite <= 0 || tauxFauxPositifs <= 0 || tauxFauxPositifs >= 1) {
+            throw new IllegalArgumentException("Capacité ou taux de faux positifs invalide");
+        }
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-capacite * Math.log(tauxFauxPositifs) / (ln2 * ln2));
+        int mots = (int) Math.min(Integer.MAX_VALUE - 8, (m + 63) >>> 6);
+        this.bits = new AtomicLongArray(mots);
+        this.nombreBits = (long) mots << 6;
+        this.nombreHachages = Math.max(1, (int) Math.round((double) nombreBits / capacite * ln2));
+        this.capacite = capacite;
+    }
+
+    public void ajouter(String cle) {
+        ajouterHache(hacher(cle));
+    }
+
+    public void ajouter(long cle) {
+        ajouterHache(melanger(cle));
+    }
+
+    /**
+     * false si la clé n'a certainement jamais été ajoutée
+     */
+    public boolean peutContenir(String cle) {
+        return contientHache(hacher(cle));
+    }
+
+    public boolean peutContenir(long cle) {
+        return contientHache(melanger(cle));
+    }
+
+    private void ajouterHache(long h1) {
+        // Double hachage (Kirsch-Mitzenmacher) : k positions dérivées de deux valeurs
+        long h2 = melanger(h1) | 1;
+        long h = h1;
+        for (int i = 0; i < nombreHachages; i++) {
+            long position = Long.remainderUnsigned(h, nombreBits);
+            int mot = (int) (position >>> 6);
+            long masque = 1L << position;
+            long ancien = bits.get(mot);
+            while ((ancien & masque) == 0 && !bits.compareAndSet(mot, ancien, ancien | masque)) {
+                ancien = bits.get(mot);
+            }
+            h += h2;
+        }
+        nombreElements.incrementAndGet();
+    }
+
+    private boolean contientHache(long h1) {
+        long h2 = melanger(h1) | 1;
+        long h = h1;
+        for (int i = 0; i < nombreHachages; i++) {
+            long position = Long.remainderUnsigned(h, nombreBits);
+            if ((bits.get((int) (position >>> 6)) & (1L << position)) == 0) {
+                return false;
+            }
+            h += h2;
+        }
+        return true;
+    }
+
+    private static long hacher(String cle) {
+        // FNV-1a 64 bits sur les caractères, puis mélange final
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < cle.length(); i++) {
+            h ^= cle.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return melanger(h);
+    }
+
+    private static long melanger(long h) {
+        // Finaliseur de MurmurHash3
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Nombre d'ajouts effectués (doublons compris)
+     */
+    public long getNombreElements() {
+        return nombreElements.get();
+    }
+
+    public long getCapacite() {
+        return capacite;
+    }
+
+    /**
+     * Vrai quand les ajouts ont dépassé la capacité prévue : le taux de faux positifs se dégrade
+     */
+    public boolean isSature() {
+        return nombreElements.get() > capacite;
+    }
+
+    public int getNombreHachages() {
+        return nombreHachages;
+    }
+
+    public long getTailleOctets() {
+        return nombreBits >>> 3;
+    }
+}
@@ -0,0 +1,144 @@
+package com.library.util;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index d'échéances : identifiants rangés par jour d'échéance (un seau par jour).
+ * Les requêtes par intervalle de dates parcourent uniquement les seaux concernés,
+ * en temps proportionnel au nombre de résultats.
+ */
+public class IndexEcheances {
+
+    private final NavigableMap<Long, Set<Integer>> seaux = new TreeMap<>();
+    private final Map<Integer, Long> jourParId = new HashMap<>();
+    private final ReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    /**
+     * Ajoute ou déplace un identifiant à sa date d'échéance
+     */
+    public void ajouter(int id, LocalDate echeance) {
+        ajouter(id, echeance.toEpochDay());
+    }
+
+    /**
+     * Ajoute ou déplace un identifiant à son jour d'échéance (jours depuis l'époque)
+     */
+    public void ajouter(int id, long jour) {
+        verrou.writeLock().lock();
+        try {
+            Long ancien = jourParId.put(id, jour);
+            if (ancien != null) {
+                if (ancien == jour) {
+                    return;
+                }
+                retirerDuSeau(id, ancien);
+            }
+            Set<Integer> seau = seaux.get(jour);
+            if (seau == null) {
+                seau = new LinkedHashSet<>();
+                seaux.put(jour, seau);
+            }
+            seau.add(id);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    public void retirer(int id) {
+        verrou.writeLock().lock();
+        try {
+            Long jour = jourParId.remove(id);
+            if (jour != null) {
+                retirerDuSeau(id, jour);
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    private void retirerDuSeau(int id, long jour) {
+        Set<Integer> seau = seaux.get(jour);
+        if (seau != null && seau.remove(id) && seau.isEmpty()) {
+            seaux.remove(jour);
+        }
+    }
+
+    /**
+     * Identifiants dont l'échéance est strictement antérieure à la date, de la plus ancienne à la plus récente
+     */
+    public List<Integer> avant(LocalDate date) {
+        verrou.readLock().lock();
+        try {
+            return collecter(seaux.headMap(date.toEpochDay(), false));
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Identifiants dont l'échéance tombe entre debut et fin (inclus)
+     */
+    public List<Integer> entre(LocalDate debut, LocalDate fin) {
+        verrou.readLock().lock();
+        try {
+            if (fin.isBefore(debut)) {
+                return new ArrayList<>();
+            }
+            return collecter(seaux.subMap(debut.toEpochDay(), true, fin.toEpochDay(), true));
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    private static List<Integer> collecter(NavigableMap<Long, Set<Integer>> plage) {
+        List<Integer> ids = new ArrayList<>();
+        for (Set<Integer> seau : plage.values()) {
+            ids.addAll(seau);
+        }
+        return ids;
+    }
+
+    /**
+     * Nombre d'identifiants absents de l'un des deux index ou rangés à un autre jour
+     */
+    public int ecarts(IndexEcheances autre) {
+        verrou.readLock().lock();
+        autre.verrou.readLock().lock();
+        try {
+            int ecarts = 0;
+            for (Map.Entry<Integer, Long> entree : jourParId.entrySet()) {
+                if (!entree.getValue().equals(autre.jourParId.get(entree.getKey()))) {
+                    ecarts++;
+                }
+            }
+            for (Integer id : autre.jourParId.keySet()) {
+                if (!jourParId.containsKey(id)) {
+                    ecarts++;
+                }
+            }
+            return ecarts;
+        } finally {
+            autre.verrou.readLock().unlock();
+            verrou.readLock().unlock();
+        }
+    }
+
+    public int getTaille() {
+        verrou.readLock().lock();
+        try {
+            return jourParId.size();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.library.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index inversé en mémoire : mot normalisé -> documents qui le contiennent.
+ * Chaque document est identifié par une clé et possède plusieurs champs (titre, auteur...).
+ * Les requêtes combinent leurs mots en ET, chaque mot pouvant être un préfixe,
+ * et les résultats sont classés par pertinence.
+ */
+public class IndexInverse {
+
+    // Un mot trouvé en entier vaut plus qu'un mot trouvé par préfixe
+    private static final int BONUS_MOT_EXACT = 3;
+    // En recherche approximative : une faute vaut mieux qu'un simple préfixe, deux fautes autant
+    private static final int BONUS_UNE_FAUTE = 2;
+    private static final int BONUS_DEUX_FAUTES = 1;
+
+    private final int[] poidsChamps;
+    private final TreeMap<String, Postings> termes = new TreeMap<>();
+    // Vocabulaire pour la recherche approximative (les mots disparus y restent, filtrés à la lecture)
+    private final VocabulaireApproximatif vocabulaire = new VocabulaireApproximatif();
+    private final Map<String, Document> documents = new HashMap<>();
+    private final List<Document> parNumero = new ArrayList<>();
+    private final Deque<Integer> numerosLibres = new ArrayDeque<>();
+    private final ReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    /**
+     * @param poidsChamps poids de chaque champ dans le classement (indice = numéro du champ)
+     */
+    public IndexInverse(int... poidsChamps) {
+        this.poidsChamps = poidsChamps.clone();
+    }
+
+    /**
+     * Indexe (ou réindexe) un document ; valeurs dans l'ordre des champs
+     */
+    public void ajouter(String cle, String... valeurs) {
+        // Tokenisation hors verrou
+        Map<String, Integer> champsParTerme = new LinkedHashMap<>();
+        for (int champ = 0; champ < valeurs.length && champ < poidsChamps.length; champ++) {
+            for (String terme : Normalisation.tokens(valeurs[champ])) {
+                champsParTerme.merge(terme, 1 << champ, (a, b) -> a | b);
+            }
+        }
+
+        verrou.writeLock().lock();
+        try {
+            retirerSansVerrou(cle);
+            int numero = numerosLibres.isEmpty() ? parNumero.size() : numerosLibres.pop();
+            Document document = new Document(cle, numero, champsParTerme);
+            if (numero == parNumero.size()) {
+                parNumero.add(document);
+            } else {
+                parNumero.set(numero, document);
+            }
+            documents.put(cle, document);
+            for (Map.Entry<String, Integer> entree : champsParTerme.entrySet()) {
+                Postings postings = termes.get(entree.getKey());
+                if (postings == null) {
+                    postings = new Postings();
+                    termes.put(entree.getKey(), postings);
+                    vocabulaire.ajouter(entree.getKey());
+                }
+                postings.ajouter(numero, entree.getValue().byteValue());
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retire un document de l'index
+     */
+    public void retirer(String cle) {
+        verrou.writeLock().lock();
+        try {
+            retirerSansVerrou(cle);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    private void retirerSansVerrou(String cle) {
+        Document document = documents.remove(cle);
+        if (document == null) {
+            return;
+        }
+        for (String terme : document.termes) {
+            Postings postings = termes.get(terme);
+            if (postings != null && postings.retirer(document.numero) && postings.taille == 0) {
+                termes.remove(terme);
+            }
+        }
+        parNumero.set(document.numero, null);
+        numerosLibres.push(document.numero);
+    }
+
+    /**
+     * Recherche les documents contenant tous les mots de la requête (préfixes acceptés)
+     * dans les champs demandés, classés par pertinence décroissante.
+     * @param masqueChamps bits des champs interrogés (1 << numéro du champ)
+     */
+    public List<String> rechercher(String requete, int masqueChamps) {
+        List<String> mots = new ArrayList<>(new LinkedHashSet<>(Normalisation.tokens(requete)));
+        if (mots.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        verrou.readLock().lock();
+        try {
+            // Partir du mot le plus sélectif, puis vérifier les autres mots sur chaque candidat
+            String plusSelectif = mots.get(0);
+            long minimum = Long.MAX_VALUE;
+            for (String mot : mots) {
+                long occurrences = nombreOccurrences(mot);
+                if (occurrences < minimum) {
+                    minimum = occurrences;
+                    plusSelectif = mot;
+                }
+            }
+            Map<Integer, Integer> scores = scoresPourMot(plusSelectif, masqueChamps);
+            for (String mot : mots) {
+                if (mot.equals(plusSelectif) || scores.isEmpty()) {
+                    continue;
+                }
+                // ET : un candidat sans ce mot est écarté
+                scores.entrySet().removeIf(entree -> {
+                    int score = scoreDansDocument(parNumero.get(entree.getKey()), mot, masqueChamps);
+                    entree.setValue(entree.getValue() + score);
+                    return score == 0;
+                });
+            }
+
+            return classer(scores);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Comme rechercher, en tolérant des fautes de frappe : chaque mot de la requête
+     * accepte aussi les mots indexés à une ou deux modifications près (selon sa longueur).
+     */
+    public List<String> rechercherApproximatif(String requete, int masqueChamps) {
+        List<String> mots = new ArrayList<>(new LinkedHashSet<>(Normalisation.tokens(requete)));
+        if (mots.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        verrou.readLock().lock();
+        try {
+            Map<Integer, Integer> scores = null;
+            for (String mot : mots) {
+                Map<Integer, Integer> scoresMot = scoresPourMot(mot, masqueChamps);
+                for (VocabulaireApproximatif.Correspondance proche : vocabulaire.rechercher(mot, tolerance(mot))) {
+                    Postings postings = termes.get(proche.getMot());
+                    if (proche.getDistance() == 0 || postings == null) {
+                        continue;
+                    }
+                    int bonus = proche.getDistance() == 1 ? BONUS_UNE_FAUTE : BONUS_DEUX_FAUTES;
+                    for (int i = 0; i < postings.taille; i++) {
+                        int champs = postings.champs[i] & masqueChamps;
+                        if (champs != 0) {
+                            scoresMot.merge(postings.documents[i], poids(champs) * bonus, Math::max);
+                        }
+                    }
+                }
+
+                if (scores == null) {
+                    scores = scoresMot;
+                } else {
+                    // ET : ne garder que les documents trouvés pour chaque mot
+                    Map<Integer, Integer> intersection = new HashMap<>();
+                    for (Map.Entry<Integer, Integer> entree : scores.entrySet()) {
+                        Integer score = scoresMot.get(entree.getKey());
+                        if (score != null) {
+                            intersection.put(entree.getKey(), entree.getValue() + score);
+                        }
+                    }
+                    scores = intersection;
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+            return classer(scores);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    // Fautes tolérées : aucune pour les mots très courts, deux au-delà de six lettres
+    private static int tolerance(String mot) {
+        return mot.length() <= 3 ? 0 : mot.length() <= 6 ? 1 : 2;
+    }
+
+    private List<String> classer(Map<Integer, Integer> scores) {
+        List<Map.Entry<Integer, Integer>> classement = new ArrayList<>(scores.entrySet());
+        classement.sort(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+                .thenComparing(entree -> parNumero.get(entree.getKey()).cle, Comparator.naturalOrder()));
+        List<String> cles = new ArrayList<>(classement.size());
+        for (Map.Entry<Integer, Integer> entree : classement) {
+            cles.add(parNumero.get(entree.getKey()).cle);
+        }
+        return cles;
+    }
+
+    private Map<Integer, Integer> scoresPourMot(String mot, int masqueChamps) {
+        Map<Integer, Integer> scores = new HashMap<>();
+        for (Map.Entry<String, Postings> entree : termes.tailMap(mot, true).entrySet()) {
+            String terme = entree.getKey();
+            if (!terme.startsWith(mot)) {
+                break;
+            }
+            int bonus = terme.length() == mot.length() ? BONUS_MOT_EXACT : 1;
+            Postings postings = entree.getValue();
+            for (int i = 0; i < postings.taille; i++) {
+                int champs = postings.champs[i] & masqueChamps;
+                if (champs != 0) {
+                    scores.merge(postings.documents[i], poids(champs) * bonus, Math::max);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private long nombreOccurrences(String mot) {
+        long occurrences = 0;
+        for (Map.Entry<String, Postings> entree : termes.tailMap(mot, true).entrySet()) {
+            if (!entree.getKey().startsWith(mot)) {
+                break;
+            }
+            occurrences += entree.getValue().taille;
+        }
+        return occurrences;
+    }
+
+    private int scoreDansDocument(Document document, String mot, int masqueChamps) {
+        int score = 0;
+        for (int i = 0; i < document.termes.length; i++) {
+            int champs = document.champs[i] & masqueChamps;
+            if (champs != 0 && document.termes[i].startsWith(mot)) {
+                int bonus = document.termes[i].length() == mot.length() ? BONUS_MOT_EXACT : 1;
+                score = Math.max(score, poids(champs) * bonus);
+            }
+        }
+        return score;
+    }
+
+    private int poids(int champs) {
+        int poids = 0;
+        for (int champ = 0; champ < poidsChamps.length; champ++) {
+            if ((champs & (1 << champ)) != 0) {
+                poids = Math.max(poids, poidsChamps[champ]);
+            }
+        }
+        return poids;
+    }
+
+    /**
+     * Nombre de documents indexés
+     */
+    public int getNombreDocuments() {
+        verrou.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Nombre de mots distincts indexés
+     */
+    public int getNombreTermes() {
+        verrou.readLock().lock();
+        try {
+            return termes.size();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    private static final class Document {
+        final String cle;
+        final int numero;
+        final String[] termes;
+        final byte[] champs;
+
+        Document(String cle, int numero, Map<String, Integer> champsParTerme) {
+            this.cle = cle;
+            this.numero = numero;
+            this.termes = new String[champsParTerme.size()];
+            this.champs = new byte[champsParTerme.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entree : champsParTerme.entrySet()) {
+                termes[i] = entree.getKey();
+                champs[i] = entree.getValue().byteValue();
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Liste des documents d'un mot, avec les champs où il apparaît
+     */
+    private static final class Postings {
+        int[] documents = new int[2];
+        byte[] champs = new byte[2];
+        int taille;
+
+        void ajouter(int document, byte champsDocument) {
+            if (taille == documents.length) {
+                documents = Arrays.copyOf(documents, taille * 2);
+                champs = Arrays.copyOf(champs, taille * 2);
+            }
+            documents[taille] = document;
+            champs[taille] = champsDocument;
+            taille++;
+        }
+
+        boolean retirer(int document) {
+            for (int i = 0; i < taille; i++) {
+                if (documents[i] == document) {
+                    taille--;
+                    documents[i] = documents[taille];
+                    champs[i] = champs[taille];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
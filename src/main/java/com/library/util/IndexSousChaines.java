@@ -0,0 +1,167 @@
+package com.library.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index de trigrammes pour la recherche de sous-chaînes (« atti » dans « Benatti »).
+ * Les candidats sont lus dans la liste du trigramme le plus rare du motif,
+ * puis vérifiés sur le texte normalisé.
+ */
+public class IndexSousChaines {
+
+    /** Longueur minimale d'un motif (un trigramme) */
+    public static final int LONGUEUR_MIN = 3;
+
+    // Séparateur de champs : aucun motif ne peut le contenir
+    private static final char SEPARATEUR = '\n';
+
+    private final Map<Integer, String> textes = new HashMap<>();
+    private final Map<Long, Liste> trigrammes = new HashMap<>();
+    private final ReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    /**
+     * Indexe (ou réindexe) les champs d'un document
+     */
+    public void ajouter(int id, String... champs) {
+        StringBuilder texte = new StringBuilder();
+        for (String champ : champs) {
+            texte.append(Normalisation.plier(champ)).append(SEPARATEUR);
+        }
+        String normalise = texte.toString();
+
+        verrou.writeLock().lock();
+        try {
+            retirerSansVerrou(id);
+            textes.put(id, normalise);
+            for (long code : trigrammesDistincts(normalise)) {
+                trigrammes.computeIfAbsent(code, c -> new Liste()).ajouter(id);
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    public void retirer(int id) {
+        verrou.writeLock().lock();
+        try {
+            retirerSansVerrou(id);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    private void retirerSansVerrou(int id) {
+        String texte = textes.remove(id);
+        if (texte == null) {
+            return;
+        }
+        for (long code : trigrammesDistincts(texte)) {
+            Liste liste = trigrammes.get(code);
+            if (liste != null && liste.retirer(id) && liste.taille == 0) {
+                trigrammes.remove(code);
+            }
+        }
+    }
+
+    /**
+     * Documents dont un champ contient le motif (insensible à la casse et aux accents)
+     * @param motif au moins LONGUEUR_MIN caractères
+     */
+    public Set<Integer> rechercher(String motif) {
+        String normalise = Normalisation.plier(motif);
+        if (normalise.length() < LONGUEUR_MIN) {
+            throw new IllegalArgumentException("Motif trop court: " + motif);
+        }
+
+        verrou.readLock().lock();
+        try {
+            Liste plusRare = null;
+            for (long code : trigrammesDistincts(normalise)) {
+                Liste liste = trigrammes.get(code);
+                if (liste == null) {
+                    return new HashSet<>();
+                }
+                if (plusRare == null || liste.taille < plusRare.taille) {
+                    plusRare = liste;
+                }
+            }
+            Set<Integer> ids = new HashSet<>();
+            for (int i = 0; i < plusRare.taille; i++) {
+                int id = plusRare.valeurs[i];
+                if (textes.get(id).contains(normalise)) {
+                    ids.add(id);
+                }
+            }
+            return ids;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    public int getNombreDocuments() {
+        verrou.readLock().lock();
+        try {
+            return textes.size();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    private static long[] trigrammesDistincts(String texte) {
+        List<Long> codes = new ArrayList<>();
+        for (int i = 0; i + LONGUEUR_MIN <= texte.length(); i++) {
+            char a = texte.charAt(i);
+            char b = texte.charAt(i + 1);
+            char c = texte.charAt(i + 2);
+            if (a == SEPARATEUR || b == SEPARATEUR || c == SEPARATEUR) {
+                continue;
+            }
+            codes.add(((long) a << 32) | ((long) b << 16) | c);
+        }
+        return codes.stream().mapToLong(Long::longValue).distinct().toArray();
+    }
+
+    /**
+     * Liste d'identifiants triée : ajout en fin lors d'une construction par identifiants croissants,
+     * recherche dichotomique sinon
+     */
+    private static final class Liste {
+        int[] valeurs = new int[2];
+        int taille;
+
+        void ajouter(int valeur) {
+            int position = taille == 0 || valeurs[taille - 1] < valeur
+                    ? taille : Arrays.binarySearch(valeurs, 0, taille, valeur);
+            if (position >= 0 && position < taille) {
+                return; // déjà présent
+            }
+            if (position < 0) {
+                position = -position - 1;
+            }
+            if (taille == valeurs.length) {
+                valeurs = Arrays.copyOf(valeurs, taille * 2);
+            }
+            System.arraycopy(valeurs, position, valeurs, position + 1, taille - position);
+            valeurs[position] = valeur;
+            taille++;
+        }
+
+        boolean retirer(int valeur) {
+            int position = Arrays.binarySearch(valeurs, 0, taille, valeur);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(valeurs, position + 1, valeurs, position, taille - position - 1);
+            taille--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.library.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesure de débit d'un lot de traitement (nombre de lignes et durée)
+ */
+public class MetriqueLot {
+
+    private final int numero;
+    private final int lignes;
+    private final long dureeNanos;
+
+    public MetriqueLot(int numero, int lignes, long dureeNanos) {
+        this.numero = numero;
+        this.lignes = lignes;
+        this.dureeNanos = dureeNanos;
+    }
+
+    public int getNumero() {
+        return numero;
+    }
+
+    public int getLignes() {
+        return lignes;
+    }
+
+    public long getDureeNanos() {
+        return dureeNanos;
+    }
+
+    public double getDureeMillis() {
+        return dureeNanos / 1_000_000.0;
+    }
+
+    /**
+     * Débit du lot en lignes par seconde
+     */
+    public double getLignesParSeconde() {
+        return dureeNanos > 0 ? lignes * (double) TimeUnit.SECONDS.toNanos(1) / dureeNanos : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Lot %d: %d ligne(s) en %.1f ms (%.0f lignes/s)",
+                numero, lignes, getDureeMillis(), getLignesParSeconde());
+    }
+}
@@ -0,0 +1,47 @@
+package com.library.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalisation de texte pour la recherche : minuscules, sans accents,
+ * découpé en mots (« L'Étranger » donne « l » et « etranger »)
+ */
+public final class Normalisation {
+
+    private static final Pattern DIACRITIQUES = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATEURS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private Normalisation() {
+    }
+
+    /**
+     * Met le texte en minuscules et retire les accents (é -> e, œ -> oe)
+     */
+    public static String plier(String texte) {
+        if (texte == null) {
+            return "";
+        }
+        String decompose = Normalizer.normalize(texte, Normalizer.Form.NFD);
+        return DIACRITIQUES.matcher(decompose).replaceAll("")
+                .toLowerCase(Locale.ROOT)
+                .replace("œ", "oe")
+                .replace("æ", "ae");
+    }
+
+    /**
+     * Découpe le texte plié en mots (lettres et chiffres)
+     */
+    public static List<String> tokens(String texte) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATEURS.split(plier(texte))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,196 @@
+package com.library.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache LRU de PreparedStatement attaché à une connexion physique du pool.
+ * Clé: texte SQL + mode de génération de clés. Un close() sur le statement
+ * retourné le remet dans le cache au lieu de le fermer.
+ * Un cache n'est utilisé que par le thread qui a emprunté la connexion.
+ */
+class StatementCache {
+
+    private final Connection physique;
+    private final int capacite;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final LinkedHashMap<Cle, Entree> entrees;
+
+    StatementCache(Connection physique, int capacite, AtomicLong hits, AtomicLong misses) {
+        this.physique = physique;
+        this.capacite = capacite;
+        this.hits = hits;
+        this.misses = misses;
+        this.entrees = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Cle, Entree> eldest) {
+                if (size() <= StatementCache.this.capacite) {
+                    return false;
+                }
+                eldest.getValue().evince();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Retourne un statement préparé pour ce SQL, depuis le cache si possible.
+     * @param session la connexion (proxy) vue par l'appelant
+     */
+    PreparedStatement preparer(Connection session, String sql, int clesGenerees) throws SQLException {
+        Cle cle = new Cle(sql, clesGenerees);
+        Entree entree = entrees.get(cle);
+
+        if (entree != null && !entree.enUtilisation && !entree.statement.isClosed()) {
+            hits.incrementAndGet();
+            entree.enUtilisation = true;
+            return entree.ouvrir(session);
+        }
+
+        misses.incrementAndGet();
+        PreparedStatement statement = physique.prepareStatement(sql, clesGenerees);
+        if (entree != null && entree.enUtilisation) {
+            // Même requête déjà ouverte sur cette connexion (usage imbriqué) : statement non mis en cache
+            return statement;
+        }
+        Entree nouvelle = new Entree(statement);
+        nouvelle.enUtilisation = true;
+        entrees.put(cle, nouvelle);
+        return nouvelle.ouvrir(session);
+    }
+
+    int taille() {
+        return entrees.size();
+    }
+
+    /**
+     * Clé du cache
+     */
+    private static final class Cle {
+        final String sql;
+        final int clesGenerees;
+
+        Cle(String sql, int clesGenerees) {
+            this.sql = sql;
+            this.clesGenerees = clesGenerees;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Cle)) {
+                return false;
+            }
+            Cle autre = (Cle) o;
+            return clesGenerees == autre.clesGenerees && sql.equals(autre.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sql, clesGenerees);
+        }
+    }
+
+    /**
+     * Statement physique en cache
+     */
+    private static final class Entree {
+        final PreparedStatement statement;
+        boolean enUtilisation;
+        boolean evincee;
+
+        Entree(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        PreparedStatement ouvrir(Connection session) {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    StatementCache.class.getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class },
+                    new Utilisation(this, session));
+        }
+
+        void liberer() {
+            enUtilisation = false;
+            try {
+                if (evincee) {
+                    statement.close();
+                } else {
+                    statement.clearParameters();
+                }
+            } catch (SQLException e) {
+                fermerSilencieusement();
+            }
+        }
+
+        void evince() {
+            evincee = true;
+            if (!enUtilisation) {
+                fermerSilencieusement();
+            }
+        }
+
+        private void fermerSilencieusement() {
+            try {
+                statement.close();
+            } catch (SQLException ignored) {
+                // le statement sera recréé au prochain usage
+            }
+        }
+    }
+
+    /**
+     * Proxy remis à l'appelant pour une utilisation du statement en cache.
+     */
+    private static final class Utilisation implements InvocationHandler {
+        private final Entree entree;
+        private final Connection session;
+        private boolean fermee;
+
+        Utilisation(Entree entree, Connection session) {
+            this.entree = entree;
+            this.session = session;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!fermee) {
+                        fermee = true;
+                        entree.liberer();
+                    }
+                    return null;
+                case "isClosed":
+                    return fermee || entree.statement.isClosed();
+                case "getConnection":
+                    return session;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Statement en cache[" + entree.statement + "]";
+                default:
+                    break;
+            }
+            if (fermee) {
+                throw new SQLException("Statement déjà fermé");
+            }
+            try {
+                return method.invoke(entree.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
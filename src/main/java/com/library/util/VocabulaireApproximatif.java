@@ -0,0 +1,173 @@
+package com.library.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recherche des mots proches d'un mot mal orthographié (« Flobert » -> « flaubert »).
+ * Les candidats sont les mots de longueur voisine partageant assez de bigrammes
+ * avec la requête (une modification en détruit au plus deux) ;
+ * ils sont ensuite vérifiés par la distance de Levenshtein.
+ * Non synchronisé : l'appelant protège les accès concurrents.
+ */
+public class VocabulaireApproximatif {
+
+    private final Map<String, Integer> numeros = new HashMap<>();
+    private final List<String> mots = new ArrayList<>();
+    // (bigramme, longueur du mot) -> numéros des mots
+    private final Map<Long, Liste> bigrammes = new HashMap<>();
+
+    // Compteurs réutilisés d'une requête à l'autre (remis à zéro après usage)
+    private final ThreadLocal<int[]> compteurs = ThreadLocal.withInitial(() -> new int[0]);
+
+    /**
+     * Ajoute un mot au vocabulaire (sans effet s'il est déjà présent)
+     */
+    public void ajouter(String mot) {
+        if (numeros.containsKey(mot)) {
+            return;
+        }
+        int numero = mots.size();
+        numeros.put(mot, numero);
+        mots.add(mot);
+        int[] codes = bigrammes(mot);
+        Arrays.sort(codes);
+        for (int i = 0; i < codes.length; i++) {
+            if (i == 0 || codes[i] != codes[i - 1]) {
+                bigrammes.computeIfAbsent(cle(codes[i], mot.length()), c -> new Liste()).ajouter(numero);
+            }
+        }
+    }
+
+    /**
+     * Mots du vocabulaire à une distance au plus égale à la tolérance
+     */
+    public List<Correspondance> rechercher(String mot, int tolerance) {
+        List<Correspondance> resultats = new ArrayList<>();
+        int[] codes = bigrammes(mot);
+        // Chaque modification fait perdre au plus deux bigrammes à la requête
+        int seuil = Math.max(1, codes.length - 2 * tolerance);
+
+        int[] compte = compteurs.get();
+        if (compte.length < mots.size()) {
+            compte = new int[mots.size() + mots.size() / 2];
+            compteurs.set(compte);
+        }
+        Liste touches = new Liste();
+        for (int longueur = Math.max(1, mot.length() - tolerance); longueur <= mot.length() + tolerance; longueur++) {
+            for (int code : codes) {
+                Liste postings = bigrammes.get(cle(code, longueur));
+                if (postings == null) {
+                    continue;
+                }
+                for (int i = 0; i < postings.taille; i++) {
+                    int numero = postings.valeurs[i];
+                    if (compte[numero]++ == 0) {
+                        touches.ajouter(numero);
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < touches.taille; i++) {
+            int numero = touches.valeurs[i];
+            int communs = compte[numero];
+            compte[numero] = 0;
+            if (communs >= seuil) {
+                String candidat = mots.get(numero);
+                int distance = distance(mot, candidat, tolerance);
+                if (distance <= tolerance) {
+                    resultats.add(new Correspondance(candidat, distance));
+                }
+            }
+        }
+        return resultats;
+    }
+
+    public int getTaille() {
+        return mots.size();
+    }
+
+    private static long cle(int bigramme, int longueur) {
+        return ((long) bigramme << 8) | Math.min(longueur, 255);
+    }
+
+    /**
+     * Bigrammes du mot encadré par des marqueurs de début et de fin
+     */
+    private static int[] bigrammes(String mot) {
+        String encadre = '\u0002' + mot + '\u0003';
+        int[] codes = new int[encadre.length() - 1];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = (encadre.charAt(i) << 16) | encadre.charAt(i + 1);
+        }
+        return codes;
+    }
+
+    /**
+     * Distance de Levenshtein ; renvoie max + 1 dès qu'elle dépasse max
+     */
+    public static int distance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] precedente = new int[b.length() + 1];
+        int[] courante = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            precedente[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            courante[0] = i;
+            int minimumLigne = courante[0];
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cout = ca == b.charAt(j - 1) ? 0 : 1;
+                courante[j] = Math.min(Math.min(courante[j - 1] + 1, precedente[j] + 1), precedente[j - 1] + cout);
+                minimumLigne = Math.min(minimumLigne, courante[j]);
+            }
+            if (minimumLigne > max) {
+                return max + 1;
+            }
+            int[] echange = precedente;
+            precedente = courante;
+            courante = echange;
+        }
+        return precedente[b.length()];
+    }
+
+    /**
+     * Mot du vocabulaire trouvé et sa distance au mot cherché
+     */
+    public static final class Correspondance {
+        private final String mot;
+        private final int distance;
+
+        Correspondance(String mot, int distance) {
+            this.mot = mot;
+            this.distance = distance;
+        }
+
+        public String getMot() {
+            return mot;
+        }
+
+        public int getDistance() {
+            return distance;
+        }
+    }
+
+    private static final class Liste {
+        int[] valeurs = new int[4];
+        int taille;
+
+        void ajouter(int valeur) {
+            if (taille == valeurs.length) {
+                valeurs = Arrays.copyOf(valeurs, taille * 2);
+            }
+            valeurs[taille++] = valeur;
+        }
+    }
+}
@@ -21,9 +21,10 @@ CREATE TABLE livres (
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
 
     INDEX idx_titre (titre),
-    INDEX idx_auteur (auteur),
-    INDEX idx_disponible (disponible),
+    INDEX idx_auteur_titre (auteur, titre),
+    INDEX idx_disponible_titre (disponible, titre),
     INDEX idx_isbn (isbn),
+    INDEX idx_annee_publication (annee_publication),
     INDEX idx_id (id)
 ) ENGINE=InnoDB;
 
@@ -35,6 +36,7 @@ CREATE TABLE membres (
     nom VARCHAR(100) NOT NULL,
     prenom VARCHAR(100) NOT NULL,
     email VARCHAR(255) NOT NULL UNIQUE,
+    telephone VARCHAR(20) NULL,
     actif BOOLEAN DEFAULT TRUE,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
@@ -55,6 +57,7 @@ CREATE TABLE emprunts (
     date_retour_prevue DATE NOT NULL,
     date_retour_effective DATE NULL,
     penalite DECIMAL(10, 2) DEFAULT 0.00,
+    penalite_courue DECIMAL(10, 2) NOT NULL DEFAULT 0.00,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
 
@@ -69,7 +72,36 @@ CREATE TABLE emprunts (
     INDEX idx_id_livre (id_livre),
     INDEX idx_id_membre (id_membre),
     INDEX idx_date_emprunt (date_emprunt),
-    INDEX idx_retour_effective (date_retour_effective)
+    INDEX idx_date_retour_prevue (date_retour_prevue),
+    INDEX idx_retour_effective_date (date_retour_effective, date_emprunt),
+    INDEX idx_retour_effective_prevue (date_retour_effective, date_retour_prevue)
+) ENGINE=InnoDB;
+
+-- ============================================
+-- TABLE: statistiques_emprunts
+-- Agrégats des emprunts (une seule ligne, id = 1) : point de contrôle périodique des variations tenues en mémoire
+-- ============================================
+CREATE TABLE statistiques_emprunts (
+    id TINYINT PRIMARY KEY,
+    total_emprunts BIGINT NOT NULL,
+    emprunts_en_cours BIGINT NOT NULL,
+    retours BIGINT NOT NULL,
+    retours_a_temps BIGINT NOT NULL,
+    total_penalites DECIMAL(14, 2) NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+) ENGINE=InnoDB;
+
+-- ============================================
+-- TABLE: points_reprise
+-- Avancement des traitements par lots (reprise après interruption)
+-- ============================================
+CREATE TABLE points_reprise (
+    traitement VARCHAR(50) PRIMARY KEY,
+    date_traitement DATE NOT NULL,
+    derniere_echeance DATE NULL,
+    dernier_id INT NOT NULL,
+    termine BOOLEAN NOT NULL DEFAULT FALSE,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
 ) ENGINE=InnoDB;
 
 -- ============================================
@@ -106,6 +138,14 @@ INSERT INTO emprunts (id_livre, id_membre, date_emprunt, date_retour_prevue, dat
 ('2', 2, '2024-11-05', '2024-11-19', '2024-11-25', 30.00),
 ('3', 3, '2024-11-10', '2024-11-24', '2024-11-23', 0.00);
 
+INSERT INTO statistiques_emprunts (id, total_emprunts, emprunts_en_cours, retours, retours_a_temps, total_penalites)
+SELECT 1, COUNT(*),
+       COALESCE(SUM(date_retour_effective IS NULL), 0),
+       COALESCE(SUM(date_retour_effective IS NOT NULL), 0),
+       COALESCE(SUM(date_retour_effective IS NOT NULL AND date_retour_effective <= date_retour_prevue), 0),
+       COALESCE(SUM(penalite), 0)
+FROM emprunts;
+
 -- ============================================
 -- VÉRIFICATION
 -- ============================================